@@ -0,0 +1,41 @@
+package com.samir.pricecomparator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties(prefix = "normalization")
+@Getter
+@Setter
+public class NormalizationProperties {
+
+    private Cache cache = new Cache();
+    private Engine engine = new Engine();
+
+    @Getter
+    @Setter
+    public static class Cache {
+        /** Reuse title parses (name, brand, model, color) across scrapes */
+        private boolean enabled = true;
+        /** Least recently used titles are dropped beyond this many entries... */
+        private int maxEntries = 200_000;
+        /** ...or beyond this estimated heap size, whichever is hit first */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+        /** Independently locked LRU segments (rounded up to a power of two) */
+        private int segments = 16;
+    }
+
+    @Getter
+    @Setter
+    public static class Engine {
+        /** Worker threads of the normalization pool; 0 = one per available core */
+        private int parallelism = 0;
+        /** Smaller batches (e.g. one listing page) run on the calling thread */
+        private int parallelThreshold = 256;
+        /** Titles per fork-join leaf task */
+        private int chunkSize = 64;
+    }
+}
@@ -0,0 +1,233 @@
+package com.samir.pricecomparator.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "scraping")
+@Getter
+@Setter
+public class ScrapingProperties {
+
+    private boolean enabled = true;
+    private String cron = "0 0 2 * * *";
+
+    private Selenium selenium = new Selenium();
+    private Http http = new Http();
+    private Pipeline pipeline = new Pipeline();
+    private Distributed distributed = new Distributed();
+    private Refresh refresh = new Refresh();
+    private Archive archive = new Archive();
+
+    /** How long listing-page fingerprints are trusted before a page is fully re-parsed */
+    private Duration fingerprintTtl = Duration.ofDays(7);
+
+    /** A PARTIAL/FAILED job older than this is not resumed; the next run starts at page 1 */
+    private Duration resumeMaxAge = Duration.ofHours(12);
+
+    /** Settings applied to every shop unless overridden under {@code shops.<code>} */
+    private ShopSettings shopDefaults = ShopSettings.defaults();
+
+    /** Per-shop overrides keyed by shop code, e.g. {@code kontakt} or {@code baku-electronics} */
+    private Map<String, ShopSettings> shops = new HashMap<>();
+
+    /**
+     * Effective settings for a shop: per-shop values where set, defaults otherwise.
+     */
+    public ShopSettings forShop(String shopCode) {
+        String key = shopCode.toLowerCase(Locale.ROOT).replace('_', '-');
+        ShopSettings override = shops.get(key);
+        return override == null ? shopDefaults : override.withDefaults(shopDefaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Selenium {
+        private Pool pool = new Pool();
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+        /** Maximum number of Chrome instances alive at the same time */
+        private int maxSize = 3;
+        /** A browser is quit and replaced after serving this many leases */
+        private int maxPagesPerDriver = 50;
+        /** How long a caller waits for a free browser before failing */
+        private Duration acquireTimeout = Duration.ofMinutes(2);
+    }
+
+    @Getter
+    @Setter
+    public static class Distributed {
+        /** Share scheduled scrapes between app instances through a Redis work queue */
+        private boolean enabled = false;
+        /** A claimed shop is re-queued if its lease is not renewed within this time */
+        private Duration leaseTtl = Duration.ofMinutes(2);
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+        /** How often idle workers check for re-queued work while other nodes are still busy */
+        private Duration pollInterval = Duration.ofSeconds(15);
+        /** Shops this instance scrapes concurrently */
+        private int workersPerNode = 2;
+    }
+
+    @Getter
+    @Setter
+    public static class Refresh {
+        /** Re-fetch the most volatile/popular listing pages between full runs */
+        private boolean enabled = true;
+        /** How often a batch of pages is planned and refreshed */
+        private Duration interval = Duration.ofMinutes(15);
+        /** Listing page fetches per day spent on refreshes, spread evenly over the ticks */
+        private int dailyPageBudget = 1000;
+        /** A page fetched more recently than this is never refreshed */
+        private Duration minPageAge = Duration.ofHours(1);
+        /** Assumed change rate of a page with little history (changes per day) */
+        private double priorChangesPerDay = 0.5;
+        /** How strongly search popularity raises a page's priority (0 = ignore) */
+        private double popularityWeight = 1.0;
+        /** Top search results per query counted as popular */
+        private int popularityTopResults = 10;
+        /** Search impressions are counted in memory and written to Redis this often */
+        private Duration impressionFlushInterval = Duration.ofSeconds(5);
+        /** Popularity scores are halved on this schedule, so interest from weeks ago fades */
+        private String popularityDecayCron = "0 0 4 * * *";
+    }
+
+    @Getter
+    @Setter
+    public static class Archive {
+        /** off, record (save every response) or replay (serve saved responses, no network) */
+        private ArchiveMode mode = ArchiveMode.OFF;
+        /** One archive file per shop is kept here */
+        private String directory = "fetch-archive";
+        /** Artificial latency added to every replayed response */
+        private Duration replayLatency = Duration.ZERO;
+    }
+
+    public enum ArchiveMode {
+        OFF, RECORD, REPLAY
+    }
+
+    @Getter
+    @Setter
+    public static class Pipeline {
+        /** Page batches buffered between two stages; a full queue blocks the upstream stage */
+        private int queueCapacity = 4;
+        private int normalizeWorkers = 2;
+        /** Keep at 1 unless product matching is made safe for concurrent find-or-create */
+        private int persistWorkers = 1;
+        private int indexWorkers = 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Http {
+        /** TCP/TLS connect timeout of the shared HTTP client */
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        /** Per-request timeout (headers + body) */
+        private Duration requestTimeout = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class ShopSettings {
+        /** Sustained outbound request rate per host */
+        private Double requestsPerSecond;
+        /** Requests allowed back-to-back before throttling kicks in */
+        private Integer burst;
+        /** Listing pages fetched concurrently within one shop scrape */
+        private Integer maxInFlightPages;
+        /** Request headers sent by the HTTP fetch tier; per-shop entries extend the defaults */
+        private Map<String, String> headers = new LinkedHashMap<>();
+        /** CDP resource types (Image, Font, Media, Stylesheet, ...) the browser never requests; replaces the defaults */
+        private List<String> blockedResourceTypes;
+        /** URL wildcard patterns (e.g. {@code *google-analytics.com*}) the browser never requests; replaces the defaults */
+        private List<String> blockedUrlPatterns;
+        /** Fetch listing data from the shop's own XHR/JSON endpoints where the scraper supports it */
+        private Boolean directEndpoints;
+        /** Upper bound on waiting for a browser page to become ready */
+        private Duration pageReadyTimeout;
+        /** How long DOM, product count and network must stay unchanged to call a page ready */
+        private Duration pageQuietPeriod;
+        /** Tune in-flight pages and request rate from observed latency and errors (AIMD); false = fixed limits */
+        private Boolean adaptiveThrottling;
+        /** Upper bound for adaptive in-flight pages; {@code max-in-flight-pages} is the starting value */
+        private Integer maxConcurrentPages;
+        /** Bounds for the adaptive request rate; {@code requests-per-second} is the starting value */
+        private Double minRequestsPerSecond;
+        private Double maxRequestsPerSecond;
+        /** Requests/second added per window of healthy responses */
+        private Double rateStep;
+        /** Average response time above which limits are lowered instead of raised */
+        private Duration latencyTarget;
+        /** Same, for browser navigations (driver.get), which load the whole page and are tracked separately */
+        private Duration browserLatencyTarget;
+        /** Minimum time between two decreases, so one failing batch is not punished repeatedly */
+        private Duration decreaseCooldown;
+        /** Response body fragments that identify an anti-bot challenge page; replaces the defaults */
+        private List<String> challengeMarkers;
+
+        public static ShopSettings defaults() {
+            ShopSettings defaults = new ShopSettings();
+            defaults.requestsPerSecond = 2.0;
+            defaults.burst = 2;
+            defaults.maxInFlightPages = 2;
+            defaults.headers.put("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
+            defaults.headers.put("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+            defaults.headers.put("Accept-Language", "az,en-US;q=0.8,en;q=0.6");
+            defaults.blockedResourceTypes = List.of("Image", "Media", "Font");
+            defaults.blockedUrlPatterns = List.of(
+                    "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+                    "*connect.facebook.net*", "*hotjar.com*", "*mc.yandex.ru*", "*clarity.ms*");
+            defaults.directEndpoints = true;
+            defaults.pageReadyTimeout = Duration.ofSeconds(10);
+            defaults.pageQuietPeriod = Duration.ofMillis(500);
+            defaults.adaptiveThrottling = true;
+            defaults.maxConcurrentPages = 8;
+            defaults.minRequestsPerSecond = 0.25;
+            defaults.maxRequestsPerSecond = 8.0;
+            defaults.rateStep = 0.5;
+            defaults.latencyTarget = Duration.ofMillis(1500);
+            defaults.browserLatencyTarget = Duration.ofSeconds(6);
+            defaults.decreaseCooldown = Duration.ofSeconds(5);
+            defaults.challengeMarkers = List.of(
+                    "/cdn-cgi/challenge-platform/", "cf_chl_opt", "<title>Just a moment...</title>",
+                    "<title>Attention Required! | Cloudflare</title>");
+            return defaults;
+        }
+
+        ShopSettings withDefaults(ShopSettings defaults) {
+            ShopSettings merged = new ShopSettings();
+            merged.requestsPerSecond = requestsPerSecond != null ? requestsPerSecond : defaults.requestsPerSecond;
+            merged.burst = burst != null ? burst : defaults.burst;
+            merged.maxInFlightPages = maxInFlightPages != null ? maxInFlightPages : defaults.maxInFlightPages;
+            merged.headers.putAll(defaults.headers);
+            merged.headers.putAll(headers);
+            merged.blockedResourceTypes = blockedResourceTypes != null ? blockedResourceTypes : defaults.blockedResourceTypes;
+            merged.blockedUrlPatterns = blockedUrlPatterns != null ? blockedUrlPatterns : defaults.blockedUrlPatterns;
+            merged.directEndpoints = directEndpoints != null ? directEndpoints : defaults.directEndpoints;
+            merged.pageReadyTimeout = pageReadyTimeout != null ? pageReadyTimeout : defaults.pageReadyTimeout;
+            merged.pageQuietPeriod = pageQuietPeriod != null ? pageQuietPeriod : defaults.pageQuietPeriod;
+            merged.adaptiveThrottling = adaptiveThrottling != null ? adaptiveThrottling : defaults.adaptiveThrottling;
+            merged.maxConcurrentPages = maxConcurrentPages != null ? maxConcurrentPages : defaults.maxConcurrentPages;
+            merged.minRequestsPerSecond = minRequestsPerSecond != null ? minRequestsPerSecond : defaults.minRequestsPerSecond;
+            merged.maxRequestsPerSecond = maxRequestsPerSecond != null ? maxRequestsPerSecond : defaults.maxRequestsPerSecond;
+            merged.rateStep = rateStep != null ? rateStep : defaults.rateStep;
+            merged.latencyTarget = latencyTarget != null ? latencyTarget : defaults.latencyTarget;
+            merged.browserLatencyTarget = browserLatencyTarget != null ? browserLatencyTarget : defaults.browserLatencyTarget;
+            merged.decreaseCooldown = decreaseCooldown != null ? decreaseCooldown : defaults.decreaseCooldown;
+            merged.challengeMarkers = challengeMarkers != null ? challengeMarkers : defaults.challengeMarkers;
+            return merged;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.samir.pricecomparator.controller;
 import com.samir.pricecomparator.entity.ScrapingJob;
 import com.samir.pricecomparator.service.cache.CacheService;
 import com.samir.pricecomparator.service.normalization.ProductRenormalizationService;
+import com.samir.pricecomparator.service.scraper.ReplayBenchmarkService;
 import com.samir.pricecomparator.service.scraper.ScraperOrchestrator;
 import com.samir.pricecomparator.service.search.ElasticsearchIndexService;
 import lombok.extern.slf4j.Slf4j;
@@ -22,14 +23,17 @@ public class ScraperAdminController {
     private final CacheService cacheService;
     private final ElasticsearchIndexService elasticsearchIndexService;
     private final ProductRenormalizationService renormalizationService;
+    private final ReplayBenchmarkService replayBenchmarkService;
 
     public ScraperAdminController(ScraperOrchestrator scraperOrchestrator,
                                  CacheService cacheService,
                                  ProductRenormalizationService renormalizationService,
+                                 ReplayBenchmarkService replayBenchmarkService,
                                  @Autowired(required = false) ElasticsearchIndexService elasticsearchIndexService) {
         this.scraperOrchestrator = scraperOrchestrator;
         this.cacheService = cacheService;
         this.renormalizationService = renormalizationService;
+        this.replayBenchmarkService = replayBenchmarkService;
         this.elasticsearchIndexService = elasticsearchIndexService;
     }
 
@@ -84,6 +88,49 @@ public class ScraperAdminController {
         }
     }
 
+    /**
+     * Resume a shop scrape from the last PARTIAL/FAILED job's checkpoint
+     * POST /api/admin/scraper/scrape/{shopCode}/resume
+     */
+    @PostMapping("/scrape/{shopCode}/resume")
+    public ResponseEntity<Map<String, String>> resumeShop(@PathVariable String shopCode) {
+        log.info("Manual resume triggered for shop: {}", shopCode);
+
+        new Thread(() -> {
+            try {
+                scraperOrchestrator.resumeShopByCode(shopCode);
+            } catch (Exception e) {
+                log.error("Failed to resume scrape for shop: {}", shopCode, e);
+            }
+        }).start();
+
+        return ResponseEntity.accepted().body(Map.of(
+                "status", "accepted",
+                "message", "Resuming scrape for shop: " + shopCode
+        ));
+    }
+
+    /**
+     * Benchmark the full scrape pipeline of a shop against its recorded fetch archive
+     * (requires scraping.archive.mode=replay). Runs synchronously.
+     * POST /api/admin/scraper/benchmark/{shopCode}?warmups=1&runs=3
+     */
+    @PostMapping("/benchmark/{shopCode}")
+    public ResponseEntity<?> benchmarkShop(@PathVariable String shopCode,
+                                           @RequestParam(defaultValue = "1") int warmups,
+                                           @RequestParam(defaultValue = "3") int runs) {
+        log.info("Replay benchmark triggered for shop: {} ({} warmups, {} runs)", shopCode, warmups, runs);
+
+        try {
+            return ResponseEntity.ok(replayBenchmarkService.run(shopCode, warmups, runs));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", "error",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
     @GetMapping("/jobs")
     public ResponseEntity<List<ScrapingJob>> getRecentJobs(
             @RequestParam(defaultValue = "10") int limit) {
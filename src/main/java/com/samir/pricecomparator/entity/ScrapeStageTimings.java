@@ -0,0 +1,57 @@
+package com.samir.pricecomparator.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/**
+ * Per-stage breakdown of a scraping job. Stage times are summed over all threads of the
+ * run, so parallel stages can add up to more than the job's duration.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScrapeStageTimings {
+
+    @Column(name = "fetch_millis")
+    private Long fetchMillis;
+
+    /** Waiting for a pooled browser and for browser pages to become ready */
+    @Column(name = "browser_wait_millis")
+    private Long browserWaitMillis;
+
+    /** Browser leases held (browser time used) */
+    @Column(name = "browser_millis")
+    private Long browserMillis;
+
+    @Column(name = "parse_millis")
+    private Long parseMillis;
+
+    @Column(name = "normalize_millis")
+    private Long normalizeMillis;
+
+    @Column(name = "match_millis")
+    private Long matchMillis;
+
+    @Column(name = "persist_millis")
+    private Long persistMillis;
+
+    @Column(name = "index_millis")
+    private Long indexMillis;
+
+    @Column(name = "pages_fetched")
+    private Integer pagesFetched;
+
+    @Column(name = "http_requests")
+    private Integer httpRequests;
+
+    @Column(name = "browser_leases")
+    private Integer browserLeases;
+
+    /** HTTP bodies on the wire plus network bytes received by leased browsers */
+    @Column(name = "bytes_downloaded")
+    private Long bytesDownloaded;
+}
@@ -23,7 +23,7 @@ public class ScrapingJob {
     private Shop shop;
 
     @Column(nullable = false, length = 20)
-    private String status; // STARTED, SUCCESS, FAILED
+    private String status; // STARTED, SUCCESS, PARTIAL, FAILED, CANCELLED
 
     @Column(name = "products_found")
     private Integer productsFound;
@@ -34,6 +34,18 @@ public class ScrapingJob {
     @Column(name = "offers_updated")
     private Integer offersUpdated;
 
+    /** Highest listing page whose products (and all earlier pages) are persisted */
+    @Column(name = "last_completed_page")
+    private Integer lastCompletedPage;
+
+    /** Listing page whose fetch failed and ended pagination early (PARTIAL runs) */
+    @Column(name = "failed_page")
+    private Integer failedPage;
+
+    /** Job whose checkpoint this run continued from */
+    @Column(name = "resumed_from_job_id")
+    private Long resumedFromJobId;
+
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
@@ -45,4 +57,8 @@ public class ScrapingJob {
 
     @Column(name = "duration_seconds")
     private Integer durationSeconds;
+
+    /** Where the time went: fetch, browser, parse, normalize, match, persist, index */
+    @Embedded
+    private ScrapeStageTimings stageTimings;
 }
@@ -1,10 +1,14 @@
 package com.samir.pricecomparator.metrics;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
 @Service
 @RequiredArgsConstructor
 public class CacheMetricsService {
@@ -12,13 +16,19 @@ public class CacheMetricsService {
     private final MeterRegistry meterRegistry;
 
     public void recordCacheOperation(String operation, String cacheName, String result) {
-        Counter.builder("pricecomparator_cache_operations_total")
+        cacheOperationCounter(operation, cacheName, result).increment();
+    }
+
+    /**
+     * The counter behind {@link #recordCacheOperation}, for callers on a hot path that hold it
+     */
+    public Counter cacheOperationCounter(String operation, String cacheName, String result) {
+        return Counter.builder("pricecomparator_cache_operations_total")
             .description("Cache operations")
             .tag("operation", operation)
             .tag("cache_name", cacheName)
             .tag("result", result)
-            .register(meterRegistry)
-            .increment();
+            .register(meterRegistry);
     }
 
     public void recordCacheEviction(String cacheName, int count) {
@@ -28,4 +38,31 @@ public class CacheMetricsService {
             .register(meterRegistry)
             .increment(count);
     }
+
+    /**
+     * Entries dropped because they were produced by other parser rules
+     */
+    public void recordCacheInvalidation(String cacheName, int count) {
+        Counter.builder("pricecomparator_cache_invalidations_total")
+            .description("Cache entries invalidated as stale")
+            .tag("cache_name", cacheName)
+            .register(meterRegistry)
+            .increment(count);
+    }
+
+    public void registerCacheSize(String cacheName, LongSupplier entries, LongSupplier bytes, DoubleSupplier hitRatio) {
+        Gauge.builder("pricecomparator_cache_entries", entries, LongSupplier::getAsLong)
+            .description("Entries in an in-process cache")
+            .tag("cache_name", cacheName)
+            .register(meterRegistry);
+        Gauge.builder("pricecomparator_cache_size_bytes", bytes, LongSupplier::getAsLong)
+            .description("Estimated heap used by an in-process cache")
+            .tag("cache_name", cacheName)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("pricecomparator_cache_hit_ratio", hitRatio, DoubleSupplier::getAsDouble)
+            .description("Cache hits over lookups since startup")
+            .tag("cache_name", cacheName)
+            .register(meterRegistry);
+    }
 }
@@ -1,49 +1,85 @@
 package com.samir.pricecomparator.metrics;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-title meters are recorded for every normalized title, so they are built once per
+ * tag value and cached instead of going through the registry lookup on each call.
+ */
 @Service
 @RequiredArgsConstructor
 public class NormalizationMetricsService {
 
     private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> attempts = new ConcurrentHashMap<>();
+    private final Map<String, Counter> brands = new ConcurrentHashMap<>();
+    private final Map<String, Counter> colors = new ConcurrentHashMap<>();
+    private final Map<String, Counter> errors = new ConcurrentHashMap<>();
+    private final Map<String, Timer> titleDurations = new ConcurrentHashMap<>();
 
     public void recordNormalizationAttempt(String result) {
-        Counter.builder("pricecomparator_normalization_attempts_total")
+        attempts.computeIfAbsent(result, tag -> Counter.builder("pricecomparator_normalization_attempts_total")
             .description("Product normalization attempts")
-            .tag("result", result)
-            .register(meterRegistry)
+            .tag("result", tag)
+            .register(meterRegistry))
             .increment();
     }
 
     public void recordBrandDetected(String brand) {
         if (brand != null && !brand.isEmpty()) {
-            Counter.builder("pricecomparator_normalization_brand_detected_total")
+            brands.computeIfAbsent(brand, tag -> Counter.builder("pricecomparator_normalization_brand_detected_total")
                 .description("Brands detected during normalization")
-                .tag("brand", brand)
-                .register(meterRegistry)
+                .tag("brand", tag)
+                .register(meterRegistry))
                 .increment();
         }
     }
 
     public void recordColorDetected(String color) {
         if (color != null && !color.isEmpty()) {
-            Counter.builder("pricecomparator_normalization_color_detected_total")
+            colors.computeIfAbsent(color, tag -> Counter.builder("pricecomparator_normalization_color_detected_total")
                 .description("Colors detected during normalization")
-                .tag("color", color)
-                .register(meterRegistry)
+                .tag("color", tag)
+                .register(meterRegistry))
                 .increment();
         }
     }
 
     public void recordNormalizationError(String errorType) {
-        Counter.builder("pricecomparator_normalization_errors_total")
+        errors.computeIfAbsent(errorType, tag -> Counter.builder("pricecomparator_normalization_errors_total")
             .description("Normalization errors by type")
-            .tag("error_type", errorType)
-            .register(meterRegistry)
+            .tag("error_type", tag)
+            .register(meterRegistry))
             .increment();
     }
+
+    public void recordTitleDuration(String result, long nanos) {
+        titleDurations.computeIfAbsent(result, tag -> Timer.builder("pricecomparator_normalization_title_seconds")
+            .description("Time to normalize one product title (result: parsed, cached, error)")
+            .tag("result", tag)
+            .register(meterRegistry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBatch(String mode, int size, long nanos) {
+        Timer.builder("pricecomparator_normalization_batch_seconds")
+            .description("Time to normalize one batch (mode: inline on the caller, parallel on the engine pool)")
+            .tag("mode", mode)
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("pricecomparator_normalization_batch_size")
+            .description("Titles per normalization batch")
+            .tag("mode", mode)
+            .register(meterRegistry)
+            .record(size);
+    }
 }
@@ -9,7 +9,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
 
 @Service
 @RequiredArgsConstructor
@@ -72,4 +75,154 @@ public class ScraperMetricsService {
             .register(meterRegistry)
             .increment(count);
     }
+
+    public void registerWebDriverPool(IntSupplier leased, IntSupplier idle) {
+        Gauge.builder("pricecomparator_selenium_pool_drivers", leased, IntSupplier::getAsInt)
+            .description("WebDriver instances in the pool by state")
+            .tag("state", "active")
+            .register(meterRegistry);
+        Gauge.builder("pricecomparator_selenium_pool_drivers", idle, IntSupplier::getAsInt)
+            .description("WebDriver instances in the pool by state")
+            .tag("state", "idle")
+            .register(meterRegistry);
+    }
+
+    public void recordWebDriverWait(long waitNanos) {
+        Timer.builder("pricecomparator_selenium_pool_wait_seconds")
+            .description("Time spent waiting to lease a WebDriver from the pool")
+            .register(meterRegistry)
+            .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordWebDriverPoolEvent(String event) {
+        Counter.builder("pricecomparator_selenium_pool_events_total")
+            .description("WebDriver pool lifecycle events (created, recycled, unhealthy, acquire_timeout)")
+            .tag("event", event)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    public void recordPageReadyWait(String shopCode, boolean ready, long waitNanos) {
+        Timer.builder("pricecomparator_selenium_page_ready_seconds")
+            .description("Time spent waiting for browser pages to become ready")
+            .tag("shop", shopCode)
+            .tag("outcome", ready ? "ready" : "timeout")
+            .register(meterRegistry)
+            .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBrowserRequestBlocked(String shopCode, String resourceType) {
+        Counter.builder("pricecomparator_selenium_requests_blocked_total")
+            .description("Browser requests blocked by DevTools interception")
+            .tag("shop", shopCode)
+            .tag("type", resourceType)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    public void recordBrowserBytesTransferred(String shopCode, long bytes) {
+        Counter.builder("pricecomparator_selenium_transferred_bytes_total")
+            .description("Bytes received over the network by pooled browsers")
+            .tag("shop", shopCode)
+            .baseUnit("bytes")
+            .register(meterRegistry)
+            .increment(bytes);
+    }
+
+    public void registerShopLimits(String shopCode, IntSupplier concurrency, DoubleSupplier requestsPerSecond) {
+        Gauge.builder("pricecomparator_scraper_concurrency_limit", concurrency, IntSupplier::getAsInt)
+            .description("Listing pages a shop may have in flight (adaptive)")
+            .tag("shop", shopCode)
+            .register(meterRegistry);
+        Gauge.builder("pricecomparator_scraper_request_rate_limit", requestsPerSecond, DoubleSupplier::getAsDouble)
+            .description("Requests per second allowed to a shop's hosts (adaptive)")
+            .tag("shop", shopCode)
+            .register(meterRegistry);
+    }
+
+    public void recordLimitAdjustment(String shopCode, String direction, String reason) {
+        Counter.builder("pricecomparator_scraper_limit_adjustments_total")
+            .description("Adaptive concurrency/rate changes (up = healthy; down = throttled, timeout, challenge, latency, errors)")
+            .tag("shop", shopCode)
+            .tag("direction", direction)
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    public Counter selectorLookupCounter(String shopCode, String selector, String result) {
+        return Counter.builder("pricecomparator_scraper_selector_lookups_total")
+            .description("CSS selector lookups by scrapers (hit = something matched)")
+            .tag("shop", shopCode)
+            .tag("selector", selector)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    public void recordOffersUnchanged(String shopCode, int count) {
+        Counter.builder("pricecomparator_scraper_offers_unchanged_total")
+            .description("Offers on unchanged listing pages that were only marked as seen")
+            .tag("shop", shopCode)
+            .register(meterRegistry)
+            .increment(count);
+    }
+
+    public void recordRefreshPages(String shopCode, int pages) {
+        Counter.builder("pricecomparator_scraper_refresh_pages_total")
+            .description("Listing pages re-fetched by the incremental refresh scheduler")
+            .tag("shop", shopCode)
+            .register(meterRegistry)
+            .increment(pages);
+    }
+
+    public void recordWorkQueueEvent(String event) {
+        Counter.builder("pricecomparator_scraper_work_queue_events_total")
+            .description("Distributed scrape work queue events (claimed, completed, requeued, lease_lost)")
+            .tag("event", event)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    public void recordRateLimitWait(String shopCode, long waitNanos) {
+        Timer.builder("pricecomparator_scraper_rate_limit_wait_seconds")
+            .description("Time outbound scraper requests spent waiting for a rate-limit permit")
+            .tag("shop", shopCode)
+            .register(meterRegistry)
+            .record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordStageTime(String shopCode, String stage, long nanos) {
+        Timer.builder("pricecomparator_scraper_stage_seconds")
+            .description("Time one scrape run spent in a stage (fetch, browser_wait, browser, parse, normalize, match, persist, index), summed over threads")
+            .tag("shop", shopCode)
+            .tag("stage", stage)
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPagesFetched(String shopCode, long pages) {
+        Counter.builder("pricecomparator_scraper_pages_fetched_total")
+            .description("Listing pages fetched by scrapers (including 304 Not Modified)")
+            .tag("shop", shopCode)
+            .register(meterRegistry)
+            .increment(pages);
+    }
+
+    public void recordBytesDownloaded(String shopCode, long bytes) {
+        Counter.builder("pricecomparator_scraper_downloaded_bytes_total")
+            .description("Bytes downloaded by scrapers over plain HTTP and leased browsers")
+            .tag("shop", shopCode)
+            .baseUnit("bytes")
+            .register(meterRegistry)
+            .increment(bytes);
+    }
+
+    public void recordHttpFetch(String shopCode, int statusCode, long durationNanos) {
+        Timer.builder("pricecomparator_scraper_http_fetch_seconds")
+            .description("Plain HTTP fetches made by scrapers")
+            .tag("shop", shopCode)
+            .tag("status", (statusCode / 100) + "xx")
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
 }
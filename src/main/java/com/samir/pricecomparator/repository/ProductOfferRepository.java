@@ -5,8 +5,12 @@ import com.samir.pricecomparator.entity.ProductOffer;
 import com.samir.pricecomparator.entity.Shop;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,5 +22,14 @@ public interface ProductOfferRepository extends JpaRepository<ProductOffer, Long
     List<ProductOffer> findByInStockTrue();
 
     List<ProductOffer> findByProduct(Product product);
+
+    @Query("SELECT po FROM ProductOffer po JOIN FETCH po.product JOIN FETCH po.shop WHERE po.id IN :ids")
+    List<ProductOffer> findAllWithProductAndShopByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE ProductOffer po SET po.lastSeenAt = :seenAt WHERE po.shop = :shop AND po.url IN :urls")
+    int touchLastSeenAt(@Param("shop") Shop shop,
+                        @Param("urls") Collection<String> urls,
+                        @Param("seenAt") LocalDateTime seenAt);
 }
 
@@ -2,11 +2,23 @@ package com.samir.pricecomparator.repository;
 
 import com.samir.pricecomparator.entity.ScrapingJob;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ScrapingJobRepository extends JpaRepository<ScrapingJob, Long> {
     List<ScrapingJob> findByShopIdOrderByStartedAtDesc(Long shopId);
     List<ScrapingJob> findByStartedAtAfterOrderByStartedAtDesc(LocalDateTime after);
+
+    Optional<ScrapingJob> findFirstByShopIdOrderByStartedAtDesc(Long shopId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ScrapingJob j SET j.lastCompletedPage = :page WHERE j.id = :jobId")
+    void updateCheckpoint(@Param("jobId") Long jobId, @Param("page") int page);
 }
@@ -1,27 +1,38 @@
 package com.samir.pricecomparator.scheduler;
 
 import com.samir.pricecomparator.service.scraper.ScraperOrchestrator;
-import lombok.RequiredArgsConstructor;
+import com.samir.pricecomparator.service.scraper.distributed.DistributedScrapeCoordinator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 @ConditionalOnProperty(name = "scraping.enabled", havingValue = "true", matchIfMissing = true)
 public class DailyScraperJob {
 
     private final ScraperOrchestrator scraperOrchestrator;
+    private final DistributedScrapeCoordinator distributedCoordinator;
+
+    public DailyScraperJob(ScraperOrchestrator scraperOrchestrator,
+                           @Autowired(required = false) DistributedScrapeCoordinator distributedCoordinator) {
+        this.scraperOrchestrator = scraperOrchestrator;
+        this.distributedCoordinator = distributedCoordinator;
+    }
 
     @Scheduled(cron = "${scraping.cron:0 0 2 * * *}")
     public void executeDailyScrape() {
         log.info("=== Starting daily scraping job ===");
 
         try {
-            scraperOrchestrator.scrapeAllShops();
+            if (distributedCoordinator != null) {
+                distributedCoordinator.scrapeAllShops();
+            } else {
+                scraperOrchestrator.scrapeAllShops();
+            }
             log.info("=== Daily scraping job completed successfully ===");
         } catch (Exception e) {
             log.error("=== Daily scraping job failed ===", e);
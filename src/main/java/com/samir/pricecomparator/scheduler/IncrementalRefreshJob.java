@@ -0,0 +1,117 @@
+package com.samir.pricecomparator.scheduler;
+
+import com.samir.pricecomparator.config.ScrapingProperties;
+import com.samir.pricecomparator.entity.Shop;
+import com.samir.pricecomparator.service.cache.CacheService;
+import com.samir.pricecomparator.service.scraper.ScraperOrchestrator;
+import com.samir.pricecomparator.service.scraper.pipeline.ScrapePipeline;
+import com.samir.pricecomparator.service.scraper.refresh.RefreshPlanner;
+import com.samir.pricecomparator.service.scraper.refresh.RefreshStatsStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Spends a daily page budget re-fetching the listing pages most likely to have changed,
+ * between the full runs of {@link DailyScraperJob}.
+ *
+ * Every {@code scraping.refresh.interval} the planner ranks known pages by estimated
+ * change probability and search popularity and the top {@code daily-page-budget / ticks}
+ * pages are refreshed through the normal pipeline. With several instances only the one
+ * that claims the tick in Redis refreshes.
+ */
+@Component
+@Slf4j
+@ConditionalOnExpression("${scraping.enabled:true} and ${scraping.refresh.enabled:true}")
+public class IncrementalRefreshJob {
+
+    private final ScraperOrchestrator scraperOrchestrator;
+    private final RefreshPlanner refreshPlanner;
+    private final RefreshStatsStore statsStore;
+    private final CacheService cacheService;
+    private final ScrapingProperties scrapingProperties;
+
+    private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+
+    public IncrementalRefreshJob(ScraperOrchestrator scraperOrchestrator,
+                                 RefreshPlanner refreshPlanner,
+                                 RefreshStatsStore statsStore,
+                                 CacheService cacheService,
+                                 ScrapingProperties scrapingProperties) {
+        this.scraperOrchestrator = scraperOrchestrator;
+        this.refreshPlanner = refreshPlanner;
+        this.statsStore = statsStore;
+        this.cacheService = cacheService;
+        this.scrapingProperties = scrapingProperties;
+    }
+
+    @Scheduled(initialDelayString = "#{@scrapingProperties.refresh.interval.toMillis()}",
+               fixedDelayString = "#{@scrapingProperties.refresh.interval.toMillis()}")
+    public void refreshVolatilePages() {
+        if (!statsStore.tryClaimTick(scrapingProperties.getRefresh().getInterval())) {
+            log.debug("Refresh tick claimed by another instance");
+            return;
+        }
+
+        Map<String, Shop> shops = scraperOrchestrator.getScrapableShops().stream()
+                .collect(Collectors.toMap(Shop::getCode, Function.identity()));
+        Map<String, SortedSet<Integer>> plan = refreshPlanner.plan(shops.keySet(), refreshPlanner.tickBudget(),
+                Instant.now());
+        if (plan.isEmpty()) {
+            log.debug("No listing pages due for refresh");
+            return;
+        }
+
+        List<CompletableFuture<Integer>> futures = plan.entrySet().stream()
+                .map(entry -> CompletableFuture.supplyAsync(
+                        () -> refreshShop(shops.get(entry.getKey()), entry.getValue()), executorService))
+                .toList();
+        int changedOffers = futures.stream().mapToInt(CompletableFuture::join).sum();
+
+        if (changedOffers > 0) {
+            cacheService.invalidateAllCaches();
+        }
+        log.info("Refresh tick done: {} pages across {} shops, {} offers created or updated",
+                plan.values().stream().mapToInt(SortedSet::size).sum(), plan.size(), changedOffers);
+    }
+
+    @Scheduled(cron = "${scraping.refresh.popularity-decay-cron:0 0 4 * * *}")
+    public void decayPopularity() {
+        if (!statsStore.tryClaimDecay()) {
+            log.debug("Popularity decay claimed by another instance");
+            return;
+        }
+        for (Shop shop : scraperOrchestrator.getScrapableShops()) {
+            try {
+                statsStore.decayPopularity(shop.getCode(), 0.5);
+            } catch (Exception e) {
+                log.warn("Failed to decay search popularity for {}: {}", shop.getCode(), e.getMessage());
+            }
+        }
+    }
+
+    private int refreshShop(Shop shop, SortedSet<Integer> pages) {
+        try {
+            Optional<ScrapePipeline.PipelineResult> result = scraperOrchestrator.refreshPages(shop, pages);
+            return result.map(r -> r.getCreated() + r.getUpdated()).orElse(0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            log.error("Page refresh failed for {}", shop.getCode(), e);
+            return 0;
+        }
+    }
+}
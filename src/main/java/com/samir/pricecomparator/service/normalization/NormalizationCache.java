@@ -0,0 +1,202 @@
+package com.samir.pricecomparator.service.normalization;
+
+import com.samir.pricecomparator.config.NormalizationProperties;
+import com.samir.pricecomparator.metrics.CacheMetricsService;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process memo of title parses, keyed by shop code and raw title.
+ *
+ * Shops list the same titles every day, so on steady-state runs nearly every title is a
+ * hit and skips text normalization, brand/model parsing and color extraction. The cache is
+ * split into independently locked LRU segments so pipeline workers do not contend on one
+ * lock; each segment holds its share of the entry and size limits. Sizes are estimates
+ * (chars × 2 plus a fixed per-entry overhead).
+ *
+ * Every entry carries the rules version of the parsers that produced it. A lookup with a
+ * different version is a miss and drops the entry, so changed parser rules never serve
+ * stale results.
+ */
+@Slf4j
+@Component
+public class NormalizationCache {
+
+    static final String CACHE_NAME = "normalization";
+
+    /** Entry, key, map node and String headers, roughly */
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private final boolean enabled;
+    private final Segment[] segments;
+    private final CacheMetricsService cacheMetrics;
+    /** Looked up once: get() runs for every normalized title */
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public NormalizationCache(NormalizationProperties properties, CacheMetricsService cacheMetrics) {
+        NormalizationProperties.Cache config = properties.getCache();
+        this.enabled = config.isEnabled();
+        this.cacheMetrics = cacheMetrics;
+        this.hitCounter = cacheMetrics.cacheOperationCounter("get", CACHE_NAME, "hit");
+        this.missCounter = cacheMetrics.cacheOperationCounter("get", CACHE_NAME, "miss");
+
+        int segmentCount = Integer.highestOneBit(Math.max(1, config.getSegments()) * 2 - 1);
+        this.segments = new Segment[segmentCount];
+        int maxEntries = Math.max(1, config.getMaxEntries() / segmentCount);
+        long maxBytes = Math.max(1, config.getMaxSize().toBytes() / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxEntries, maxBytes);
+        }
+
+        cacheMetrics.registerCacheSize(CACHE_NAME, this::size, this::estimatedBytes, this::hitRatio);
+        log.info("Normalization cache {} ({} segments, {} entries, {} max)",
+                enabled ? "enabled" : "disabled", segmentCount, config.getMaxEntries(), config.getMaxSize());
+    }
+
+    /**
+     * Cached parse of the title, or null on a miss (including entries from other rules).
+     */
+    public TitleParse get(String shopCode, String title, long rulesVersion) {
+        if (!enabled || title == null) {
+            return null;
+        }
+        Key key = new Key(shopCode, title);
+        TitleParse parse = segmentFor(key).get(key, rulesVersion);
+        if (parse != null) {
+            hits.increment();
+            hitCounter.increment();
+        } else {
+            misses.increment();
+            missCounter.increment();
+        }
+        return parse;
+    }
+
+    public void put(String shopCode, String title, long rulesVersion, TitleParse parse) {
+        if (!enabled || title == null) {
+            return;
+        }
+        Key key = new Key(shopCode, title);
+        segmentFor(key).put(key, new Entry(parse, rulesVersion, estimateBytes(key, parse)));
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.entryCount();
+        }
+        return size;
+    }
+
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.bytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Hits over lookups since startup (0 before the first lookup).
+     */
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private Segment segmentFor(Key key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static int estimateBytes(Key key, TitleParse parse) {
+        return ENTRY_OVERHEAD_BYTES + 2 * (length(key.shopCode()) + length(key.title())
+                + length(parse.normalizedName()) + length(parse.brand())
+                + length(parse.model()) + length(parse.color()));
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    /**
+     * Everything {@link ProductNormalizationService} derives from the title alone.
+     *
+     * @param color color found in the title; a color the shop lists separately wins over it
+     */
+    public record TitleParse(String normalizedName, String brand, String model, String color) {
+    }
+
+    private record Key(String shopCode, String title) {
+    }
+
+    private record Entry(TitleParse parse, long rulesVersion, int bytes) {
+    }
+
+    /**
+     * One access-ordered LRU map under its own lock.
+     */
+    private final class Segment {
+
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+        private final int maxEntries;
+        private final long maxBytes;
+        private long bytes;
+
+        Segment(int maxEntries, long maxBytes) {
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized TitleParse get(Key key, long rulesVersion) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.rulesVersion() != rulesVersion) {
+                entries.remove(key);
+                bytes -= entry.bytes();
+                cacheMetrics.recordCacheInvalidation(CACHE_NAME, 1);
+                return null;
+            }
+            return entry.parse();
+        }
+
+        void put(Key key, Entry entry) {
+            int evicted = 0;
+            synchronized (this) {
+                Entry previous = entries.put(key, entry);
+                bytes += entry.bytes() - (previous != null ? previous.bytes() : 0);
+
+                Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+                while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                    bytes -= eldest.next().getValue().bytes();
+                    eldest.remove();
+                    evicted++;
+                }
+            }
+            if (evicted > 0) {
+                cacheMetrics.recordCacheEviction(CACHE_NAME, evicted);
+            }
+        }
+
+        synchronized int entryCount() {
+            return entries.size();
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+    }
+}
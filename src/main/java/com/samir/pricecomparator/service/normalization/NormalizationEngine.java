@@ -0,0 +1,119 @@
+package com.samir.pricecomparator.service.normalization;
+
+import com.samir.pricecomparator.config.NormalizationProperties;
+import com.samir.pricecomparator.metrics.NormalizationMetricsService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Runs CPU-bound normalization over a batch on a dedicated fork-join pool.
+ *
+ * Large batches (renormalizing the whole catalogue) are split recursively into chunks
+ * that idle workers steal, so they use every core; small batches such as one listing page
+ * run on the calling thread, where the scrape pipeline already parallelizes across pages.
+ * Results keep the input order. The pool is separate from the common pool so a long
+ * renormalization does not starve parallel streams elsewhere.
+ */
+@Slf4j
+@Component
+public class NormalizationEngine {
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final int chunkSize;
+    private final NormalizationMetricsService normalizationMetrics;
+
+    public NormalizationEngine(NormalizationProperties properties, NormalizationMetricsService normalizationMetrics) {
+        NormalizationProperties.Engine config = properties.getEngine();
+        int parallelism = config.getParallelism() > 0
+                ? config.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism, NormalizationEngine::newWorker, null, false);
+        this.parallelThreshold = Math.max(2, config.getParallelThreshold());
+        this.chunkSize = Math.max(1, config.getChunkSize());
+        this.normalizationMetrics = normalizationMetrics;
+        log.info("Normalization engine: {} workers, batches of {}+ split into chunks of {}",
+                parallelism, parallelThreshold, chunkSize);
+    }
+
+    /**
+     * Apply the task to every item; the i-th result belongs to the i-th item. An exception
+     * thrown by the task fails the whole batch, as a sequential loop would.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> task) {
+        long start = System.nanoTime();
+        List<T> input = items instanceof RandomAccess ? items : new ArrayList<>(items);
+        Object[] results = new Object[input.size()];
+
+        boolean parallel = input.size() >= parallelThreshold && pool.getParallelism() > 1;
+        if (parallel) {
+            pool.invoke(new MapTask<>(input, task, results, 0, input.size(), chunkSize));
+        } else {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = task.apply(input.get(i));
+            }
+        }
+
+        normalizationMetrics.recordBatch(parallel ? "parallel" : "inline", input.size(), System.nanoTime() - start);
+        return Collections.unmodifiableList((List<R>) Arrays.asList(results));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("normalize-" + worker.getPoolIndex());
+        return worker;
+    }
+
+    /**
+     * Halves its range until it is at most one chunk, then maps the chunk in place.
+     */
+    private static final class MapTask<T, R> extends RecursiveAction {
+
+        private final List<T> items;
+        private final Function<? super T, ? extends R> task;
+        private final Object[] results;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        MapTask(List<T> items, Function<? super T, ? extends R> task, Object[] results,
+                int from, int to, int chunkSize) {
+            this.items = items;
+            this.task = task;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    results[i] = task.apply(items.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MapTask<>(items, task, results, from, middle, chunkSize),
+                    new MapTask<>(items, task, results, middle, to, chunkSize));
+        }
+    }
+}
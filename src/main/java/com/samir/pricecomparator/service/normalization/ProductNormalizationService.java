@@ -2,6 +2,7 @@ package com.samir.pricecomparator.service.normalization;
 
 import com.samir.pricecomparator.dto.NormalizedProduct;
 import com.samir.pricecomparator.dto.ScrapedProductDto;
+import com.samir.pricecomparator.metrics.NormalizationMetricsService;
 import com.samir.pricecomparator.util.BrandModelParser;
 import com.samir.pricecomparator.util.ColorExtractor;
 import com.samir.pricecomparator.util.TextNormalizationUtil;
@@ -18,40 +19,42 @@ public class ProductNormalizationService {
 
     private final BrandModelParser brandModelParser;
     private final ColorExtractor colorExtractor;
+    private final NormalizationCache normalizationCache;
+    private final NormalizationEngine normalizationEngine;
+    private final NormalizationMetricsService normalizationMetrics;
 
+    /**
+     * Normalize a batch on the {@link NormalizationEngine}; results are in input order.
+     */
     public List<NormalizedProduct> normalize(List<ScrapedProductDto> scrapedProducts) {
         log.info("Normalizing {} scraped products", scrapedProducts.size());
 
-        return scrapedProducts.stream()
-                .map(this::normalizeProduct)
-                .toList();
+        return normalizationEngine.map(scrapedProducts, this::normalizeProduct);
     }
 
     public NormalizedProduct normalizeProduct(ScrapedProductDto scraped) {
-        String normalizedTitle = null;
-        BrandModelParser.BrandModelResult brandModel = new BrandModelParser.BrandModelResult(null, null);
-        String color = scraped.getColor();
-
-        try {
-            normalizedTitle = TextNormalizationUtil.normalize(scraped.getTitle());
-            brandModel = brandModelParser.parse(scraped.getTitle());
+        long start = System.nanoTime();
+        long rulesVersion = rulesVersion();
+        NormalizationCache.TitleParse parse =
+                normalizationCache.get(scraped.getShopCode(), scraped.getTitle(), rulesVersion);
+        if (parse != null) {
+            recordTitle("cached", start);
+        } else {
+            parse = parseTitle(scraped.getTitle(), scraped.getShopCode(), rulesVersion, start);
+        }
+        normalizationMetrics.recordBrandDetected(parse.brand());
 
-            if (color == null || color.isEmpty()) {
-                color = colorExtractor.extractColor(scraped.getTitle());
-            }
-        } catch (Exception e) {
-            log.error("Failed during normalization of product title '{}': {}", scraped.getTitle(), e.getMessage(), e);
-            if (normalizedTitle == null) {
-                normalizedTitle = TextNormalizationUtil.normalize(scraped.getTitle());
-            }
+        String color = scraped.getColor();
+        if (color == null || color.isEmpty()) {
+            color = parse.color();
         }
 
         NormalizedProduct normalized = NormalizedProduct.builder()
                 .shopCode(scraped.getShopCode())
                 .rawTitle(scraped.getTitle())
-                .normalizedName(normalizedTitle)
-                .brand(brandModel.getBrand())
-                .model(brandModel.getModel())
+                .normalizedName(parse.normalizedName())
+                .brand(parse.brand())
+                .model(parse.model())
                 .category("SMARTPHONE") // Fixed category for now
                 .url(scraped.getUrl())
                 .price(scraped.getPrice())
@@ -62,10 +65,54 @@ public class ProductNormalizationService {
                 .imageUrl(scraped.getImageUrl())
                 .inStock(scraped.isInStock())
                 .build();
+        normalizationMetrics.recordColorDetected(color);
 
         log.debug("Normalized product: {} -> Brand: {}, Model: {}, Color: {}",
-                scraped.getTitle(), brandModel.getBrand(), brandModel.getModel(), color);
+                scraped.getTitle(), parse.brand(), parse.model(), color);
 
         return normalized;
     }
+
+    /**
+     * Everything derived from the title alone. Cached unless a step failed, so a failure
+     * is retried next time.
+     */
+    private NormalizationCache.TitleParse parseTitle(String title, String shopCode, long rulesVersion, long start) {
+        String normalizedTitle = null;
+        BrandModelParser.BrandModelResult brandModel = new BrandModelParser.BrandModelResult(null, null);
+        String color = null;
+
+        try {
+            normalizedTitle = TextNormalizationUtil.normalize(title);
+            brandModel = brandModelParser.parse(title);
+            color = colorExtractor.extractColor(title);
+        } catch (Exception e) {
+            log.error("Failed during normalization of product title '{}': {}", title, e.getMessage(), e);
+            normalizationMetrics.recordNormalizationError(e.getClass().getSimpleName());
+            if (normalizedTitle == null) {
+                normalizedTitle = TextNormalizationUtil.normalize(title);
+            }
+            recordTitle("error", start);
+            return new NormalizationCache.TitleParse(normalizedTitle, brandModel.getBrand(), brandModel.getModel(), color);
+        }
+
+        NormalizationCache.TitleParse parse =
+                new NormalizationCache.TitleParse(normalizedTitle, brandModel.getBrand(), brandModel.getModel(), color);
+        normalizationCache.put(shopCode, title, rulesVersion, parse);
+        recordTitle("parsed", start);
+        return parse;
+    }
+
+    private void recordTitle(String result, long start) {
+        normalizationMetrics.recordNormalizationAttempt(result);
+        normalizationMetrics.recordTitleDuration(result, System.nanoTime() - start);
+    }
+
+    /**
+     * Stamp of the parser rules; cached parses made under other rules are ignored.
+     */
+    private long rulesVersion() {
+        return 31 * (31 * TextNormalizationUtil.rulesVersion() + brandModelParser.rulesVersion())
+                + colorExtractor.rulesVersion();
+    }
 }
@@ -11,8 +11,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Re-derives brand and model of stored products from their first offer's title.
+ *
+ * Each run has three phases: titles are loaded and changes are saved on the calling
+ * thread (inside the transaction), while parsing in between runs on the
+ * {@link NormalizationEngine} so a full catalogue uses every core.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -21,29 +29,28 @@ public class ProductRenormalizationService {
     private final ProductRepository productRepository;
     private final ProductOfferRepository productOfferRepository;
     private final BrandModelParser brandModelParser;
+    private final NormalizationEngine normalizationEngine;
 
     @Transactional
     public RenormalizationResult renormalizeAllProducts() {
         log.info("Starting renormalization of all products");
 
         List<Product> products = productRepository.findAll();
-        int updated = 0;
-        int unchanged = 0;
-        int errors = 0;
+        Tally tally = new Tally();
+
+        List<Candidate> candidates = loadCandidates(products, tally);
+        List<BrandModelParser.BrandModelResult> results = parseTitles(candidates);
+
+        for (int i = 0; i < candidates.size(); i++) {
+            Product product = candidates.get(i).product();
+            String title = candidates.get(i).title();
+            BrandModelParser.BrandModelResult result = results.get(i);
+            if (result == null) {
+                tally.errors++;
+                continue;
+            }
 
-        for (Product product : products) {
             try {
-                List<ProductOffer> offers = productOfferRepository.findByProduct(product);
-
-                if (offers.isEmpty()) {
-                    log.warn("Product {} has no offers, skipping", product.getId());
-                    unchanged++;
-                    continue;
-                }
-
-                String title = offers.get(0).getTitle();
-                BrandModelParser.BrandModelResult result = brandModelParser.parse(title);
-
                 boolean changed = false;
 
                 if (result.getBrand() != null && !result.getBrand().equals(product.getBrand())) {
@@ -63,24 +70,24 @@ public class ProductRenormalizationService {
                 if (changed) {
                     product.setUpdatedAt(LocalDateTime.now());
                     productRepository.save(product);
-                    updated++;
+                    tally.updated++;
                     log.info("Renormalized product {}: {} - Brand: {}, Model: {}",
                             product.getId(), title, result.getBrand(), result.getModel());
                 } else {
-                    unchanged++;
+                    tally.unchanged++;
                 }
 
             } catch (Exception e) {
                 log.error("Failed to renormalize product {}: {}", product.getId(), e.getMessage(), e);
-                errors++;
+                tally.errors++;
             }
         }
 
         RenormalizationResult result = new RenormalizationResult(
                 products.size(),
-                updated,
-                unchanged,
-                errors
+                tally.updated,
+                tally.unchanged,
+                tally.errors
         );
 
         log.info("Renormalization complete: {} total, {} updated, {} unchanged, {} errors",
@@ -105,25 +112,26 @@ public class ProductRenormalizationService {
                 .toList();
 
         int totalProducts = products.size() + modelOnlyMissing.size();
-        int updated = 0;
-        int unchanged = 0;
-        int errors = 0;
+        Tally tally = new Tally();
+
+        // Both groups are parsed in one engine batch; the first brandMissing entries are the brandless ones
+        List<Candidate> candidates = loadCandidates(products, tally);
+        int brandMissing = candidates.size();
+        candidates.addAll(loadCandidates(modelOnlyMissing, tally));
+        List<BrandModelParser.BrandModelResult> results = parseTitles(candidates);
+
+        for (int i = 0; i < candidates.size(); i++) {
+            Product product = candidates.get(i).product();
+            BrandModelParser.BrandModelResult result = results.get(i);
+            if (result == null) {
+                tally.errors++;
+                continue;
+            }
 
-        for (Product product : products) {
             try {
-                List<ProductOffer> offers = productOfferRepository.findByProduct(product);
-
-                if (offers.isEmpty()) {
-                    unchanged++;
-                    continue;
-                }
-
-                String title = offers.get(0).getTitle();
-                BrandModelParser.BrandModelResult result = brandModelParser.parse(title);
-
                 boolean changed = false;
 
-                if (result.getBrand() != null) {
+                if (i < brandMissing && result.getBrand() != null) {
                     product.setBrand(result.getBrand());
                     changed = true;
                 }
@@ -136,55 +144,77 @@ public class ProductRenormalizationService {
                 if (changed) {
                     product.setUpdatedAt(LocalDateTime.now());
                     productRepository.save(product);
-                    updated++;
+                    tally.updated++;
                 } else {
-                    unchanged++;
+                    tally.unchanged++;
                 }
 
             } catch (Exception e) {
                 log.error("Failed to renormalize product {}: {}", product.getId(), e.getMessage());
-                errors++;
+                tally.errors++;
             }
         }
 
-        for (Product product : modelOnlyMissing) {
+        RenormalizationResult renormalizationResult = new RenormalizationResult(
+                totalProducts,
+                tally.updated,
+                tally.unchanged,
+                tally.errors
+        );
+
+        log.info("Renormalization of missing data complete: {} total, {} updated, {} unchanged, {} errors",
+                renormalizationResult.total, renormalizationResult.updated, renormalizationResult.unchanged, renormalizationResult.errors);
+
+        return renormalizationResult;
+    }
+
+    /**
+     * Pair each product with its first offer's title. Products without offers count as
+     * unchanged and products whose offers fail to load count as errors; neither is returned.
+     */
+    private List<Candidate> loadCandidates(List<Product> products, Tally tally) {
+        List<Candidate> candidates = new ArrayList<>(products.size());
+        for (Product product : products) {
             try {
                 List<ProductOffer> offers = productOfferRepository.findByProduct(product);
 
                 if (offers.isEmpty()) {
-                    unchanged++;
+                    log.warn("Product {} has no offers, skipping", product.getId());
+                    tally.unchanged++;
                     continue;
                 }
 
-                String title = offers.get(0).getTitle();
-                BrandModelParser.BrandModelResult result = brandModelParser.parse(title);
-
-                if (result.getModel() != null) {
-                    product.setModel(result.getModel());
-                    product.setUpdatedAt(LocalDateTime.now());
-                    productRepository.save(product);
-                    updated++;
-                } else {
-                    unchanged++;
-                }
-
+                candidates.add(new Candidate(product, offers.get(0).getTitle()));
             } catch (Exception e) {
-                log.error("Failed to renormalize product {}: {}", product.getId(), e.getMessage());
-                errors++;
+                log.error("Failed to load offers of product {}: {}", product.getId(), e.getMessage(), e);
+                tally.errors++;
             }
         }
+        return candidates;
+    }
 
-        RenormalizationResult renormalizationResult = new RenormalizationResult(
-                totalProducts,
-                updated,
-                unchanged,
-                errors
-        );
+    /**
+     * Parse every candidate title on the normalization engine, in candidate order; null
+     * where parsing failed.
+     */
+    private List<BrandModelParser.BrandModelResult> parseTitles(List<Candidate> candidates) {
+        return normalizationEngine.map(candidates, candidate -> {
+            try {
+                return brandModelParser.parse(candidate.title());
+            } catch (Exception e) {
+                log.error("Failed to parse title of product {}: {}",
+                        candidate.product().getId(), e.getMessage(), e);
+                return null;
+            }
+        });
+    }
 
-        log.info("Renormalization of missing data complete: {} total, {} updated, {} unchanged, {} errors",
-                renormalizationResult.total, renormalizationResult.updated, renormalizationResult.unchanged, renormalizationResult.errors);
+    private record Candidate(Product product, String title) {}
 
-        return renormalizationResult;
+    private static final class Tally {
+        int updated;
+        int unchanged;
+        int errors;
     }
 
     public record RenormalizationResult(
@@ -193,4 +223,4 @@ public class ProductRenormalizationService {
             int unchanged,
             int errors
     ) {}
-}
\ No newline at end of file
+}
@@ -14,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,8 @@ public class OfferPersistenceService {
     private final ShopRepository shopRepository;
     private final ProductMatchingService productMatchingService;
 
+    private static final int TOUCH_BATCH_SIZE = 500;
+
     @Transactional
     public PersistenceStats persistOffers(List<NormalizedProduct> normalizedProducts) {
         PersistenceStats stats = new PersistenceStats();
@@ -46,11 +49,32 @@ public class OfferPersistenceService {
         return stats;
     }
 
+    /**
+     * Bulk-update lastSeenAt for offers on listing pages that did not change since the last scrape.
+     *
+     * @return number of offers touched
+     */
+    @Transactional
+    public int touchOffers(String shopCode, List<String> offerUrls) {
+        Shop shop = shopRepository.findByCodeIgnoreCase(shopCode)
+                .orElseThrow(() -> new IllegalStateException("Shop not found: " + shopCode));
+
+        LocalDateTime now = LocalDateTime.now();
+        int touched = 0;
+        for (int from = 0; from < offerUrls.size(); from += TOUCH_BATCH_SIZE) {
+            List<String> batch = offerUrls.subList(from, Math.min(from + TOUCH_BATCH_SIZE, offerUrls.size()));
+            touched += productOfferRepository.touchLastSeenAt(shop, batch, now);
+        }
+
+        log.info("Touched lastSeenAt for {} unchanged offers at {}", touched, shopCode);
+        return touched;
+    }
+
     private void persistSingleOffer(NormalizedProduct normalized, PersistenceStats stats) {
         Shop shop = shopRepository.findByCodeIgnoreCase(normalized.getShopCode())
                 .orElseThrow(() -> new IllegalStateException("Shop not found: " + normalized.getShopCode()));
 
-        Product product = findOrCreateProduct(normalized);
+        Product product = findOrCreateProduct(normalized, stats);
 
         Optional<ProductOffer> existingOffer = productOfferRepository
                 .findByProductAndShop(product, shop);
@@ -62,9 +86,11 @@ public class OfferPersistenceService {
         }
     }
 
-    private Product findOrCreateProduct(NormalizedProduct normalized) {
+    private Product findOrCreateProduct(NormalizedProduct normalized, PersistenceStats stats) {
+        long matchStart = System.nanoTime();
         Optional<Product> existingProduct = productMatchingService
                 .findMatchingProduct(normalized);
+        stats.addMatchNanos(System.nanoTime() - matchStart);
 
         if (existingProduct.isPresent()) {
             Product product = existingProduct.get();
@@ -143,6 +169,7 @@ public class OfferPersistenceService {
             offer.setLastSeenAt(LocalDateTime.now());
             productOfferRepository.save(offer);
             stats.incrementUpdated();
+            stats.addOfferId(offer.getId());
             log.debug("Updated offer: {} at {}", offer.getProduct().getNormalizedName(), offer.getShop().getCode());
         } else {
             offer.setLastSeenAt(LocalDateTime.now());
@@ -170,8 +197,9 @@ public class OfferPersistenceService {
         offer.setFirstSeenAt(now);
         offer.setLastSeenAt(now);
 
-        productOfferRepository.save(offer);
+        ProductOffer saved = productOfferRepository.save(offer);
         stats.incrementCreated();
+        stats.addOfferId(saved.getId());
         log.info("Created new offer: {} at {} for {} {}",
                 product.getNormalizedName(), shop.getCode(), normalized.getPrice(), normalized.getCurrency());
     }
@@ -180,13 +208,21 @@ public class OfferPersistenceService {
         private int created = 0;
         private int updated = 0;
         private int failed = 0;
+        private long matchNanos = 0;
+        private final List<Long> offerIds = new ArrayList<>();
 
         public void incrementCreated() { created++; }
         public void incrementUpdated() { updated++; }
         public void incrementFailed() { failed++; }
+        public void addOfferId(Long offerId) { offerIds.add(offerId); }
+        public void addMatchNanos(long nanos) { matchNanos += nanos; }
 
         public int getCreated() { return created; }
         public int getUpdated() { return updated; }
         public int getFailed() { return failed; }
+        /** Time spent finding the existing product of each offer (part of the persist call) */
+        public long getMatchNanos() { return matchNanos; }
+        /** Offers created or changed in this call - the ones whose search documents are stale */
+        public List<Long> getOfferIds() { return offerIds; }
     }
 }
@@ -55,10 +55,13 @@ public class ProductMatchingService {
 
         List<Product> candidates = productRepository.findByBrandIgnoreCase(brand);
 
+        // One buffer for all candidates instead of a String per candidate model
+        StringBuilder candidateModel = new StringBuilder();
         return candidates.stream()
                 .filter(p -> {
-                    String candidateModel = TextNormalizationUtil.normalize(p.getModel());
-                    return candidateModel.equals(normalizedModel);
+                    candidateModel.setLength(0);
+                    TextNormalizationUtil.normalize(p.getModel(), candidateModel);
+                    return normalizedModel.contentEquals(candidateModel);
                 })
                 .findFirst();
     }
@@ -68,16 +71,19 @@ public class ProductMatchingService {
 
         List<Product> allProducts = productRepository.findAll();
 
+        // One buffer for the whole catalog scan instead of a String per product
+        StringBuilder candidateName = new StringBuilder();
         return allProducts.stream()
                 .filter(p -> {
-                    String candidateName = TextNormalizationUtil.normalize(p.getNormalizedName());
+                    candidateName.setLength(0);
+                    TextNormalizationUtil.normalize(p.getNormalizedName(), candidateName);
                     return calculateSimilarity(searchName, candidateName) > 0.85;
                 })
                 .findFirst();
     }
 
-    private double calculateSimilarity(String s1, String s2) {
-        if (s1.equals(s2)) {
+    private double calculateSimilarity(String s1, CharSequence s2) {
+        if (s1.contentEquals(s2)) {
             return 1.0;
         }
 
@@ -87,7 +93,7 @@ public class ProductMatchingService {
         return 1.0 - ((double) distance / maxLength);
     }
 
-    private int levenshteinDistance(String s1, String s2) {
+    private int levenshteinDistance(CharSequence s1, CharSequence s2) {
         int len1 = s1.length();
         int len2 = s2.length();
 
@@ -1,33 +1,63 @@
 package com.samir.pricecomparator.service.scraper;
 
+import com.samir.pricecomparator.config.ScrapingProperties;
 import com.samir.pricecomparator.dto.ScrapedProductDto;
 import com.samir.pricecomparator.entity.Shop;
+import com.samir.pricecomparator.service.scraper.extract.SelectorRegistry;
+import com.samir.pricecomparator.service.scraper.extract.StreamingHtmlExtractor;
+import com.samir.pricecomparator.service.scraper.fetch.AdaptiveConcurrencyController;
+import com.samir.pricecomparator.service.scraper.fetch.FetchArchive;
+import com.samir.pricecomparator.service.scraper.fetch.HostRateLimiter;
+import com.samir.pricecomparator.service.scraper.fetch.HttpFetchClient;
+import com.samir.pricecomparator.service.scraper.fetch.PageFingerprintStore;
+import com.samir.pricecomparator.service.scraper.fetch.PageFingerprintStore.PageFingerprint;
+import com.samir.pricecomparator.service.scraper.fetch.PageNotModifiedException;
+import com.samir.pricecomparator.service.scraper.fetch.ShopUnavailableException;
+import com.samir.pricecomparator.service.scraper.refresh.RefreshStatsStore;
+import com.samir.pricecomparator.util.PageReadiness;
 import com.samir.pricecomparator.util.SeleniumWebDriverManager;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.ui.WebDriverWait;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.By;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.IOException;
-import java.time.Duration;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * Mağaza Scraper-ləri üçün Abstrakt Baza Sinfi
  *
  * Bu sinif bütün mağaza-spesifik scraper-lər üçün ümumi funksionallığı təmin edir.
- * Hər bir mağaza scraper-i bu sinifdən extend edilməlidir və 2 abstrakt metodu tətbiq etməlidir:
+ * Hər bir mağaza scraper-i bu sinifdən extend edilməlidir və 3 abstrakt metodu tətbiq etməlidir:
  * 1. extractProductUrls() - Məhsul səhifələrinin URL-lərini tapır
  * 2. scrapeProduct(url) - Konkret məhsul səhifəsindən məlumat çıxarır
+ * 3. requiresBrowser() - Mağaza real brauzer tələb edirmi
  *
  * ========================================
  * ƏSAS XÜSUSİYYƏTLƏR:
@@ -40,14 +70,15 @@ import java.util.concurrent.TimeUnit;
  *    - Exponential backoff: 1-ci cəhd - 2s, 2-ci cəhd - 4s, 3-cü cəhd - 6s
  *
  * 2. POLİTE SCRAPİNG (Nəzakətli scraping):
- *    - Hər sorğu arasında 500ms gözləmə (POLITE_DELAY_MS = 500)
+ *    - Hər host üçün token bucket rate limiter (HostRateLimiter)
+ *    - Yalnız şəbəkə sorğuları permit gözləyir - lokal parsing tam sürətlə işləyir
+ *    - Sürət application.yml-də konfiqurasiya olunur (scraping.shops.<kod>.requests-per-second)
  *    - Bu mağazaların serverlərini yükləməmək və block edilməməkdir
- *    - Robot.txt qaydalarına hörmət edir
  *
  * 3. DUAL FETCH METODLARİ:
- *    a) fetchDocument() - Sadə HTTP sorğusu (Jsoup ilə)
+ *    a) fetchDocument() - Sadə HTTP sorğusu (paylaşılan HttpFetchClient, HTTP/2)
  *       - Statik HTML səhifələr üçün
- *       - Sürətli və resurs qənaətcil
+ *       - Sürətli və resurs qənaətcil (keep-alive bağlantılar təkrar istifadə olunur)
  *
  *    b) fetchDocumentWithSelenium() - Brauzer simulyasiyası (Selenium ilə)
  *       - JavaScript yüklənən dinamik səhifələr üçün
@@ -59,7 +90,16 @@ import java.util.concurrent.TimeUnit;
  *       - Konkret CSS selector görünənə qədər gözləyir
  *       - Stealth mode: navigator.webdriver property-ni gizlədir
  *
- * 4. HELPER METODLAR:
+ *    requiresBrowser() false olan mağazalarda b) və c) əvvəlcə a)-nı sınayır;
+ *    server HTML-i yararlıdırsa Chrome açılmır.
+ *
+ * 4. PARALEL PAGİNASİYA:
+ *    - scrapePages(maxPages) - səhifələri eyni anda bir neçə ədəd gətirir
+ *    - Alt-sinif yalnız buildPageUrl / fetchListingPage / parseListingPage tətbiq edir
+ *    - Dəyişməyən səhifələr (304 və ya eyni məhsul bloku hash-i) parse edilmir,
+ *      yalnız onların offer URL-ləri "görüldü" kimi qeyd olunur (PageFingerprintStore)
+ *
+ * 5. HELPER METODLAR:
  *    - extractText(): CSS selector ilə mətn çıxarma
  *    - extractAttr(): CSS selector ilə atribut çıxarma
  *    - parsePrice(): Qiymət mətnini BigDecimal-a parse etmə
@@ -77,7 +117,7 @@ import java.util.concurrent.TimeUnit;
  * Bu yanaşma:
  * ✓ Kod təkrarını aradan qaldırır
  * ✓ Retry və rate limiting kimi ümumi məsələləri mərkəzləşdirir
- * ✓ Yeni mağaza əlavə etməyi asanlaşdırır (yalnız 2 metod tətbiq et)
+ * ✓ Yeni mağaza əlavə etməyi asanlaşdırır (yalnız 3 metod tətbiq et)
  * ✓ Saxlanması və testləşdirilməsi asandır
  *
  * ========================================
@@ -103,6 +143,11 @@ import java.util.concurrent.TimeUnit;
  *         // ...
  *         return Optional.of(dto);
  *     }
+ *
+ *     @Override
+ *     protected boolean requiresBrowser() {
+ *         return false;
+ *     }
  * }
  */
 @Slf4j
@@ -127,17 +172,6 @@ public abstract class AbstractShopScraper {
      */
     protected static final int RETRY_DELAY_MS = 2000;
 
-    /**
-     * Hər sorğu arasında nəzakətli gözləmə müddəti (millisaniyə)
-     * 500ms - mağazaların serverlərini yükləməmək və block edilməmək üçün
-     *
-     * NİYƏ 500MS?
-     * - Çox qısa (100ms) → Server yüklənməsi, block riski
-     * - Çox uzun (2000ms) → Scraping çox yavaş olur
-     * - 500ms → Optimal balans
-     */
-    protected static final int POLITE_DELAY_MS = 500;
-
     /**
      * Scraping aparılan mağaza obyekti
      * Bu obyekt mağaza məlumatlarını (kod, ad, baseUrl və s.) ehtiva edir
@@ -145,12 +179,15 @@ public abstract class AbstractShopScraper {
     protected final Shop shop;
 
     /**
-     * Selenium WebDriver manager (opsional)
+     * Selenium WebDriver pool-u (opsional)
      *
      * @Autowired(required = false):
      * - Selenium konfiqurasiya olunubsa inject edilir
      * - Konfiqurasiya olunmayıbsa null qalır və Jsoup istifadə olunur
      *
+     * Brauzerlər pool-dan icarəyə götürülür (acquire) və try-with-resources ilə
+     * geri qaytarılır - hər səhifə üçün yeni Chrome açılmır.
+     *
      * Selenium istifadə halları:
      * - Anti-bot deteksiyası olan mağazalar (KONTAKT)
      * - JavaScript ilə yüklənən məzmun (IRSHAD Load More button)
@@ -159,6 +196,111 @@ public abstract class AbstractShopScraper {
     @Autowired(required = false)
     protected SeleniumWebDriverManager webDriverManager;
 
+    /**
+     * Host əsaslı rate limiter (opsional)
+     *
+     * Hər çıxan sorğudan (HTTP və ya Selenium naviqasiyası) əvvəl permit alınır.
+     * Null olduqda throttling tətbiq edilmir.
+     */
+    @Autowired(required = false)
+    protected HostRateLimiter rateLimiter;
+
+    /**
+     * Paylaşılan HTTP/2 klient (opsional)
+     *
+     * Bütün mağazalar eyni connection pool-dan istifadə edir (keep-alive, gzip/brotli).
+     * Null olduqda fetchDocument() Jsoup.connect() ilə işləyir.
+     */
+    @Autowired(required = false)
+    protected HttpFetchClient httpClient;
+
+    /**
+     * Mağaza üzrə scraping tənzimləmələri (rate limit, paralel səhifə sayı və s.)
+     */
+    @Autowired(required = false)
+    protected ScrapingProperties scrapingProperties;
+
+    /**
+     * Əvvəlki scrape-in siyahı səhifəsi fingerprint-ləri (opsional)
+     *
+     * Null olduqda hər səhifə həmişə tam parse edilir.
+     */
+    @Autowired(required = false)
+    protected PageFingerprintStore fingerprintStore;
+
+    /**
+     * Kompilyasiya olunmuş CSS selector-lar + hit/miss sayğacları (opsional)
+     *
+     * Null olduqda selector hər çağırışda yenidən parse edilir (Jsoup default).
+     */
+    @Autowired(required = false)
+    protected SelectorRegistry selectorRegistry;
+
+    /**
+     * Adaptiv paralellik/rate nəzarətçisi (AIMD, opsional)
+     *
+     * Mağaza sağlam cavab verdikcə paralel səhifə sayını və rate-i tədricən artırır;
+     * 429/503, timeout və ya challenge səhifəsində kəskin azaldır.
+     * Null olduqda sabit max-in-flight-pages istifadə olunur.
+     */
+    @Autowired(required = false)
+    protected AdaptiveConcurrencyController concurrencyController;
+
+    /**
+     * Səhifə dəyişiklik tarixçəsi - incremental refresh prioritetləri üçün (opsional)
+     */
+    @Autowired(required = false)
+    protected RefreshStatsStore refreshStats;
+
+    /**
+     * Bu scrape zamanı emal olunan siyahı səhifələri (URL → validator-lar və köhnə fingerprint)
+     */
+    private final Map<String, ListingPage> listingPages = new ConcurrentHashMap<>();
+
+    /**
+     * Cavabların yazılması/təkrar oxunması üçün arxiv (record/replay, opsional)
+     *
+     * record rejimində hər HTTP cavabı və brauzer səhifəsi diskə yazılır; replay rejimində
+     * şəbəkə və brauzer əvəzinə arxivdən oxunur. Null olduqda həmişə canlı fetch.
+     */
+    @Autowired(required = false)
+    protected FetchArchive fetchArchive;
+
+    /**
+     * Bu run-un mərhələ vaxtları (fetch, brauzer, parse...) - ScrapingJob-a yazılır
+     */
+    private final ScrapeRunStats runStats = new ScrapeRunStats();
+
+    /**
+     * Dəyişməyən səhifələrdən gələn offer URL-ləri - yalnız lastSeenAt yenilənir
+     */
+    private final List<String> unchangedOfferUrls = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * scrape(PageSink) zamanı aktiv olan sink; null - məhsullar siyahıda toplanır
+     */
+    private volatile PageSink pageSink;
+
+    /**
+     * Paginasiyanın başladığı səhifə (resume rejimində checkpoint + 1)
+     */
+    private int startPage = 1;
+
+    /**
+     * REFRESH rejimi: yalnız bu səhifələr gətirilir (null - tam paginasiya)
+     */
+    private SortedSet<Integer> refreshPages;
+
+    /**
+     * Fetch xətası ilə paginasiyanı vaxtından əvvəl dayandıran səhifə (null - xəta olmayıb)
+     */
+    private volatile Integer failedPage;
+
+    /**
+     * Son xətanın mesajı (ScrapingJob.errorMessage üçün)
+     */
+    private volatile String failureMessage;
+
     /**
      * Konstruktor - mağaza obyekti ilə inisializasiya
      *
@@ -174,8 +316,9 @@ public abstract class AbstractShopScraper {
      * Bu metod scraping prosesinin ümumi axışını təyin edir:
      * 1. Məhsul URL-lərini tap (extractProductUrls)
      * 2. Hər URL üçün məhsul məlumatını çıxar (scrapeProduct)
-     * 3. Hər sorğu arasında nəzakətli gözləmə
-     * 4. Xətaları idarə et və log-la
+     * 3. Xətaları idarə et və log-la
+     *
+     * Nəzakətli gözləmə fetch metodlarındakı rate limiter tərəfindən edilir.
      *
      * @return Scrape edilmiş məhsulların siyahısı
      */
@@ -198,10 +341,6 @@ public abstract class AbstractShopScraper {
                     // Əgər məhsul uğurla scrape edilibsə, siyahıya əlavə et
                     product.ifPresent(products::add);
 
-                    // Nəzakətli gözləmə - növbəti sorğu öncə
-                    // Bu mağazanın serverini yükləməmək üçün vacibdir
-                    TimeUnit.MILLISECONDS.sleep(POLITE_DELAY_MS);
-
                 } catch (Exception e) {
                     // Tək məhsulda xəta bütün scraping-i dayandırmamalıdır
                     log.error("Failed to scrape product: {}", url, e);
@@ -216,6 +355,92 @@ public abstract class AbstractShopScraper {
         return products;
     }
 
+    /**
+     * STREAMING SCRAPE: Məhsulları hazır olduqca sink-ə ötür
+     *
+     * scrapePages() istifadə edən mağazalar hər səhifəni ayrıca ötürür, belə ki
+     * normalizasiya və persist sonrakı səhifələr hələ yüklənərkən başlaya bilir.
+     * Digər mağazalar (məs: IRSHAD brauzer rejimində) scrape() bitdikdən sonra bütün siyahını bir dəfəyə
+     * səhifə nömrəsi 0 ilə ötürür (checkpoint/resume dəstəklənmir).
+     *
+     * @param sink Məhsul partiyalarının qəbuledicisi; bloklaya bilər (backpressure)
+     */
+    public void scrape(PageSink sink) throws InterruptedException {
+        pageSink = sink;
+        try {
+            List<ScrapedProductDto> remaining = scrape();
+            if (!remaining.isEmpty()) {
+                sink.accept(0, remaining);
+            }
+        } finally {
+            pageSink = null;
+        }
+    }
+
+    /**
+     * Scrape edilmiş məhsul partiyalarının qəbuledicisi
+     *
+     * Paginasiya olan mağazalarda hər səhifə (dəyişməyən, boş siyahılı səhifələr daxil)
+     * artan sıra ilə bir dəfə ötürülür - checkpoint bu nömrələrə əsaslanır.
+     */
+    @FunctionalInterface
+    public interface PageSink {
+        void accept(int page, List<ScrapedProductDto> products) throws InterruptedException;
+    }
+
+    /**
+     * RESUME: Paginasiyanı checkpoint-dən sonrakı səhifədən başlat
+     *
+     * @param lastCompletedPage Əvvəlki run-da persist edilmiş son səhifə
+     */
+    public void resumeAfter(int lastCompletedPage) {
+        this.startPage = lastCompletedPage + 1;
+    }
+
+    public int getStartPage() {
+        return startPage;
+    }
+
+    /**
+     * REFRESH: Tam paginasiya əvəzinə yalnız verilmiş siyahı səhifələrini gətir
+     *
+     * Səhifələr arasında boşluq ola bilər; boş və ya uğursuz səhifə digərlərini
+     * dayandırmır. Hər səhifə sink-ə artan sıra ilə ötürülür.
+     *
+     * @param pages Gətiriləcək səhifə nömrələri (1-dən başlayır)
+     */
+    public void refreshOnly(Collection<Integer> pages) {
+        this.refreshPages = new TreeSet<>(pages);
+    }
+
+    /**
+     * Bu scrape yalnız seçilmiş səhifələrin refresh-idirmi?
+     *
+     * Paginasiyanı dəstəkləməyən rejimlər (məs: IRSHAD brauzer fallback-i) bu halda
+     * heç nə etməməlidir - əks halda refresh tam scrape-ə çevrilir.
+     */
+    protected boolean isRefreshRun() {
+        return refreshPages != null;
+    }
+
+    /**
+     * Mərhələ vaxtları və sayğaclar; pipeline normalize/persist/index vaxtlarını əlavə edir
+     */
+    public ScrapeRunStats getRunStats() {
+        return runStats;
+    }
+
+    /**
+     * Fetch xətası səbəbindən tamamlanmayan səhifə (null - paginasiya normal bitib)
+     */
+    public Integer getFailedPage() {
+        return failedPage;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
     /**
      * ABSTRAKT METOD: Məhsul URL-lərini çıxar
      *
@@ -253,6 +478,392 @@ public abstract class AbstractShopScraper {
      */
     protected abstract Optional<ScrapedProductDto> scrapeProduct(String url);
 
+    /**
+     * ABSTRAKT METOD: Bu mağaza real brauzer tələb edirmi?
+     *
+     * false olduqda fetchDocumentWithSelenium*() əvvəlcə sadə HTTP sorğusu göndərir
+     * və cavab istifadəyə yararlıdırsa (hasUsableMarkup) Chrome ümumiyyətlə açılmır.
+     *
+     * - KONTAKT: true (anti-bot 403)
+     * - IRSHAD: true ("Load More" klikləri)
+     * - BAKU_ELECTRONICS: false (__NEXT_DATA__ server HTML-də var)
+     */
+    protected abstract boolean requiresBrowser();
+
+    /**
+     * Sadə HTTP cavabı brauzer render-i əvəz edə bilərmi?
+     *
+     * Default: body-də mətn var (boş JS shell deyil). Alt-siniflər daha dəqiq
+     * yoxlama ilə override edə bilər (məs: konkret script və ya selector).
+     */
+    protected boolean hasUsableMarkup(Document doc) {
+        return doc.body() != null && !doc.body().text().isBlank();
+    }
+
+    /**
+     * PAGINASİYA: Siyahı səhifələrini paralel gətir və emal et
+     *
+     * Səhifələr 1-dən başlayaraq ardıcıl nömrələrlə göndərilir, amma eyni anda
+     * ən çox {@code max-in-flight-pages} səhifə yüklənir (mağaza üzrə konfiqurasiya).
+     * Hər səhifə gələn kimi öz worker thread-ində parse edilir.
+     *
+     * DAYANMA QAYDASI:
+     * - Boş səhifə (0 məhsul) və ya fetch xətası paginasiyanın sonu sayılır
+     * - Həmin səhifədən sonrakı yüklənən/gözləyən səhifələr ləğv edilir və nəticələri atılır
+     * - Nəticə səhifə sırası ilə qaytarılır (ardıcıl versiya ilə eyni)
+     *
+     * STREAMING: scrape(PageSink) ilə çağırıldıqda hər səhifə (ondan əvvəlki bütün
+     * səhifələr bitən kimi) dərhal sink-ə ötürülür və yaddaşda saxlanmır.
+     *
+     * Alt-siniflər yalnız bu hook-ları tətbiq edir:
+     * - buildPageUrl(page) - səhifə URL-i
+     * - fetchListingPage(url) - səhifəni gətir (default: fetchDocument)
+     * - parseListingPage(doc, page) - məhsulları çıxar
+     *
+     * @param maxPages Maksimum səhifə sayı
+     * @return Bütün səhifələrdən məhsullar (səhifə sırası ilə); streaming rejimində boş siyahı
+     */
+    protected List<ScrapedProductDto> scrapePages(int maxPages) {
+        if (refreshPages != null) {
+            return scrapeSelectedPages(maxPages);
+        }
+        NavigableMap<Integer, List<ScrapedProductDto>> pages = new TreeMap<>();
+        Map<Integer, Future<PageResult>> pending = new HashMap<>();
+        List<ScrapedProductDto> products = new ArrayList<>();
+        PageSink sink = pageSink != null ? pageSink : (page, pageProducts) -> products.addAll(pageProducts);
+        int lastPage = maxPages;
+        int nextPage = startPage;
+        int nextToEmit = startPage;
+        int emitted = 0;
+        if (startPage > 1) {
+            log.info("Resuming {} pagination from page {}", shop.getCode(), startPage);
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<PageResult> completion = new ExecutorCompletionService<>(executor);
+
+            while (true) {
+                // Limit hər dövrdə yenidən oxunur - adaptiv nəzarətçi onu scraping zamanı dəyişir
+                int maxInFlight = maxInFlightPages();
+                while (pending.size() < maxInFlight && nextPage <= lastPage) {
+                    int page = nextPage++;
+                    pending.put(page, completion.submit(() -> fetchAndParsePage(page)));
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+
+                Future<PageResult> done = completion.take();
+                if (done.isCancelled()) {
+                    continue;
+                }
+                PageResult result = done.get();
+                pending.remove(result.page());
+                if (result.page() > lastPage) {
+                    continue;
+                }
+
+                if (result.error() != null || (result.products().isEmpty() && !result.unchanged())) {
+                    if (result.error() != null) {
+                        log.error("Failed to fetch page {}: {}", result.page(), result.error().getMessage());
+                        failedPage = result.page();
+                        failureMessage = "Page " + result.page() + " failed: " + result.error().getMessage();
+                    } else {
+                        log.info("No products found on page {}. Stopping pagination.", result.page());
+                        // Daha sonrakı səhifənin xətası artıq əhəmiyyətsizdir - siyahı burada bitir
+                        failedPage = null;
+                        failureMessage = null;
+                    }
+                    lastPage = result.page() - 1;
+                    int end = lastPage;
+                    pending.entrySet().removeIf(entry -> {
+                        if (entry.getKey() > end) {
+                            entry.getValue().cancel(true);
+                            return true;
+                        }
+                        return false;
+                    });
+                    pages.tailMap(lastPage, false).clear();
+                    continue;
+                }
+
+                if (!result.unchanged()) {
+                    log.info("Found {} products on page {}", result.products().size(), result.page());
+                }
+                pages.put(result.page(), result.products());
+
+                // Əvvəlki bütün səhifələri bitmiş səhifələri ötür - sonradan atıla bilməzlər
+                while (pages.containsKey(nextToEmit)) {
+                    int page = nextToEmit++;
+                    List<ScrapedProductDto> pageProducts = pages.remove(page);
+                    sink.accept(page, pageProducts);
+                    emitted += pageProducts.size();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Pagination interrupted for {}", shop.getCode());
+        } catch (ExecutionException e) {
+            log.error("Unexpected pagination failure for {}", shop.getCode(), e.getCause());
+        }
+
+        log.info("Scraped {} products from {} ({} pages)", emitted, shop.getCode(), nextToEmit - startPage);
+        return products;
+    }
+
+    /**
+     * REFRESH: Yalnız refreshPages-dəki səhifələri gətir (max-in-flight limiti ilə)
+     *
+     * Nəticələr səhifə sırası ilə sink-ə ötürülür; uğursuz səhifə qeyd edilir, amma
+     * qalanları davam edir.
+     */
+    private List<ScrapedProductDto> scrapeSelectedPages(int maxPages) {
+        Iterator<Integer> remaining = refreshPages.headSet(maxPages + 1).iterator();
+        NavigableMap<Integer, List<ScrapedProductDto>> pages = new TreeMap<>();
+        List<ScrapedProductDto> products = new ArrayList<>();
+        PageSink sink = pageSink != null ? pageSink : (page, pageProducts) -> products.addAll(pageProducts);
+        int inFlight = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<PageResult> completion = new ExecutorCompletionService<>(executor);
+            while (true) {
+                int maxInFlight = maxInFlightPages();
+                while (inFlight < maxInFlight && remaining.hasNext()) {
+                    int page = remaining.next();
+                    completion.submit(() -> fetchAndParsePage(page));
+                    inFlight++;
+                }
+                if (inFlight == 0) {
+                    break;
+                }
+                PageResult result = completion.take().get();
+                inFlight--;
+                if (result.error() != null) {
+                    log.warn("Failed to refresh page {} of {}: {}", result.page(), shop.getCode(),
+                            result.error().getMessage());
+                    if (failedPage == null) {
+                        failedPage = result.page();
+                        failureMessage = "Page " + result.page() + " failed: " + result.error().getMessage();
+                    }
+                    continue;
+                }
+                pages.put(result.page(), result.products());
+            }
+            for (Map.Entry<Integer, List<ScrapedProductDto>> page : pages.entrySet()) {
+                sink.accept(page.getKey(), page.getValue());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Page refresh interrupted for {}", shop.getCode());
+        } catch (ExecutionException e) {
+            log.error("Unexpected page refresh failure for {}", shop.getCode(), e.getCause());
+        }
+
+        log.info("Refreshed {} pages of {} ({} products parsed)", pages.size(), shop.getCode(),
+                pages.values().stream().mapToInt(List::size).sum());
+        return products;
+    }
+
+    /**
+     * REFRESH: Gətirilmiş səhifənin nəticəsini tarixçəyə yaz (prioritet hesablaması üçün)
+     *
+     * @param changed true/false - əvvəlki fingerprint ilə müqayisə; null - müqayisə mümkün deyil
+     */
+    private void recordPageFetch(int page, Boolean changed, List<String> offerUrls) {
+        if (refreshStats != null && !offerUrls.isEmpty()) {
+            refreshStats.recordFetch(shop.getCode(), page, changed, offerUrls);
+        }
+    }
+
+    private PageResult fetchAndParsePage(int page) {
+        String pageUrl = buildPageUrl(page);
+        try {
+            ListingPage listing = new ListingPage(findFingerprint(pageUrl));
+            listingPages.put(pageUrl, listing);
+
+            log.debug("Fetching page {} from URL: {}", page, pageUrl);
+            Document doc;
+            try {
+                doc = fetchListingPage(pageUrl);
+                runStats.pageFetched();
+            } catch (PageNotModifiedException e) {
+                runStats.pageFetched();
+                return unchangedPage(page, listing, "304 Not Modified");
+            }
+
+            String content = listingFingerprintContent(doc);
+            listing.contentHash = content != null ? PageFingerprintStore.hash(content) : null;
+            if (listing.previous != null && listing.contentHash != null
+                    && listing.contentHash.equals(listing.previous.contentHash())) {
+                return unchangedPage(page, listing, "product block unchanged");
+            }
+
+            long parseStart = System.nanoTime();
+            List<ScrapedProductDto> products = parseListingPage(doc, page);
+            runStats.record(ScrapeRunStats.Stage.PARSE, System.nanoTime() - parseStart);
+            List<String> offerUrls = products.stream().map(ScrapedProductDto::getUrl).toList();
+            if (listing.contentHash != null && !products.isEmpty()) {
+                listing.pending = new PageFingerprint(listing.etag, listing.lastModified, listing.contentHash,
+                        offerUrls);
+            }
+            recordPageFetch(page, listing.previous != null && listing.contentHash != null ? Boolean.TRUE : null,
+                    offerUrls);
+            return new PageResult(page, products, false, null);
+        } catch (Exception e) {
+            return new PageResult(page, List.of(), false, e);
+        }
+    }
+
+    private PageResult unchangedPage(int page, ListingPage listing, String reason) {
+        log.info("Page {} unchanged ({}), skipping parse for {} offers",
+                page, reason, listing.previous.offerUrls().size());
+        unchangedOfferUrls.addAll(listing.previous.offerUrls());
+        // Yenidən yazmaq TTL-i uzadır; yeni validator-lar varsa onları saxla
+        PageFingerprint previous = listing.previous;
+        listing.pending = new PageFingerprint(
+                listing.etag != null ? listing.etag : previous.etag(),
+                listing.lastModified != null ? listing.lastModified : previous.lastModified(),
+                previous.contentHash(),
+                previous.offerUrls());
+        recordPageFetch(page, Boolean.FALSE, previous.offerUrls());
+        return new PageResult(page, List.of(), true, null);
+    }
+
+    /**
+     * Əvvəlki fingerprint (yoxdursa null)
+     *
+     * Record rejimində istifadə olunmur: conditional GET-in 304 cavabı arxivdə səhifəni
+     * əvəz edərdi, replay isə fingerprint-siz işləyir - hər səhifə tam gətirilməlidir.
+     */
+    private PageFingerprint findFingerprint(String pageUrl) {
+        if (fingerprintStore == null || isRecording()) {
+            return null;
+        }
+        return fingerprintStore.find(shop.getCode(), pageUrl)
+                .filter(fingerprint -> fingerprint.offerUrls() != null && !fingerprint.offerUrls().isEmpty())
+                .orElse(null);
+    }
+
+    /**
+     * @param unchanged səhifə əvvəlki scrape ilə eynidir - products boş olsa da paginasiya davam edir
+     */
+    private record PageResult(int page, List<ScrapedProductDto> products, boolean unchanged, Exception error) {
+    }
+
+    /**
+     * Bir siyahı səhifəsinin bu scrape zamanı toplanan fingerprint vəziyyəti
+     */
+    private static final class ListingPage {
+        private final PageFingerprint previous;
+        private volatile String etag;
+        private volatile String lastModified;
+        private volatile String contentHash;
+        private volatile PageFingerprint pending;
+
+        private ListingPage(PageFingerprint previous) {
+            this.previous = previous;
+        }
+    }
+
+    /**
+     * Dəyişməyən səhifələrdə tapılan offer URL-ləri (parse edilməyib)
+     *
+     * Orchestrator bu offer-lər üçün yalnız lastSeenAt-i toplu şəkildə yeniləyir.
+     */
+    public List<String> getUnchangedOfferUrls() {
+        synchronized (unchangedOfferUrls) {
+            return List.copyOf(unchangedOfferUrls);
+        }
+    }
+
+    /**
+     * Bu scrape-in səhifə fingerprint-lərini saxla
+     *
+     * Məhsullar uğurla persist edildikdən SONRA çağırılmalıdır - əks halda növbəti
+     * scrape heç vaxt bazaya yazılmamış səhifəni "dəyişməyib" sayıb ötürə bilər.
+     */
+    public void commitPageFingerprints() {
+        if (fingerprintStore == null) {
+            return;
+        }
+        listingPages.forEach((url, listing) -> {
+            if (listing.pending != null) {
+                fingerprintStore.save(shop.getCode(), url, listing.pending);
+            }
+        });
+    }
+
+    /**
+     * PAGİNASİYA HOOK: Səhifə nömrəsindən URL qur (1-dən başlayır)
+     *
+     * Hər alt-sinif tətbiq edir; paginasiyasız rejimlər (məs: IRSHAD brauzer rejimi) onu çağırmır.
+     */
+    protected abstract String buildPageUrl(int page);
+
+    /**
+     * PAGİNASİYA HOOK: Siyahı səhifəsini gətir (default: sadə HTTP)
+     */
+    protected Document fetchListingPage(String url) throws IOException {
+        return fetchDocument(url);
+    }
+
+    /**
+     * PAGİNASİYA HOOK: Siyahı səhifəsindən məhsulları çıxar
+     *
+     * Paralel çağırıla bilər - yalnız lokal vəziyyətdən istifadə edin.
+     *
+     * @return Səhifədəki məhsullar; boş siyahı paginasiyanı dayandırır
+     */
+    protected List<ScrapedProductDto> parseListingPage(Document doc, int page) {
+        return List.of();
+    }
+
+    /**
+     * PAGİNASİYA HOOK: Səhifənin "məhsul bloku" - dəyişiklik yoxlaması üçün hash edilir
+     *
+     * Yalnız məhsullara aid hissəni qaytarın (reklam, CSRF token və s. daxil olmasın),
+     * əks halda hər scrape-də hash dəyişər. null - fingerprint istifadə edilmir.
+     */
+    protected String listingFingerprintContent(Document doc) {
+        return doc.body() != null ? doc.body().html() : null;
+    }
+
+    /**
+     * Hazırda eyni anda gətirilə bilən siyahı səhifələrinin sayı
+     *
+     * Adaptiv nəzarətçi varsa onun öyrəndiyi limit, yoxdursa max-in-flight-pages.
+     */
+    protected int maxInFlightPages() {
+        return concurrencyController != null
+                ? concurrencyController.concurrencyLimit(shop.getCode())
+                : Math.max(1, shopSettings().getMaxInFlightPages());
+    }
+
+    /**
+     * Brauzer naviqasiyasının nəticəsini adaptiv nəzarətçiyə bildir
+     *
+     * Yalnız driver.get() müddəti ölçülür (readiness gözləməsi daxil deyil);
+     * səhifə mənbəyi challenge səhifəsi üçün yoxlanılır. Brauzer müddətləri HTTP
+     * cavablarından ayrı ortalanır və browser-latency-target ilə müqayisə olunur.
+     *
+     * @param navigationNanos driver.get() müddəti
+     * @param pageSource Yüklənmiş səhifənin HTML-i
+     */
+    protected void reportBrowserNavigation(long navigationNanos, String pageSource) {
+        if (concurrencyController != null) {
+            concurrencyController.onBrowserNavigation(shop.getCode(), navigationNanos, pageSource);
+        }
+    }
+
+    /**
+     * Bu mağaza üçün effektiv scraping tənzimləmələri (application.yml)
+     */
+    protected ScrapingProperties.ShopSettings shopSettings() {
+        return scrapingProperties != null
+                ? scrapingProperties.forShop(shop.getCode())
+                : ScrapingProperties.ShopSettings.defaults();
+    }
+
     /**
      * HTML sənədini HTTP sorğusu ilə gətir (Jsoup istifadə edərək)
      *
@@ -282,14 +893,15 @@ public abstract class AbstractShopScraper {
         while (attempts < MAX_RETRIES) {
             try {
                 log.debug("Fetching URL (attempt {}/{}): {}", attempts + 1, MAX_RETRIES, url);
-
-                // Jsoup ilə HTTP GET sorğusu
-                return Jsoup.connect(url)
-                        .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
-                        .timeout(TIMEOUT_MS)
-                        .followRedirects(true)
-                        .get();
-
+                return fetchOnce(url);
+
+            } catch (PageNotModifiedException e) {
+                // 304 xəta deyil - retry etmə
+                throw e;
+            } catch (ShopUnavailableException e) {
+                // Circuit breaker açıqdır / bulkhead doludur - ölü host-u təkrar yükləmə
+                log.warn("Not retrying {}: {}", url, e.getMessage());
+                throw e;
             } catch (IOException e) {
                 lastException = e;
                 attempts++;
@@ -313,6 +925,130 @@ public abstract class AbstractShopScraper {
         throw lastException;
     }
 
+    /**
+     * Tək HTTP GET (retry olmadan)
+     *
+     * HttpFetchClient varsa paylaşılan connection pool istifadə olunur,
+     * yoxdursa Jsoup.connect() ilə yeni bağlantı açılır.
+     */
+    private Document fetchOnce(String url) throws IOException {
+        awaitRequestPermit(url);
+
+        if (httpClient == null && !isReplaying()) {
+            // Jsoup ilə HTTP GET sorğusu (fetch + parse birlikdə ölçülür)
+            long start = System.nanoTime();
+            try {
+                return Jsoup.connect(url)
+                        .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
+                        .timeout(TIMEOUT_MS)
+                        .followRedirects(true)
+                        .get();
+            } finally {
+                runStats.record(ScrapeRunStats.Stage.FETCH, System.nanoTime() - start);
+            }
+        }
+
+        ListingPage listing = listingPages.get(url);
+        Map<String, String> headers = new HashMap<>(requestHeaders(url));
+        if (listing != null && listing.previous != null) {
+            // Conditional GET: server dəyişiklik yoxdursa 304 qaytarır (body yoxdur)
+            if (listing.previous.etag() != null) {
+                headers.put("If-None-Match", listing.previous.etag());
+            }
+            if (listing.previous.lastModified() != null) {
+                headers.put("If-Modified-Since", listing.previous.lastModified());
+            }
+        }
+
+        HttpFetchClient.FetchResponse response = httpGet(url, headers);
+        if (response.statusCode() == 304 && listing != null && listing.previous != null) {
+            throw new PageNotModifiedException(url);
+        }
+        if (!response.isSuccessful()) {
+            throw new IOException("HTTP " + response.statusCode() + " for URL: " + url);
+        }
+        if (listing != null) {
+            listing.etag = response.headers().firstValue("ETag").orElse(null);
+            listing.lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        }
+        long parseStart = System.nanoTime();
+        Document doc = parseResponse(response);
+        runStats.record(ScrapeRunStats.Stage.PARSE, System.nanoTime() - parseStart);
+        return doc;
+    }
+
+    /**
+     * Paylaşılan HTTP klienti ilə GET (rate-limit permit-i çağıran alır)
+     *
+     * Sorğu müddəti FETCH mərhələsinə, ötürülən bayt-lar run statistikasına yazılır.
+     * Replay rejimində cavab arxivdən gəlir, record rejimində arxivə yazılır.
+     * Alt-siniflər httpClient.get() əvəzinə bu metodu çağırmalıdır.
+     */
+    protected HttpFetchClient.FetchResponse httpGet(String url, Map<String, String> headers) throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (isReplaying()) {
+                return fetchArchive.replayHttp(shop.getCode(), url);
+            }
+            HttpFetchClient.FetchResponse response = httpClient.get(shop.getCode(), url, headers);
+            runStats.bytesDownloaded(response.transferredBytes());
+            if (isRecording()) {
+                fetchArchive.recordHttp(shop.getCode(), url, response);
+            }
+            return response;
+        } finally {
+            runStats.record(ScrapeRunStats.Stage.FETCH, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * HOOK: HTTP sorğusuna əlavə olunan header-lər (məs: XHR endpoint üçün X-Requested-With)
+     *
+     * Mağazanın konfiqurasiya header-lərini (shops.*.headers) üstələyir.
+     *
+     * @param url Sorğu göndəriləcək URL
+     */
+    protected Map<String, String> requestHeaders(String url) {
+        return Map.of();
+    }
+
+    /**
+     * HOOK: HTTP cavabını Jsoup Document-ə çevir (default: HTML kimi parse et)
+     *
+     * JSON qaytaran endpoint-lər üçün override edin.
+     */
+    protected Document parseResponse(HttpFetchClient.FetchResponse response) throws IOException {
+        return Jsoup.parse(response.body(), response.uri().toString());
+    }
+
+    /**
+     * Brauzer tələb etməyən mağazalar üçün əvvəlcə sadə HTTP sına
+     *
+     * @param usable Cavabın yararlı olub-olmadığını yoxlayan şərt
+     * @return Yararlı sənəd, və ya boş Optional (Selenium-a keçmək lazımdır)
+     * @throws PageNotModifiedException Siyahı səhifəsi conditional GET-ə 304 ilə cavab verdikdə
+     * @throws ShopUnavailableException Circuit breaker açıq / bulkhead dolu - brauzerə keçmək fast-fail-i pozardı
+     */
+    private Optional<Document> tryPlainHttp(String url, Predicate<Document> usable)
+            throws PageNotModifiedException, ShopUnavailableException {
+        if (requiresBrowser()) {
+            return Optional.empty();
+        }
+        try {
+            Document doc = fetchOnce(url);
+            if (usable.test(doc)) {
+                log.debug("Plain HTTP returned usable markup, skipping browser: {}", url);
+                return Optional.of(doc);
+            }
+            log.debug("Plain HTTP markup not usable, falling back to Selenium: {}", url);
+        } catch (PageNotModifiedException | ShopUnavailableException e) {
+            throw e;
+        } catch (IOException e) {
+            log.debug("Plain HTTP fetch failed, falling back to Selenium: {} ({})", url, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
     /**
      * HTML sənədini Selenium WebDriver ilə gətir (Brauzer simulyasiyası)
      *
@@ -329,61 +1065,73 @@ public abstract class AbstractShopScraper {
      * - Infinite scroll və lazy loading
      *
      * SCROLL STRATEGİYASI:
-     * 1. 4 saniyə gözlə (səhifə tam yüklənsin)
+     * 1. Səhifə hazır olana qədər gözlə (awaitPageReady - sabit sleep YOX)
      * 2. Aşağı scroll et (lazy content aktivləşsin)
-     * 3. 2 saniyə gözlə (yeni məzmun yüklənsin)
+     * 3. Yenə hazır olana qədər gözlə (yeni məzmun yüklənsin)
      * 4. Yuxarı scroll et (bütün məzmunu DOM-da saxla)
-     * 5. 2 saniyə gözlə (final render)
      *
      * İSTİFADƏ HALİ:
      * - JavaScript-heavy səhifələr (KONTAKT)
      * - Anti-bot deteksiyası olan mağazalar
      * - Lazy loading ilə məhsul siyahıları
      *
+     * HTTP-ƏVVƏL: requiresBrowser() false olduqda əvvəlcə sadə HTTP sınanır;
+     * hasUsableMarkup() true qaytarırsa brauzer açılmır (~100ms vs bir neçə saniyə).
+     *
      * @param url Gətirilməli URL
      * @return Jsoup Document (Selenium-dan gələn HTML parse edilib)
      * @throws IOException Selenium xətası zamanı
      */
     protected Document fetchDocumentWithSelenium(String url) throws IOException {
+        Optional<Document> plain = tryPlainHttp(url, this::hasUsableMarkup);
+        if (plain.isPresent()) {
+            return plain.get();
+        }
+
+        if (isReplaying()) {
+            return parseBrowserPage(fetchArchive.replayBrowserPage(shop.getCode(), url), url, null);
+        }
+
         // Əgər Selenium konfiqurasiya olunmayıbsa, Jsoup-a fall back et
         if (webDriverManager == null) {
             log.warn("SeleniumWebDriverManager not available, falling back to Jsoup");
             return fetchDocument(url);
         }
 
-        try {
+        try (SeleniumWebDriverManager.DriverLease lease = leaseBrowser()) {
             log.debug("Fetching URL with Selenium: {}", url);
-            WebDriver driver = webDriverManager.getDriver();
-            driver.get(url);
-
-            // JavaScript yüklənib render olması üçün gözlə
-            // Pagination səhifələr üçün artırılmış gözləmə müddəti
+            WebDriver driver = lease.driver();
             try {
-                // Başlanğıc gözləmə - səhifə yüklənməsi (3s → 4s artırılıb)
-                TimeUnit.MILLISECONDS.sleep(4000);
+                awaitRequestPermit(url);
+                long navigationStart = System.nanoTime();
+                driver.get(url);
+                long navigationNanos = System.nanoTime() - navigationStart;
 
-                // Lazy loading-i aktivləşdirmək üçün aşağı scroll et
-                ((org.openqa.selenium.JavascriptExecutor) driver)
-                    .executeScript("window.scrollTo(0, document.body.scrollHeight);");
-
-                // Scroll sonrası gözləmə - yeni məzmun yüklənsin
-                TimeUnit.MILLISECONDS.sleep(2000);
-
-                // Yuxarı scroll et - bütün məzmunu DOM-da saxla
-                ((org.openqa.selenium.JavascriptExecutor) driver)
-                    .executeScript("window.scrollTo(0, 0);");
+                // JavaScript yüklənib render olana qədər gözlə, sonra lazy content üçün scroll et
+                try {
+                    awaitPageReady(lease, null);
+                    scrollForLazyContent(lease, null);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
 
-                // Final gözləmə - render tamamlansın
-                TimeUnit.MILLISECONDS.sleep(2000);
+                // Hazır HTML-i Selenium-dan al və Jsoup ilə parse et
+                String pageSource = driver.getPageSource();
+                reportBrowserNavigation(navigationNanos, pageSource);
+                recordBrowserPage(url, pageSource);
+                return parseBrowserPage(pageSource, url, null);
 
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                if (e instanceof TimeoutException && concurrencyController != null) {
+                    concurrencyController.onTimeout(shop.getCode());
+                }
+                // Brauzer naməlum vəziyyətdədir - pool-a qaytarma, bağla
+                lease.invalidate();
+                throw e;
             }
-
-            // Hazır HTML-i Selenium-dan al və Jsoup ilə parse et
-            String pageSource = driver.getPageSource();
-            return Jsoup.parse(pageSource, url);
-
+        } catch (ShopUnavailableException e) {
+            // Circuit breaker açıqdır / brauzer bulkhead-i doludur - olduğu kimi ötür
+            throw e;
         } catch (Exception e) {
             log.error("Selenium fetch failed for URL: {}", url, e);
             throw new IOException("Selenium fetch failed: " + e.getMessage(), e);
@@ -410,100 +1158,233 @@ public abstract class AbstractShopScraper {
      * - Bu JavaScript kodları ilə real brauzer kimi görünürük
      *
      * EXPLICIT WAIT PATTERN:
-     * - WebDriverWait: Maksimum X saniyə gözlə
-     * - ExpectedConditions.presenceOfElementLocated: Element DOM-da görünənə qədər
-     * - TimeoutException: Element tapılmasa, scraping davam edir (warning log-lanır)
+     * - awaitPageReady: selector-a uyğun məhsul sayı sabitləşənə, DOM və şəbəkə
+     *   sakitləşənə qədər gözlə (maksimum: mağazanın page-ready-timeout-u)
+     * - Timeout: Element tapılmasa, scraping davam edir (warning log-lanır)
      *
      * İSTİFADƏ HALİ:
      * - AJAX sorğuları ilə yüklənən məhsul kartları
      * - Lazy loading ilə render olunan səhifələr
      * - Konkret elementin yüklənməsini gözləmək lazım olduqda
      *
+     * STREAMING PARSE: Səhifə mənbəyi StreamingHtmlExtractor ilə bir dəfə tokenize edilir;
+     * qaytarılan Document yalnız selector-a uyğun elementləri saxlayır (menyu, footer,
+     * script-lər DOM-a yığılmır). Selector-da qonşu (+, ~) və :nth-child istifadə etməyin.
+     *
      * @param url Gətirilməli URL
      * @param waitForSelector Gözləniləcək CSS selector (məs: ".product-item")
-     * @param timeoutSeconds Maksimum gözləmə müddəti (saniyə)
-     * @return Jsoup Document (Selenium-dan gələn HTML parse edilib)
+     * @return Jsoup Document - body-də yalnız selector-a uyğun elementlər
      * @throws IOException Selenium xətası zamanı
      */
-    protected Document fetchDocumentWithSeleniumWait(String url, String waitForSelector, int timeoutSeconds) throws IOException {
+    protected Document fetchDocumentWithSeleniumWait(String url, String waitForSelector) throws IOException {
+        // Brauzer tələb olunmursa və selector artıq server HTML-dədirsə, Selenium lazım deyil
+        Optional<Document> plain = tryPlainHttp(url, doc -> !select(doc, waitForSelector).isEmpty());
+        if (plain.isPresent()) {
+            return plain.get();
+        }
+
+        if (isReplaying()) {
+            return parseBrowserPage(fetchArchive.replayBrowserPage(shop.getCode(), url), url, waitForSelector);
+        }
+
         // Əgər Selenium konfiqurasiya olunmayıbsa, Jsoup-a fall back et
         if (webDriverManager == null) {
             log.warn("SeleniumWebDriverManager not available, falling back to Jsoup");
             return fetchDocument(url);
         }
 
-        try {
+        try (SeleniumWebDriverManager.DriverLease lease = leaseBrowser()) {
             log.debug("Fetching URL with Selenium (explicit wait): {}", url);
-            WebDriver driver = webDriverManager.getDriver();
-
-            // STEALTH MODE: navigator.webdriver property-ni gizlət (bot deteksiyasını bypass et)
+            WebDriver driver = lease.driver();
             try {
-                ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
-                    "Object.defineProperty(navigator, 'webdriver', {get: () => undefined})");
-            } catch (Exception e) {
-                // İlk səhifə yükləməsində normal xəta (hələ navigator yoxdur)
-                log.debug("Could not execute stealth script (normal for first page load): {}", e.getMessage());
-            }
 
-            // Səhifəni yüklə
-            driver.get(url);
+                // STEALTH MODE: navigator.webdriver property-ni gizlət (bot deteksiyasını bypass et)
+                try {
+                    ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
+                        "Object.defineProperty(navigator, 'webdriver', {get: () => undefined})");
+                } catch (Exception e) {
+                    // İlk səhifə yükləməsində normal xəta (hələ navigator yoxdur)
+                    log.debug("Could not execute stealth script (normal for first page load): {}", e.getMessage());
+                }
 
-            // Səhifə yüklənəndən SONRA stealth script-ləri icra et
-            try {
-                ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
-                    // navigator.webdriver-i gizlət
-                    "Object.defineProperty(navigator, 'webdriver', {get: () => undefined});" +
-                    // Plugins siyahısı əlavə et (real brauzer kimi)
-                    "Object.defineProperty(navigator, 'plugins', {get: () => [1, 2, 3, 4, 5]});" +
-                    // Dil konfiqurasiyası (real brauzer kimi)
-                    "Object.defineProperty(navigator, 'languages', {get: () => ['en-US', 'en']});"
-                );
-                log.debug("Stealth scripts executed successfully");
-            } catch (Exception e) {
-                log.warn("Failed to execute stealth scripts: {}", e.getMessage());
-            }
+                // Səhifəni yüklə
+                awaitRequestPermit(url);
+                long navigationStart = System.nanoTime();
+                driver.get(url);
+                long navigationNanos = System.nanoTime() - navigationStart;
 
-            // EXPLICIT WAIT: Konkret selector-u gözlə
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+                // Səhifə yüklənəndən SONRA stealth script-ləri icra et
+                try {
+                    ((org.openqa.selenium.JavascriptExecutor) driver).executeScript(
+                        // navigator.webdriver-i gizlət
+                        "Object.defineProperty(navigator, 'webdriver', {get: () => undefined});" +
+                        // Plugins siyahısı əlavə et (real brauzer kimi)
+                        "Object.defineProperty(navigator, 'plugins', {get: () => [1, 2, 3, 4, 5]});" +
+                        // Dil konfiqurasiyası (real brauzer kimi)
+                        "Object.defineProperty(navigator, 'languages', {get: () => ['en-US', 'en']});"
+                    );
+                    log.debug("Stealth scripts executed successfully");
+                } catch (Exception e) {
+                    log.warn("Failed to execute stealth scripts: {}", e.getMessage());
+                }
 
-            try {
-                // Ən azı 1 element selector-a uyğun gələnə qədər gözlə
-                wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.cssSelector(waitForSelector)
-                ));
-                log.debug("Found element matching selector: {}", waitForSelector);
-
-                // JavaScript render-in tamamlanması üçün əlavə gözləmə
-                TimeUnit.MILLISECONDS.sleep(1000);
-
-                // Lazy-loaded content-i aktivləşdirmək üçün scroll et
-                ((org.openqa.selenium.JavascriptExecutor) driver)
-                    .executeScript("window.scrollTo(0, document.body.scrollHeight);");
-                TimeUnit.MILLISECONDS.sleep(1000);
-
-                // Yuxarı scroll et
-                ((org.openqa.selenium.JavascriptExecutor) driver)
-                    .executeScript("window.scrollTo(0, 0);");
-                TimeUnit.MILLISECONDS.sleep(1000);
-
-            } catch (org.openqa.selenium.TimeoutException e) {
-                // Timeout: Element tapılmadı, amma bəzi məhsullar yüklənmiş ola bilər
-                log.warn("Timeout waiting for selector '{}' on URL: {}", waitForSelector, url);
-                // Scraping davam edir - bəlkə bəzi məhsullar yüklənib
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+                // EXPLICIT WAIT: məhsul kartları görünüb sabitləşənə qədər gözlə
+                try {
+                    PageReadiness.Outcome outcome = awaitPageReady(lease, waitForSelector);
+                    if (outcome.productCount() == 0) {
+                        // Timeout: Element tapılmadı - scraping davam edir, bəlkə səhifə boşdur
+                        log.warn("Timeout waiting for selector '{}' on URL: {}", waitForSelector, url);
+                    } else {
+                        log.debug("Found {} elements matching selector: {}", outcome.productCount(), waitForSelector);
+                        scrollForLazyContent(lease, waitForSelector);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
 
-            // Hazır HTML-i Selenium-dan al və Jsoup ilə parse et
-            String pageSource = driver.getPageSource();
-            return Jsoup.parse(pageSource, url);
+                // Tam DOM qurma - yalnız selector-a uyğun məhsul kartlarını saxla
+                String pageSource = driver.getPageSource();
+                reportBrowserNavigation(navigationNanos, pageSource);
+                recordBrowserPage(url, pageSource);
+                return parseBrowserPage(pageSource, url, waitForSelector);
 
+            } catch (RuntimeException e) {
+                if (e instanceof TimeoutException && concurrencyController != null) {
+                    concurrencyController.onTimeout(shop.getCode());
+                }
+                // Brauzer naməlum vəziyyətdədir - pool-a qaytarma, bağla
+                lease.invalidate();
+                throw e;
+            }
+        } catch (ShopUnavailableException e) {
+            // Circuit breaker açıqdır / brauzer bulkhead-i doludur - olduğu kimi ötür
+            throw e;
         } catch (Exception e) {
             log.error("Selenium fetch failed for URL: {}", url, e);
             throw new IOException("Selenium fetch failed: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Brauzer səhifə mənbəyini Document-ə çevir (PARSE mərhələsi kimi ölçülür)
+     *
+     * @param productSelector null - tam DOM; əks halda yalnız selector-a uyğun elementlər saxlanılır
+     */
+    private Document parseBrowserPage(String pageSource, String url, String productSelector) {
+        long parseStart = System.nanoTime();
+        try {
+            return productSelector == null
+                    ? Jsoup.parse(pageSource, url)
+                    : StreamingHtmlExtractor.extractDocument(pageSource, url, productSelector);
+        } finally {
+            runStats.record(ScrapeRunStats.Stage.PARSE, System.nanoTime() - parseStart);
+        }
+    }
+
+    /**
+     * RECORD: Brauzerdən alınmış səhifə mənbəyini arxivə yaz (replay üçün)
+     *
+     * Alt-siniflər öz brauzer axınlarında (məs: "Load More" klikləri) da çağırmalıdır;
+     * replay zamanı eyni açarla fetchArchive.replayBrowserPage() oxunur.
+     *
+     * @param key Səhifənin URL-i (və ya axını müəyyən edən açar)
+     */
+    protected void recordBrowserPage(String key, String pageSource) {
+        if (isRecording()) {
+            fetchArchive.recordBrowserPage(shop.getCode(), key, pageSource);
+        }
+    }
+
+    /**
+     * Arxiv replay rejimindədir - şəbəkə və brauzer istifadə olunmur
+     */
+    protected boolean isReplaying() {
+        return fetchArchive != null && fetchArchive.isReplaying();
+    }
+
+    protected boolean isRecording() {
+        return fetchArchive != null && fetchArchive.isRecording();
+    }
+
+    /**
+     * Brauzer səhifəsi HAZIR olana qədər gözlə (sabit sleep əvəzinə)
+     *
+     * Səhifə hazır sayılır, əgər quiet period (page-quiet-period) ərzində:
+     * - document.readyState == "complete"
+     * - selector verilibsə: ən azı 1 məhsul var və sayı dəyişmir
+     * - MutationObserver DOM dəyişikliyi görmür
+     * - DevTools şəbəkə monitoru aktiv sorğu görmür
+     *
+     * Sürətli səhifə dərhal qayıdır; yavaş səhifə ən çox page-ready-timeout gözləyir.
+     * Timeout xəta DEYİL - səhifə olduğu kimi istifadə olunur.
+     *
+     * Alt-siniflər klikdən sonra da (məs: "Load More") bu metodu çağırmalıdır.
+     *
+     * @param lease Brauzer lease-i
+     * @param productSelector Məhsul kartının CSS selector-u və ya null
+     * @return Gözləmənin nəticəsi (hazır/timeout, məhsul sayı)
+     */
+    protected PageReadiness.Outcome awaitPageReady(SeleniumWebDriverManager.DriverLease lease,
+                                                   String productSelector) throws InterruptedException {
+        PageReadiness.Outcome outcome = lease.awaitReady(productSelector);
+        runStats.record(ScrapeRunStats.Stage.BROWSER_WAIT, outcome.waitedNanos());
+        return outcome;
+    }
+
+    /**
+     * Pool-dan brauzer icarəyə götür (try-with-resources ilə bağlanmalıdır)
+     *
+     * Pool gözləməsi BROWSER_WAIT, icarə müddəti BROWSER (brauzer-saniyə) mərhələsinə,
+     * brauzerin yüklədiyi bayt-lar run statistikasına yazılır.
+     *
+     * @throws ShopUnavailableException Mağazanın circuit breaker-i açıq və ya brauzer bulkhead-i doludur
+     */
+    protected SeleniumWebDriverManager.DriverLease leaseBrowser() throws ShopUnavailableException {
+        long waitStart = System.nanoTime();
+        SeleniumWebDriverManager.DriverLease lease = webDriverManager.acquire(getShopCode());
+        runStats.record(ScrapeRunStats.Stage.BROWSER_WAIT, System.nanoTime() - waitStart);
+        lease.onClose(closed -> {
+            runStats.record(ScrapeRunStats.Stage.BROWSER, closed.heldNanos());
+            runStats.bytesDownloaded(closed.transferredBytes());
+        });
+        return lease;
+    }
+
+    /**
+     * Lazy loading məzmunu aktivləşdir: aşağı scroll et, hazır olana qədər gözlə, yuxarı qayıt
+     *
+     * @param lease Brauzer lease-i
+     * @param productSelector Məhsul kartının CSS selector-u və ya null
+     */
+    protected void scrollForLazyContent(SeleniumWebDriverManager.DriverLease lease,
+                                        String productSelector) throws InterruptedException {
+        JavascriptExecutor js = (JavascriptExecutor) lease.driver();
+        js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
+        awaitPageReady(lease, productSelector);
+        js.executeScript("window.scrollTo(0, 0);");
+    }
+
+    /**
+     * Çıxan sorğudan əvvəl host üçün rate-limit permit-i gözlə
+     *
+     * Alt-siniflər brauzerdə şəbəkə sorğusu yaradan hərəkətlərdən (məs: "Load More" klik)
+     * əvvəl də bu metodu çağırmalıdır.
+     *
+     * @param url Sorğu göndəriləcək URL (host bucket-i seçir)
+     * @throws IOException Gözləmə kəsildikdə
+     */
+    protected void awaitRequestPermit(String url) throws IOException {
+        if (rateLimiter == null) {
+            return;
+        }
+        try {
+            rateLimiter.acquire(shop.getCode(), url);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for rate limit permit", e);
+        }
+    }
+
     /**
      * HELPER: Element-dən CSS selector ilə mətn çıxar (təhlükəsiz)
      *
@@ -514,7 +1395,7 @@ public abstract class AbstractShopScraper {
      * @return Çıxarılmış mətn (trimmed) və ya null
      */
     protected String extractText(Element element, String cssQuery) {
-        Element selected = element.selectFirst(cssQuery);
+        Element selected = selectFirst(element, cssQuery);
         return selected != null ? selected.text().trim() : null;
     }
 
@@ -528,7 +1409,7 @@ public abstract class AbstractShopScraper {
      * @return Çıxarılmış mətn (trimmed) və ya null
      */
     protected String extractText(Document doc, String cssQuery) {
-        Element selected = doc.selectFirst(cssQuery);
+        Element selected = selectFirst(doc, cssQuery);
         return selected != null ? selected.text().trim() : null;
     }
 
@@ -548,7 +1429,7 @@ public abstract class AbstractShopScraper {
      * @return Atribut dəyəri və ya null
      */
     protected String extractAttr(Element element, String cssQuery, String attr) {
-        Element selected = element.selectFirst(cssQuery);
+        Element selected = selectFirst(element, cssQuery);
         return selected != null ? selected.attr(attr) : null;
     }
 
@@ -561,10 +1442,39 @@ public abstract class AbstractShopScraper {
      * @return Atribut dəyəri və ya null
      */
     protected String extractAttr(Document doc, String cssQuery, String attr) {
-        Element selected = doc.selectFirst(cssQuery);
+        Element selected = selectFirst(doc, cssQuery);
         return selected != null ? selected.attr(attr) : null;
     }
 
+    /**
+     * HELPER: İlk uyğun elementi tap - selector bir dəfə kompilyasiya olunur və təkrar istifadə edilir
+     *
+     * Məhsul kartları üzərindəki dövrlərdə Element.selectFirst(String) əvəzinə bunu istifadə edin;
+     * hər selector üçün hit/miss metrikası yazılır (ölü fallback selector-ları görmək üçün).
+     *
+     * @param root Axtarışın aparıldığı element
+     * @param cssQuery CSS selector
+     * @return Uyğun element və ya null
+     */
+    protected Element selectFirst(Element root, String cssQuery) {
+        return selectorRegistry != null
+                ? selectorRegistry.selectFirst(shop.getCode(), root, cssQuery)
+                : root.selectFirst(cssQuery);
+    }
+
+    /**
+     * HELPER: Bütün uyğun elementləri tap (kompilyasiya olunmuş selector ilə)
+     *
+     * @param root Axtarışın aparıldığı element
+     * @param cssQuery CSS selector
+     * @return Uyğun elementlər (boş ola bilər)
+     */
+    protected Elements select(Element root, String cssQuery) {
+        return selectorRegistry != null
+                ? selectorRegistry.select(shop.getCode(), root, cssQuery)
+                : root.select(cssQuery);
+    }
+
     /**
      * HELPER: Qiymət mətnini BigDecimal-a parse et
      *
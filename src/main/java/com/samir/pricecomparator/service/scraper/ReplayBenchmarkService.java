@@ -0,0 +1,100 @@
+package com.samir.pricecomparator.service.scraper;
+
+import com.samir.pricecomparator.entity.ScrapingJob;
+import com.samir.pricecomparator.entity.Shop;
+import com.samir.pricecomparator.repository.ShopRepository;
+import com.samir.pricecomparator.service.scraper.fetch.FetchArchive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the full {@link ScraperOrchestrator#scrapeShop} pipeline (parse, normalize, match,
+ * persist, index) against a recorded fetch archive and reports products/second and heap
+ * allocation per product.
+ *
+ * Replay mode makes runs repeatable: the same pages are served at a fixed latency, and
+ * fingerprints are ignored so every page is parsed every time. Allocation is the JVM-wide
+ * total while the run was in progress, so measure on an otherwise idle instance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReplayBenchmarkService {
+
+    private final ScraperOrchestrator scraperOrchestrator;
+    private final ShopRepository shopRepository;
+    private final FetchArchive fetchArchive;
+
+    /**
+     * @param warmups runs done first and not reported (JIT, caches, connection pools)
+     * @param runs    measured runs
+     * @throws IllegalStateException    if the archive is not in replay mode
+     * @throws IllegalArgumentException if the shop does not exist
+     */
+    public BenchmarkResult run(String shopCode, int warmups, int runs) {
+        if (!fetchArchive.isReplaying()) {
+            throw new IllegalStateException("Replay benchmarks need scraping.archive.mode=replay");
+        }
+        Shop shop = shopRepository.findByCodeIgnoreCase(shopCode)
+                .orElseThrow(() -> new IllegalArgumentException("Shop not found: " + shopCode));
+
+        for (int i = 0; i < warmups; i++) {
+            scraperOrchestrator.scrapeShop(shop, false);
+        }
+
+        List<RunResult> results = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, runs); i++) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            ScrapingJob job = scraperOrchestrator.scrapeShop(shop, false);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+
+            int products = job.getProductsFound() != null ? job.getProductsFound() : 0;
+            RunResult result = new RunResult(job.getId(), job.getStatus(), products, seconds,
+                    products / seconds, products > 0 && allocated >= 0 ? allocated / products : -1);
+            log.info("Replay benchmark {} run {}: {} products in {} s ({} products/s, {} bytes/product)",
+                    shop.getCode(), i + 1, products, String.format("%.2f", seconds),
+                    String.format("%.1f", result.productsPerSecond()), result.allocatedBytesPerProduct());
+            results.add(result);
+        }
+        return BenchmarkResult.of(shop.getCode(), results);
+    }
+
+    /**
+     * Heap bytes allocated by all threads so far, or -1 if the JVM does not track it.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * @param allocatedBytesPerProduct -1 if allocation could not be measured
+     */
+    public record RunResult(Long jobId, String status, int products, double seconds,
+                            double productsPerSecond, long allocatedBytesPerProduct) {
+    }
+
+    /**
+     * Medians over the measured runs.
+     */
+    public record BenchmarkResult(String shopCode, int runs, double medianProductsPerSecond,
+                                  long medianAllocatedBytesPerProduct, List<RunResult> results) {
+
+        static BenchmarkResult of(String shopCode, List<RunResult> results) {
+            double[] rates = results.stream().mapToDouble(RunResult::productsPerSecond).sorted().toArray();
+            long[] allocations = results.stream().mapToLong(RunResult::allocatedBytesPerProduct).sorted().toArray();
+            return new BenchmarkResult(shopCode, results.size(), rates[rates.length / 2],
+                    allocations[allocations.length / 2], results);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.samir.pricecomparator.service.scraper;
+
+import com.samir.pricecomparator.entity.ScrapeStageTimings;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time spent in each stage of one scrape run, plus pages fetched, bytes downloaded and
+ * browser time.
+ *
+ * Filled concurrently by the scraper (fetch, browser, parse) and the pipeline workers
+ * (normalize, match, persist, index). Stage times are summed over all threads, so with
+ * parallel pages or workers a stage can exceed the run's wall-clock duration; compare
+ * runs with each other, not with {@code durationSeconds}.
+ */
+public class ScrapeRunStats {
+
+    public enum Stage {
+        /** Plain HTTP requests, from send until the body is read */
+        FETCH,
+        /** Waiting for a pooled browser and for browser pages to become ready */
+        BROWSER_WAIT,
+        /** Browser leases held (browser-seconds used) */
+        BROWSER,
+        /** HTML/JSON parsing and product extraction */
+        PARSE,
+        NORMALIZE,
+        /** Looking up the existing product an offer belongs to */
+        MATCH,
+        /** Saving offers, excluding matching */
+        PERSIST,
+        /** Search index updates */
+        INDEX;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<Stage, LongAdder> nanos = new EnumMap<>(Stage.class);
+    private final Map<Stage, LongAdder> counts = new EnumMap<>(Stage.class);
+    private final LongAdder pagesFetched = new LongAdder();
+    private final LongAdder bytesDownloaded = new LongAdder();
+
+    public ScrapeRunStats() {
+        for (Stage stage : Stage.values()) {
+            nanos.put(stage, new LongAdder());
+            counts.put(stage, new LongAdder());
+        }
+    }
+
+    public void record(Stage stage, long durationNanos) {
+        nanos.get(stage).add(durationNanos);
+        counts.get(stage).increment();
+    }
+
+    public void pageFetched() {
+        pagesFetched.increment();
+    }
+
+    public void bytesDownloaded(long bytes) {
+        if (bytes > 0) {
+            bytesDownloaded.add(bytes);
+        }
+    }
+
+    public long nanos(Stage stage) {
+        return nanos.get(stage).sum();
+    }
+
+    /**
+     * Operations recorded for the stage (requests, leases, batches...).
+     */
+    public long count(Stage stage) {
+        return counts.get(stage).sum();
+    }
+
+    public long getPagesFetched() {
+        return pagesFetched.sum();
+    }
+
+    public long getBytesDownloaded() {
+        return bytesDownloaded.sum();
+    }
+
+    /**
+     * Snapshot for the job record.
+     */
+    public ScrapeStageTimings toTimings() {
+        return ScrapeStageTimings.builder()
+                .fetchMillis(millis(Stage.FETCH))
+                .browserWaitMillis(millis(Stage.BROWSER_WAIT))
+                .browserMillis(millis(Stage.BROWSER))
+                .parseMillis(millis(Stage.PARSE))
+                .normalizeMillis(millis(Stage.NORMALIZE))
+                .matchMillis(millis(Stage.MATCH))
+                .persistMillis(millis(Stage.PERSIST))
+                .indexMillis(millis(Stage.INDEX))
+                .pagesFetched((int) getPagesFetched())
+                .httpRequests((int) count(Stage.FETCH))
+                .browserLeases((int) count(Stage.BROWSER))
+                .bytesDownloaded(getBytesDownloaded())
+                .build();
+    }
+
+    private long millis(Stage stage) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos(stage));
+    }
+}
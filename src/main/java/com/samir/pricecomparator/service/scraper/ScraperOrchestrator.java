@@ -1,15 +1,15 @@
 package com.samir.pricecomparator.service.scraper;
 
-import com.samir.pricecomparator.dto.NormalizedProduct;
-import com.samir.pricecomparator.dto.ScrapedProductDto;
+import com.samir.pricecomparator.config.ScrapingProperties;
+import com.samir.pricecomparator.entity.ScrapeStageTimings;
 import com.samir.pricecomparator.entity.Shop;
 import com.samir.pricecomparator.entity.ScrapingJob;
 import com.samir.pricecomparator.repository.ScrapingJobRepository;
 import com.samir.pricecomparator.repository.ShopRepository;
 import com.samir.pricecomparator.metrics.ScraperMetricsService;
 import com.samir.pricecomparator.service.cache.CacheService;
-import com.samir.pricecomparator.service.normalization.ProductNormalizationService;
 import com.samir.pricecomparator.service.persistence.OfferPersistenceService;
+import com.samir.pricecomparator.service.scraper.pipeline.ScrapePipeline;
 import com.samir.pricecomparator.service.search.ElasticsearchIndexService;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
@@ -18,10 +18,16 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
 
 @Service
 @Slf4j
@@ -29,35 +35,41 @@ public class ScraperOrchestrator {
 
     private final ShopRepository shopRepository;
     private final ShopScraperFactory scraperFactory;
-    private final ProductNormalizationService normalizationService;
+    private final ScrapePipeline scrapePipeline;
     private final ScrapingJobRepository scrapingJobRepository;
     private final CacheService cacheService;
     private final OfferPersistenceService persistenceService;
     private final ElasticsearchIndexService elasticsearchIndexService;
     private final ScraperMetricsService scraperMetrics;
+    private final ScrapingProperties scrapingProperties;
 
     public ScraperOrchestrator(ShopRepository shopRepository,
                               ShopScraperFactory scraperFactory,
-                              ProductNormalizationService normalizationService,
+                              ScrapePipeline scrapePipeline,
                               ScrapingJobRepository scrapingJobRepository,
                               CacheService cacheService,
                               OfferPersistenceService persistenceService,
                               ScraperMetricsService scraperMetrics,
+                              ScrapingProperties scrapingProperties,
                               @Autowired(required = false) ElasticsearchIndexService elasticsearchIndexService) {
         this.shopRepository = shopRepository;
         this.scraperFactory = scraperFactory;
-        this.normalizationService = normalizationService;
+        this.scrapePipeline = scrapePipeline;
         this.scrapingJobRepository = scrapingJobRepository;
         this.cacheService = cacheService;
         this.persistenceService = persistenceService;
         this.scraperMetrics = scraperMetrics;
+        this.scrapingProperties = scrapingProperties;
         this.elasticsearchIndexService = elasticsearchIndexService;
     }
 
     private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
 
+    /** Shop code → scrapes (full or refresh) currently running on this instance */
+    private final Map<String, Integer> runningScrapes = new ConcurrentHashMap<>();
+
     public void scrapeAllShops() {
-        List<Shop> activeShops = shopRepository.findByActiveTrue();
+        List<Shop> activeShops = getScrapableShops();
         log.info("Starting scrape for {} active shops", activeShops.size());
 
         if (activeShops.isEmpty()) {
@@ -66,12 +78,24 @@ public class ScraperOrchestrator {
         }
 
         List<CompletableFuture<Void>> futures = activeShops.stream()
-                .filter(shop -> scraperFactory.hasScraper(shop.getCode()))
                 .map(shop -> CompletableFuture.runAsync(() -> scrapeShop(shop), executorService))
                 .toList();
 
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
 
+        completeRun();
+    }
+
+    public List<Shop> getScrapableShops() {
+        return shopRepository.findByActiveTrue().stream()
+                .filter(shop -> scraperFactory.hasScraper(shop.getCode()))
+                .toList();
+    }
+
+    /**
+     * Post-run steps once every shop is scraped: full search reindex and cache invalidation.
+     */
+    public void completeRun() {
         if (elasticsearchIndexService != null) {
             try {
                 log.info("Starting Elasticsearch indexing...");
@@ -91,38 +115,116 @@ public class ScraperOrchestrator {
     }
 
     public void scrapeShop(Shop shop) {
-        ScrapingJob job = startJob(shop);
+        scrapeShop(shop, false);
+    }
+
+    /**
+     * @param resume continue from the checkpoint of the shop's last PARTIAL/FAILED job,
+     *               if it is recent enough (scraping.resume-max-age); otherwise start at page 1
+     * @return the completed job
+     */
+    public ScrapingJob scrapeShop(Shop shop, boolean resume) {
+        return scrapeShop(shop, resume, () -> false);
+    }
+
+    /**
+     * @param cancelled polled while the scrape runs; once true, pagination stops, remaining
+     *                  batches are not persisted and the job ends CANCELLED without touching
+     *                  offers, page fingerprints or the shop's last scrape time
+     */
+    public ScrapingJob scrapeShop(Shop shop, boolean resume, BooleanSupplier cancelled) {
+        markRunning(shop.getCode());
+        try {
+            return runScrape(shop, resume, cancelled);
+        } finally {
+            markFinished(shop.getCode());
+        }
+    }
+
+    private ScrapingJob runScrape(Shop shop, boolean resume, BooleanSupplier cancelled) {
+        Optional<ScrapingJob> checkpoint = resume ? findResumableJob(shop) : Optional.empty();
+        ScrapingJob job = startJob(shop, checkpoint.orElse(null));
         Timer.Sample timer = scraperMetrics.startScraperTimer();
         String shopCode = shop.getCode();
+        AbstractShopScraper scraper = null;
 
         try {
             log.info("Starting scrape for shop: {}", shopCode);
 
-            AbstractShopScraper scraper = scraperFactory.getScraper(shop);
+            scraper = scraperFactory.getScraper(shop);
+            if (job.getLastCompletedPage() != null) {
+                log.info("Resuming {} after page {} (job {})",
+                        shopCode, job.getLastCompletedPage(), job.getResumedFromJobId());
+                scraper.resumeAfter(job.getLastCompletedPage());
+            }
 
-            List<ScrapedProductDto> scrapedProducts = scraper.scrape();
-            job.setProductsFound(scrapedProducts.size());
-            scraperMetrics.recordProductsFound(shopCode, scrapedProducts.size());
+            ScrapePipeline.PipelineResult result = scrapePipeline.run(scraper, page -> {
+                job.setLastCompletedPage(page);
+                scrapingJobRepository.updateCheckpoint(job.getId(), page);
+            }, cancelled);
+            List<String> unchangedOfferUrls = scraper.getUnchangedOfferUrls();
+            job.setProductsFound(result.getProductsFound() + unchangedOfferUrls.size());
+            job.setOffersCreated(result.getCreated());
+            job.setOffersUpdated(result.getUpdated());
+            scraperMetrics.recordProductsFound(shopCode, result.getProductsFound() + unchangedOfferUrls.size());
+            scraperMetrics.recordProductsCreated(shopCode, result.getCreated());
+            scraperMetrics.recordProductsUpdated(shopCode, result.getUpdated());
+
+            if (!unchangedOfferUrls.isEmpty()) {
+                int touched = persistenceService.touchOffers(shopCode, unchangedOfferUrls);
+                scraperMetrics.recordOffersUnchanged(shopCode, touched);
+            }
+
+            // Only after persistence succeeded, so a failed run is fully re-parsed next time
+            if (result.getFailedBatches() == 0) {
+                scraper.commitPageFingerprints();
+            } else {
+                log.warn("{} pipeline batches failed for {}; page fingerprints not saved",
+                        result.getFailedBatches(), shopCode);
+            }
+
+            if (scraper.getFailedPage() != null) {
+                // Pagination stopped on an error - a resume run picks up after the checkpoint
+                log.warn("Scrape of {} stopped early: {} (checkpoint: page {})",
+                        shopCode, scraper.getFailureMessage(), job.getLastCompletedPage());
+                job.setStatus("PARTIAL");
+                job.setFailedPage(scraper.getFailedPage());
+                job.setErrorMessage(result.getFailedBatches() == 0
+                        ? scraper.getFailureMessage()
+                        : scraper.getFailureMessage() + "; " + failedBatchesMessage(result));
+                scraperMetrics.recordScraperAttempt(shopCode, "PARTIAL");
+                scraperMetrics.recordScraperDuration(timer, shopCode, "PARTIAL");
+                return job;
+            }
+
+            if (result.getUnindexedOffers() > 0) {
+                // Persisted, so the run still counts; only the search documents are stale
+                log.warn("{} offers of {} could not be indexed; the next full reindex picks them up",
+                        result.getUnindexedOffers(), shopCode);
+            }
+
+            if (result.getFailedBatches() > 0) {
+                // Normalize/persist lost products; the checkpoint stopped before the failed batch,
+                // so a resume run re-fetches from there. The shop does not count as freshly scraped.
+                log.warn("Scrape of {} incomplete: {} (checkpoint: page {})",
+                        shopCode, failedBatchesMessage(result), job.getLastCompletedPage());
+                job.setStatus("PARTIAL");
+                job.setErrorMessage(failedBatchesMessage(result));
+                scraperMetrics.recordScraperAttempt(shopCode, "PARTIAL");
+                scraperMetrics.recordScraperDuration(timer, shopCode, "PARTIAL");
+                return job;
+            }
 
-            if (scrapedProducts.isEmpty()) {
+            if (result.getProductsFound() == 0 && unchangedOfferUrls.isEmpty()) {
                 log.warn("No products scraped from shop: {}", shopCode);
                 job.setStatus("SUCCESS");
                 scraperMetrics.recordScraperAttempt(shopCode, "SUCCESS");
                 scraperMetrics.recordScraperDuration(timer, shopCode, "SUCCESS");
-                return;
+                return job;
             }
 
-            List<NormalizedProduct> normalizedProducts = normalizationService.normalize(scrapedProducts);
-
-            var stats = persistenceService.persistOffers(normalizedProducts);
-            job.setOffersCreated(stats.getCreated());
-            job.setOffersUpdated(stats.getUpdated());
-
-            scraperMetrics.recordProductsCreated(shopCode, stats.getCreated());
-            scraperMetrics.recordProductsUpdated(shopCode, stats.getUpdated());
-
             log.info("Persisted {} products from {}: {} created, {} updated",
-                    normalizedProducts.size(), shopCode, stats.getCreated(), stats.getUpdated());
+                    result.getProductsFound(), shopCode, result.getCreated(), result.getUpdated());
 
             job.setStatus("SUCCESS");
             scraperMetrics.recordScraperAttempt(shopCode, "SUCCESS");
@@ -130,19 +232,115 @@ public class ScraperOrchestrator {
 
             shop.setLastScrapedAt(LocalDateTime.now());
             shopRepository.save(shop);
+            return job;
 
+        } catch (CancellationException e) {
+            log.warn("Scrape of {} cancelled after page {}: {}", shopCode, job.getLastCompletedPage(), e.getMessage());
+            job.setStatus("CANCELLED");
+            job.setErrorMessage(e.getMessage());
+            scraperMetrics.recordScraperAttempt(shopCode, "CANCELLED");
+            scraperMetrics.recordScraperDuration(timer, shopCode, "CANCELLED");
+            return job;
         } catch (Exception e) {
             log.error("Scraping failed for shop: {}", shopCode, e);
             job.setStatus("FAILED");
             job.setErrorMessage(e.getMessage());
             scraperMetrics.recordScraperAttempt(shopCode, "FAILED");
             scraperMetrics.recordScraperDuration(timer, shopCode, "FAILED");
+            return job;
         } finally {
+            if (scraper != null) {
+                job.setStageTimings(scraper.getRunStats().toTimings());
+                recordRunStats(shopCode, scraper.getRunStats());
+            }
             completeJob(job);
         }
     }
 
+    /**
+     * Re-fetch only the given listing pages of a shop (incremental refresh).
+     *
+     * No ScrapingJob is recorded: jobs describe full runs, and resume looks at the latest one.
+     * Skipped while another scrape of the shop is running on this instance.
+     *
+     * @return pipeline result, or empty if the shop was busy
+     */
+    public Optional<ScrapePipeline.PipelineResult> refreshPages(Shop shop, Collection<Integer> pages)
+            throws InterruptedException {
+        String shopCode = shop.getCode();
+        if (runningScrapes.putIfAbsent(shopCode, 1) != null) {
+            log.info("Skipping page refresh for {}: a scrape is already running", shopCode);
+            return Optional.empty();
+        }
+        try {
+            log.info("Refreshing {} pages of {}: {}", pages.size(), shopCode, pages);
+            AbstractShopScraper scraper = scraperFactory.getScraper(shop);
+            scraper.refreshOnly(pages);
+
+            ScrapePipeline.PipelineResult result = scrapePipeline.run(scraper);
+            List<String> unchangedOfferUrls = scraper.getUnchangedOfferUrls();
+            if (!unchangedOfferUrls.isEmpty()) {
+                int touched = persistenceService.touchOffers(shopCode, unchangedOfferUrls);
+                scraperMetrics.recordOffersUnchanged(shopCode, touched);
+            }
+            if (result.getFailedBatches() == 0) {
+                scraper.commitPageFingerprints();
+            }
+            scraperMetrics.recordRefreshPages(shopCode, pages.size());
+            recordRunStats(shopCode, scraper.getRunStats());
+            scraperMetrics.recordProductsUpdated(shopCode, result.getUpdated());
+            scraperMetrics.recordProductsCreated(shopCode, result.getCreated());
+            return Optional.of(result);
+        } finally {
+            markFinished(shopCode);
+        }
+    }
+
+    private static String failedBatchesMessage(ScrapePipeline.PipelineResult result) {
+        return result.getFailedBatches() + " pipeline batches failed";
+    }
+
+    private void recordRunStats(String shopCode, ScrapeRunStats stats) {
+        for (ScrapeRunStats.Stage stage : ScrapeRunStats.Stage.values()) {
+            if (stats.count(stage) > 0) {
+                scraperMetrics.recordStageTime(shopCode, stage.tag(), stats.nanos(stage));
+            }
+        }
+        scraperMetrics.recordPagesFetched(shopCode, stats.getPagesFetched());
+        scraperMetrics.recordBytesDownloaded(shopCode, stats.getBytesDownloaded());
+    }
+
+    private void markRunning(String shopCode) {
+        runningScrapes.merge(shopCode, 1, Integer::sum);
+    }
+
+    private void markFinished(String shopCode) {
+        runningScrapes.computeIfPresent(shopCode, (code, running) -> running > 1 ? running - 1 : null);
+    }
+
     public void scrapeShopByCode(String shopCode) {
+        scrapeShopByCode(shopCode, () -> false);
+    }
+
+    /**
+     * @param cancelled see {@link #scrapeShop(Shop, boolean, BooleanSupplier)}
+     */
+    public void scrapeShopByCode(String shopCode, BooleanSupplier cancelled) {
+        Shop shop = shopRepository.findByCodeIgnoreCase(shopCode)
+                .orElseThrow(() -> new IllegalArgumentException("Shop not found: " + shopCode));
+
+        if (!shop.isActive()) {
+            throw new IllegalStateException("Shop is not active: " + shopCode);
+        }
+
+        if (!scraperFactory.hasScraper(shopCode)) {
+            throw new IllegalStateException("No scraper available for shop: " + shopCode);
+        }
+
+        scrapeShop(shop, false, cancelled);
+    }
+
+    public void resumeShopByCode(String shopCode) {
         Shop shop = shopRepository.findByCodeIgnoreCase(shopCode)
                 .orElseThrow(() -> new IllegalArgumentException("Shop not found: " + shopCode));
 
@@ -154,14 +352,26 @@ public class ScraperOrchestrator {
             throw new IllegalStateException("No scraper available for shop: " + shopCode);
         }
 
-        scrapeShop(shop);
+        scrapeShop(shop, true);
     }
 
-    private ScrapingJob startJob(Shop shop) {
+    private Optional<ScrapingJob> findResumableJob(Shop shop) {
+        LocalDateTime oldest = LocalDateTime.now().minus(scrapingProperties.getResumeMaxAge());
+        return scrapingJobRepository.findFirstByShopIdOrderByStartedAtDesc(shop.getId())
+                .filter(last -> "PARTIAL".equals(last.getStatus()) || "FAILED".equals(last.getStatus()))
+                .filter(last -> last.getLastCompletedPage() != null)
+                .filter(last -> last.getStartedAt().isAfter(oldest));
+    }
+
+    private ScrapingJob startJob(Shop shop, ScrapingJob resumeFrom) {
         ScrapingJob job = new ScrapingJob();
         job.setShop(shop);
         job.setStatus("STARTED");
         job.setStartedAt(LocalDateTime.now());
+        if (resumeFrom != null) {
+            job.setResumedFromJobId(resumeFrom.getId());
+            job.setLastCompletedPage(resumeFrom.getLastCompletedPage());
+        }
         return scrapingJobRepository.save(job);
     }
 
@@ -173,6 +383,15 @@ public class ScraperOrchestrator {
 
         log.info("Scraping job completed for shop {} in {} seconds. Status: {}",
                 job.getShop().getCode(), job.getDurationSeconds(), job.getStatus());
+        ScrapeStageTimings timings = job.getStageTimings();
+        if (timings != null) {
+            log.info("Stage breakdown for {}: fetch {} ms, browser wait {} ms, browser {} ms, parse {} ms, "
+                            + "normalize {} ms, match {} ms, persist {} ms, index {} ms; {} pages, {} KiB",
+                    job.getShop().getCode(), timings.getFetchMillis(), timings.getBrowserWaitMillis(),
+                    timings.getBrowserMillis(), timings.getParseMillis(), timings.getNormalizeMillis(),
+                    timings.getMatchMillis(), timings.getPersistMillis(), timings.getIndexMillis(),
+                    timings.getPagesFetched(), timings.getBytesDownloaded() / 1024);
+        }
     }
 
     public List<ScrapingJob> getRecentJobs(int limit) {
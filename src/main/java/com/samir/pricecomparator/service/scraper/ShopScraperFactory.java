@@ -1,9 +1,17 @@
 package com.samir.pricecomparator.service.scraper;
 
+import com.samir.pricecomparator.config.ScrapingProperties;
 import com.samir.pricecomparator.entity.Shop;
+import com.samir.pricecomparator.service.scraper.extract.SelectorRegistry;
+import com.samir.pricecomparator.service.scraper.fetch.AdaptiveConcurrencyController;
+import com.samir.pricecomparator.service.scraper.fetch.FetchArchive;
+import com.samir.pricecomparator.service.scraper.fetch.HostRateLimiter;
+import com.samir.pricecomparator.service.scraper.fetch.HttpFetchClient;
+import com.samir.pricecomparator.service.scraper.fetch.PageFingerprintStore;
 import com.samir.pricecomparator.service.scraper.impl.BakuElectronicsScraper;
 import com.samir.pricecomparator.service.scraper.impl.IrshadScraper;
 import com.samir.pricecomparator.service.scraper.impl.KontaktScraper;
+import com.samir.pricecomparator.service.scraper.refresh.RefreshStatsStore;
 import com.samir.pricecomparator.util.SeleniumWebDriverManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -12,10 +20,34 @@ import org.springframework.stereotype.Component;
 public class ShopScraperFactory {
 
     private final SeleniumWebDriverManager webDriverManager;
+    private final HostRateLimiter rateLimiter;
+    private final HttpFetchClient httpClient;
+    private final ScrapingProperties scrapingProperties;
+    private final PageFingerprintStore fingerprintStore;
+    private final SelectorRegistry selectorRegistry;
+    private final AdaptiveConcurrencyController concurrencyController;
+    private final RefreshStatsStore refreshStats;
+    private final FetchArchive fetchArchive;
 
     @Autowired
-    public ShopScraperFactory(SeleniumWebDriverManager webDriverManager) {
+    public ShopScraperFactory(SeleniumWebDriverManager webDriverManager,
+                              HostRateLimiter rateLimiter,
+                              HttpFetchClient httpClient,
+                              ScrapingProperties scrapingProperties,
+                              PageFingerprintStore fingerprintStore,
+                              SelectorRegistry selectorRegistry,
+                              AdaptiveConcurrencyController concurrencyController,
+                              RefreshStatsStore refreshStats,
+                              FetchArchive fetchArchive) {
         this.webDriverManager = webDriverManager;
+        this.rateLimiter = rateLimiter;
+        this.httpClient = httpClient;
+        this.scrapingProperties = scrapingProperties;
+        this.fingerprintStore = fingerprintStore;
+        this.selectorRegistry = selectorRegistry;
+        this.concurrencyController = concurrencyController;
+        this.refreshStats = refreshStats;
+        this.fetchArchive = fetchArchive;
     }
 
     public AbstractShopScraper getScraper(Shop shop) {
@@ -29,6 +61,21 @@ public class ShopScraperFactory {
         };
 
         scraper.webDriverManager = webDriverManager;
+        scraper.rateLimiter = rateLimiter;
+        scraper.httpClient = httpClient;
+        scraper.scrapingProperties = scrapingProperties;
+        scraper.fingerprintStore = fingerprintStore;
+        scraper.selectorRegistry = selectorRegistry;
+        scraper.concurrencyController = concurrencyController;
+        scraper.refreshStats = refreshStats;
+        scraper.fetchArchive = fetchArchive;
+        if (fetchArchive.isReplaying()) {
+            // Replay parses every recorded page at the archive's latency: no host throttling,
+            // no fingerprint skips, and no refresh history from synthetic fetches
+            scraper.rateLimiter = null;
+            scraper.fingerprintStore = null;
+            scraper.refreshStats = null;
+        }
         return scraper;
     }
 
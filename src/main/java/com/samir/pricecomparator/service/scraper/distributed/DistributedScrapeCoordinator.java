@@ -0,0 +1,109 @@
+package com.samir.pricecomparator.service.scraper.distributed;
+
+import com.samir.pricecomparator.config.ScrapingProperties;
+import com.samir.pricecomparator.entity.Shop;
+import com.samir.pricecomparator.service.scraper.ScraperOrchestrator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a scheduled scrape as one participant among several app instances.
+ *
+ * Every instance fires the same cron; the first one publishes the shops to
+ * {@link ScrapeWorkQueue}, and all of them then claim shops until the run is drained.
+ * Workers keep polling while other nodes still hold shops, so a shop re-queued after a
+ * node failure is picked up. Exactly one node performs the post-run steps.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "scraping.distributed.enabled", havingValue = "true")
+public class DistributedScrapeCoordinator {
+
+    private static final DateTimeFormatter RUN_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HH");
+
+    private final ScrapeWorkQueue workQueue;
+    private final ScraperOrchestrator scraperOrchestrator;
+    private final ScrapingProperties.Distributed settings;
+
+    public DistributedScrapeCoordinator(ScrapeWorkQueue workQueue,
+                                        ScraperOrchestrator scraperOrchestrator,
+                                        ScrapingProperties scrapingProperties) {
+        this.workQueue = workQueue;
+        this.scraperOrchestrator = scraperOrchestrator;
+        this.settings = scrapingProperties.getDistributed();
+    }
+
+    /**
+     * Join the run for the current scheduled slot. All instances triggered by the same cron
+     * firing derive the same run id (the hour it fired in).
+     */
+    public void scrapeAllShops() {
+        String runId = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).format(RUN_ID_FORMAT);
+        scrapeAllShops(runId);
+    }
+
+    public void scrapeAllShops(String runId) {
+        List<String> shopCodes = scraperOrchestrator.getScrapableShops().stream()
+                .map(Shop::getCode)
+                .toList();
+        workQueue.enqueueRun(runId, shopCodes);
+
+        int workers = Math.max(1, settings.getWorkersPerNode());
+        log.info("Node {} joining scrape run {} with {} workers", workQueue.getNodeId(), runId, workers);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> work(runId)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Node {} interrupted during scrape run {}", workQueue.getNodeId(), runId);
+            return;
+        } catch (Exception e) {
+            log.error("Scrape run {} worker failed", runId, e);
+        }
+
+        if (workQueue.isDrained(runId) && workQueue.tryFinalize(runId)) {
+            log.info("Node {} finalizing scrape run {}", workQueue.getNodeId(), runId);
+            scraperOrchestrator.completeRun();
+        }
+    }
+
+    private Void work(String runId) throws InterruptedException {
+        while (true) {
+            Optional<ScrapeWorkQueue.Lease> claimed = workQueue.claim(runId);
+            if (claimed.isPresent()) {
+                try (ScrapeWorkQueue.Lease lease = claimed.get()) {
+                    // A node that lost its lease stops before persisting more - another node owns the shop now
+                    scraperOrchestrator.scrapeShopByCode(lease.getShopCode(), lease::isLost);
+                } catch (Exception e) {
+                    log.error("Distributed scrape failed for shop: {}", claimed.get().getShopCode(), e);
+                }
+                continue;
+            }
+
+            workQueue.requeueExpired(runId);
+            if (workQueue.isDrained(runId)) {
+                return null;
+            }
+            // Other nodes still hold shops - wait in case one of them dies and its shop is re-queued
+            TimeUnit.MILLISECONDS.sleep(settings.getPollInterval().toMillis());
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.samir.pricecomparator.service.scraper.distributed;
+
+import com.samir.pricecomparator.config.ScrapingProperties;
+import com.samir.pricecomparator.metrics.ScraperMetricsService;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis work queue that lets several app instances share one scrape run.
+ *
+ * Per run ({@code runId}) there is a pending list of shop codes, an in-flight hash
+ * (shop → owning node) and a populated marker written together with the pending list.
+ * Claiming a shop atomically moves it from the list to the hash and creates a lease key
+ * with a TTL; the owner renews the lease with heartbeats. If a node dies its lease expires
+ * and {@link #requeueExpired(String)} puts the shop back on the list for another node.
+ * A node that merely stalled finds its {@link Lease#isLost()} set and stops scraping.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "scraping.distributed.enabled", havingValue = "true")
+public class ScrapeWorkQueue {
+
+    private static final String PREFIX = "scrape:run:";
+    private static final Duration RUN_KEY_TTL = Duration.ofDays(1);
+
+    /** Run key, pending shops and the populated marker appear together or not at all */
+    private static final RedisScript<Long> ENQUEUE = new DefaultRedisScript<>("""
+            if not redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return 0 end
+            for i = 3, #ARGV, 1000 do
+              redis.call('rpush', KEYS[2], unpack(ARGV, i, math.min(i + 999, #ARGV)))
+            end
+            redis.call('pexpire', KEYS[2], ARGV[2])
+            redis.call('set', KEYS[3], #ARGV - 2, 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    /** Drained only once the run was populated and both pending and in-flight are empty, read together */
+    private static final RedisScript<Long> DRAINED = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[1]) == 0 then return 0 end
+            if redis.call('llen', KEYS[2]) == 0 and redis.call('hlen', KEYS[3]) == 0 then return 1 end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<String> CLAIM = new DefaultRedisScript<>("""
+            local shop = redis.call('lpop', KEYS[1])
+            if not shop then return false end
+            redis.call('set', ARGV[1] .. shop, ARGV[2], 'PX', ARGV[3])
+            redis.call('hset', KEYS[2], shop, ARGV[2])
+            return shop
+            """, String.class);
+
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+              return redis.call('pexpire', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> COMPLETE = new DefaultRedisScript<>("""
+            if redis.call('hget', KEYS[2], ARGV[1]) == ARGV[2] then redis.call('hdel', KEYS[2], ARGV[1]) end
+            if redis.call('get', KEYS[1]) == ARGV[2] then redis.call('del', KEYS[1]) end
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> REQUEUE = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[3]) == 0 and redis.call('hdel', KEYS[2], ARGV[1]) == 1 then
+              redis.call('rpush', KEYS[1], ARGV[1])
+              return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ScrapingProperties.Distributed settings;
+    private final ScraperMetricsService scraperMetrics;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("scrape-lease-heartbeat").factory());
+
+    @Getter
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName()
+            + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    public ScrapeWorkQueue(StringRedisTemplate redisTemplate,
+                           ScrapingProperties scrapingProperties,
+                           ScraperMetricsService scraperMetrics) {
+        this.redisTemplate = redisTemplate;
+        this.settings = scrapingProperties.getDistributed();
+        this.scraperMetrics = scraperMetrics;
+    }
+
+    /**
+     * Publish the shops of a run. Only the first node to get here enqueues; the others
+     * join as workers on the same queue. Creating the run key and pushing the shops is one
+     * script, so a joining node never sees a created but still empty run as drained.
+     *
+     * @return true if this node created the run
+     */
+    public boolean enqueueRun(String runId, Collection<String> shopCodes) {
+        List<String> args = new ArrayList<>(shopCodes.size() + 2);
+        args.add(nodeId);
+        args.add(String.valueOf(RUN_KEY_TTL.toMillis()));
+        args.addAll(shopCodes);
+        Long created = redisTemplate.execute(ENQUEUE,
+                List.of(PREFIX + runId, queueKey(runId), populatedKey(runId)), args.toArray());
+        if (created == null || created == 0) {
+            log.info("Scrape run {} already created by {}", runId, redisTemplate.opsForValue().get(PREFIX + runId));
+            return false;
+        }
+        log.info("Created scrape run {} with {} shops", runId, shopCodes.size());
+        return true;
+    }
+
+    /**
+     * Claim the next pending shop. The returned lease is renewed in the background until closed.
+     */
+    public Optional<Lease> claim(String runId) {
+        String shopCode = redisTemplate.execute(CLAIM, List.of(queueKey(runId), inFlightKey(runId)),
+                leasePrefix(runId), nodeId, String.valueOf(settings.getLeaseTtl().toMillis()));
+        if (shopCode == null) {
+            return Optional.empty();
+        }
+        redisTemplate.expire(inFlightKey(runId), RUN_KEY_TTL);
+        scraperMetrics.recordWorkQueueEvent("claimed");
+        log.info("Node {} claimed {} (run {})", nodeId, shopCode, runId);
+        return Optional.of(new Lease(runId, shopCode));
+    }
+
+    /**
+     * Return shops whose owner stopped heartbeating to the pending list.
+     *
+     * @return number of shops re-queued
+     */
+    public int requeueExpired(String runId) {
+        Map<Object, Object> inFlight = redisTemplate.opsForHash().entries(inFlightKey(runId));
+        int requeued = 0;
+        for (Map.Entry<Object, Object> entry : inFlight.entrySet()) {
+            String shopCode = (String) entry.getKey();
+            Long moved = redisTemplate.execute(REQUEUE,
+                    List.of(queueKey(runId), inFlightKey(runId), leasePrefix(runId) + shopCode), shopCode);
+            if (moved != null && moved == 1) {
+                log.warn("Lease of {} held by {} expired; re-queued", shopCode, entry.getValue());
+                scraperMetrics.recordWorkQueueEvent("requeued");
+                requeued++;
+            }
+        }
+        return requeued;
+    }
+
+    /**
+     * True when the run has been populated, nothing is pending and no node holds a shop of
+     * it. Both counts are read in one script, so a shop moving from in-flight back to pending
+     * is never missed in between.
+     */
+    public boolean isDrained(String runId) {
+        Long drained = redisTemplate.execute(DRAINED,
+                List.of(populatedKey(runId), queueKey(runId), inFlightKey(runId)));
+        return drained != null && drained == 1;
+    }
+
+    /**
+     * Elect exactly one node to run the post-run steps (indexing, cache invalidation).
+     */
+    public boolean tryFinalize(String runId) {
+        return Boolean.TRUE.equals(
+                redisTemplate.opsForValue().setIfAbsent(PREFIX + runId + ":finalized", nodeId, RUN_KEY_TTL));
+    }
+
+    private static String queueKey(String runId) {
+        return PREFIX + runId + ":pending";
+    }
+
+    private static String populatedKey(String runId) {
+        return PREFIX + runId + ":populated";
+    }
+
+    private static String inFlightKey(String runId) {
+        return PREFIX + runId + ":inflight";
+    }
+
+    private static String leasePrefix(String runId) {
+        return PREFIX + runId + ":lease:";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    /**
+     * A claimed shop. Closing it marks the work done and releases the lease.
+     */
+    public final class Lease implements AutoCloseable {
+
+        @Getter
+        private final String shopCode;
+        private final String runId;
+        private final ScheduledFuture<?> heartbeat;
+        private volatile boolean lost;
+        private volatile long renewedAtNanos = System.nanoTime();
+
+        private Lease(String runId, String shopCode) {
+            this.runId = runId;
+            this.shopCode = shopCode;
+            long interval = settings.getHeartbeatInterval().toMillis();
+            this.heartbeat = heartbeats.scheduleAtFixedRate(this::renew, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        private void renew() {
+            try {
+                Long renewed = redisTemplate.execute(RENEW, List.of(leasePrefix(runId) + shopCode),
+                        nodeId, String.valueOf(settings.getLeaseTtl().toMillis()));
+                if (renewed != null && renewed == 1 && !lost) {
+                    renewedAtNanos = System.nanoTime();
+                }
+                if ((renewed == null || renewed == 0) && !lost) {
+                    lost = true;
+                    log.warn("Lost lease on {} (run {}); another node may scrape it again", shopCode, runId);
+                    scraperMetrics.recordWorkQueueEvent("lease_lost");
+                }
+            } catch (Exception e) {
+                log.warn("Failed to renew lease on {}: {}", shopCode, e.getMessage());
+            }
+        }
+
+        /**
+         * True once a heartbeat found the lease expired or taken over, or when no heartbeat
+         * succeeded for a whole lease TTL (e.g. the node stalled and the heartbeat has not run yet)
+         */
+        public boolean isLost() {
+            return lost || System.nanoTime() - renewedAtNanos > settings.getLeaseTtl().toNanos();
+        }
+
+        @Override
+        public void close() {
+            heartbeat.cancel(false);
+            redisTemplate.execute(COMPLETE, List.of(leasePrefix(runId) + shopCode, inFlightKey(runId)),
+                    shopCode, nodeId);
+            scraperMetrics.recordWorkQueueEvent("completed");
+            log.info("Node {} completed {} (run {})", nodeId, shopCode, runId);
+        }
+    }
+}
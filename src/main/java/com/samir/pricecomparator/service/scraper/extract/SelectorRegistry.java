@@ -0,0 +1,67 @@
+package com.samir.pricecomparator.service.scraper.extract;
+
+import com.samir.pricecomparator.metrics.ScraperMetricsService;
+import io.micrometer.core.instrument.Counter;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled CSS selectors shared by all scrapers.
+ *
+ * {@code Element.select(String)} parses the query on every call; scrapers run the same
+ * handful of selectors against every product card. Here each query is parsed once into
+ * an {@link Evaluator} and reused (evaluators are thread-safe).
+ *
+ * Every lookup counts as a hit (something matched) or a miss per shop and selector,
+ * which shows fallback selectors that never match.
+ */
+@Component
+public class SelectorRegistry {
+
+    private final ScraperMetricsService scraperMetrics;
+    private final Map<String, Evaluator> evaluators = new ConcurrentHashMap<>();
+    private final Map<SelectorKey, LookupCounters> counters = new ConcurrentHashMap<>();
+
+    public SelectorRegistry(ScraperMetricsService scraperMetrics) {
+        this.scraperMetrics = scraperMetrics;
+    }
+
+    /**
+     * @throws org.jsoup.select.Selector.SelectorParseException if the query is invalid
+     */
+    public Evaluator compile(String cssQuery) {
+        return evaluators.computeIfAbsent(cssQuery, QueryParser::parse);
+    }
+
+    public Element selectFirst(String shopCode, Element root, String cssQuery) {
+        Element found = root.selectFirst(compile(cssQuery));
+        record(shopCode, cssQuery, found != null);
+        return found;
+    }
+
+    public Elements select(String shopCode, Element root, String cssQuery) {
+        Elements found = root.select(compile(cssQuery));
+        record(shopCode, cssQuery, !found.isEmpty());
+        return found;
+    }
+
+    private void record(String shopCode, String cssQuery, boolean hit) {
+        LookupCounters lookup = counters.computeIfAbsent(new SelectorKey(shopCode, cssQuery),
+                key -> new LookupCounters(
+                        scraperMetrics.selectorLookupCounter(key.shopCode(), key.cssQuery(), "hit"),
+                        scraperMetrics.selectorLookupCounter(key.shopCode(), key.cssQuery(), "miss")));
+        (hit ? lookup.hits() : lookup.misses()).increment();
+    }
+
+    private record SelectorKey(String shopCode, String cssQuery) {
+    }
+
+    private record LookupCounters(Counter hits, Counter misses) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.samir.pricecomparator.service.scraper.extract;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Extracts product containers from a page without keeping the page's DOM.
+ *
+ * The page source is tokenized once with jsoup's {@link StreamParser}. Every element is
+ * seen when its end tag is parsed, after its children: a container matching the selector
+ * is handed over complete, and every finished element outside an open container is
+ * dropped from the tree. Memory therefore follows the size of one product card, not the
+ * page (menus, footers and inline scripts are never retained).
+ *
+ * Because finished siblings are discarded, container selectors may use descendant and
+ * child combinators but not sibling combinators or structural pseudo-selectors such as
+ * {@code :nth-child}. Nested matches are emitted innermost first, as copies, so their
+ * enclosing container is still handed over whole.
+ */
+public final class StreamingHtmlExtractor {
+
+    private StreamingHtmlExtractor() {
+    }
+
+    /**
+     * Map every container matching {@code containerSelector}; empty mapper results are skipped.
+     */
+    public static <T> List<T> extract(String html, String baseUri, String containerSelector,
+                                      Function<Element, Optional<T>> mapper) {
+        List<T> items = new ArrayList<>();
+        forEachMatch(html, baseUri, containerSelector, element -> mapper.apply(element).ifPresent(items::add));
+        return items;
+    }
+
+    /**
+     * Build a small document whose body holds only the matching containers, for code that
+     * works on a {@link Document} (listing page hooks, fingerprints).
+     */
+    public static Document extractDocument(String html, String baseUri, String containerSelector) {
+        Document compact = Document.createShell(baseUri);
+        forEachMatch(html, baseUri, containerSelector, compact.body()::appendChild);
+        return compact;
+    }
+
+    private static void forEachMatch(String html, String baseUri, String containerSelector,
+                                     Consumer<Element> consumer) {
+        Evaluator evaluator = QueryParser.parse(containerSelector);
+        try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(html, baseUri)) {
+            Document source = parser.document();
+            parser.stream().forEach(element -> {
+                Element parent = element.parent();
+                // Still part of a container whose end tag has not been parsed yet
+                boolean insideContainer = parent != null && parent != source && parent.closest(evaluator) != null;
+                if (element.is(evaluator)) {
+                    // A nested match is copied so the enclosing container stays complete
+                    consumer.accept(insideContainer ? element.clone() : element);
+                }
+                // Done with this subtree, unless an open container still needs it or the consumer moved it
+                if (!insideContainer && parent != null && parent != source && element.ownerDocument() == source) {
+                    element.remove();
+                }
+            });
+        }
+    }
+}
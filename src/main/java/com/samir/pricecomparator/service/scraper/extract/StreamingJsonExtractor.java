@@ -0,0 +1,112 @@
+package com.samir.pricecomparator.service.scraper.extract;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Pulls one value out of a large JSON document without building a tree.
+ *
+ * The parser walks down a dotted path of object fields (e.g.
+ * {@code props.pageProps.products.products.items}), skipping every sibling subtree
+ * token by token, and binds only the target value straight into the requested type.
+ * Pages like a Next.js {@code __NEXT_DATA__} blob are mostly translations, menus and
+ * SEO data; none of that is materialized.
+ *
+ * Target types are usually records; unknown properties are ignored.
+ */
+public final class StreamingJsonExtractor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private StreamingJsonExtractor() {
+    }
+
+    /**
+     * Bind every element of the array at {@code path}.
+     *
+     * @return the elements, or an empty list if the path is missing or not an array
+     */
+    public static <T> List<T> readArray(String json, String path, Class<T> itemType) throws IOException {
+        try (JsonParser parser = MAPPER.createParser(json)) {
+            if (!seek(parser, path) || parser.currentToken() != JsonToken.START_ARRAY) {
+                return List.of();
+            }
+            List<T> items = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                items.add(MAPPER.readValue(parser, itemType));
+            }
+            return items;
+        }
+    }
+
+    /**
+     * Bind the value at {@code path}; an empty path binds the whole document.
+     */
+    public static <T> Optional<T> read(String json, String path, Class<T> type) throws IOException {
+        try (JsonParser parser = MAPPER.createParser(json)) {
+            if (!seek(parser, path) || parser.currentToken() == JsonToken.VALUE_NULL) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(MAPPER.readValue(parser, type));
+        }
+    }
+
+    /**
+     * Copy the value at {@code path} as compact JSON text, e.g. to hash just one part of a page.
+     */
+    public static Optional<String> readRaw(String json, String path) throws IOException {
+        try (JsonParser parser = MAPPER.createParser(json)) {
+            if (!seek(parser, path)) {
+                return Optional.empty();
+            }
+            StringWriter out = new StringWriter();
+            try (JsonGenerator generator = MAPPER.createGenerator(out)) {
+                generator.copyCurrentStructure(parser);
+            }
+            return Optional.of(out.toString());
+        }
+    }
+
+    /**
+     * Advance the parser to the first token of the value at {@code path}.
+     *
+     * @return false if a path segment is missing or a non-object is in the way
+     */
+    private static boolean seek(JsonParser parser, String path) throws IOException {
+        if (parser.nextToken() == null) {
+            return false;
+        }
+        if (path.isEmpty()) {
+            return true;
+        }
+        for (String field : path.split("\\.")) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            boolean found = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if (field.equals(name)) {
+                    found = true;
+                    break;
+                }
+                parser.skipChildren();
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
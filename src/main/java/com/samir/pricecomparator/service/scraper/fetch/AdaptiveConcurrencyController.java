@@ -0,0 +1,254 @@
+package com.samir.pricecomparator.service.scraper.fetch;
+
+import com.samir.pricecomparator.config.ScrapingProperties;
+import com.samir.pricecomparator.metrics.ScraperMetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AIMD (additive increase, multiplicative decrease) controller for per-shop request
+ * concurrency and rate.
+ *
+ * Every response a shop sends back is fed in. While latency stays under the shop's
+ * {@code latency-target} and errors are rare, the controller adds one in-flight page and
+ * {@code rate-step} requests/second each time a window of healthy responses completes.
+ * It halves both limits on an overload signal (429/503, a timeout or a challenge page)
+ * and cuts them by a fifth when latency or the error rate drifts too high. After a
+ * decrease, further decreases wait for a cooldown so one burst of failures from the same
+ * in-flight batch isn't counted several times.
+ *
+ * Browser navigations load a whole client-rendered page and are naturally much slower
+ * than plain HTTP requests, so their latency is averaged separately and compared with
+ * {@code browser-latency-target}; they share the error, challenge and healthy-window
+ * bookkeeping with HTTP responses.
+ *
+ * Limits stay in memory for the life of the application, so later runs start from the
+ * last learned values. The rate is applied through {@link HostRateLimiter}; scrapers read
+ * {@link #concurrencyLimit(String)} before starting each page.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyController {
+
+    private static final double OVERLOAD_FACTOR = 0.5;
+    private static final double DEGRADED_FACTOR = 0.8;
+    private static final double EWMA_WEIGHT = 0.2;
+    private static final double MAX_HEALTHY_ERROR_RATE = 0.05;
+    private static final double MAX_ERROR_RATE = 0.25;
+    private static final int MIN_WINDOW = 5;
+
+    private final ScrapingProperties scrapingProperties;
+    private final HostRateLimiter rateLimiter;
+    private final ScraperMetricsService scraperMetrics;
+
+    private final ConcurrentHashMap<String, ShopLimits> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyController(ScrapingProperties scrapingProperties,
+                                         HostRateLimiter rateLimiter,
+                                         ScraperMetricsService scraperMetrics) {
+        this.scrapingProperties = scrapingProperties;
+        this.rateLimiter = rateLimiter;
+        this.scraperMetrics = scraperMetrics;
+    }
+
+    /**
+     * Listing pages the shop may have in flight right now.
+     */
+    public int concurrencyLimit(String shopCode) {
+        ScrapingProperties.ShopSettings settings = scrapingProperties.forShop(shopCode);
+        if (!settings.getAdaptiveThrottling()) {
+            return Math.max(1, settings.getMaxInFlightPages());
+        }
+        return limitsFor(shopCode).concurrencyLimit();
+    }
+
+    /**
+     * Feed a completed HTTP response.
+     *
+     * @param body response body, checked for challenge pages; may be null
+     */
+    public void onResponse(String shopCode, int statusCode, long latencyNanos, String body) {
+        ScrapingProperties.ShopSettings settings = scrapingProperties.forShop(shopCode);
+        if (!settings.getAdaptiveThrottling()) {
+            return;
+        }
+        ShopLimits shop = limitsFor(shopCode);
+        if (statusCode == 429 || statusCode == 503) {
+            shop.overload(settings, "throttled");
+        } else if (isChallenge(body, settings.getChallengeMarkers())) {
+            shop.overload(settings, "challenge");
+        } else if (statusCode >= 500 || statusCode == 403) {
+            shop.error(settings);
+        } else {
+            shop.success(settings, shop.httpLatency, latencyNanos, settings.getLatencyTarget());
+        }
+    }
+
+    /**
+     * Feed a completed browser navigation (driver.get).
+     *
+     * @param pageSource loaded page, checked for challenge pages; may be null
+     */
+    public void onBrowserNavigation(String shopCode, long latencyNanos, String pageSource) {
+        ScrapingProperties.ShopSettings settings = scrapingProperties.forShop(shopCode);
+        if (!settings.getAdaptiveThrottling()) {
+            return;
+        }
+        ShopLimits shop = limitsFor(shopCode);
+        if (isChallenge(pageSource, settings.getChallengeMarkers())) {
+            shop.overload(settings, "challenge");
+        } else {
+            shop.success(settings, shop.browserLatency, latencyNanos, settings.getBrowserLatencyTarget());
+        }
+    }
+
+    /**
+     * Feed a request that timed out (connect or read).
+     */
+    public void onTimeout(String shopCode) {
+        ScrapingProperties.ShopSettings settings = scrapingProperties.forShop(shopCode);
+        if (settings.getAdaptiveThrottling()) {
+            limitsFor(shopCode).overload(settings, "timeout");
+        }
+    }
+
+    /**
+     * Honour a {@code Retry-After} header: no request goes to that host until it expires.
+     */
+    public void onRetryAfter(String shopCode, String url, Duration delay) {
+        log.info("{} asked to retry after {} s, pausing {}", shopCode, delay.toSeconds(), HostRateLimiter.hostOf(url));
+        rateLimiter.pause(shopCode, url, delay);
+    }
+
+    private ShopLimits limitsFor(String shopCode) {
+        return limits.computeIfAbsent(shopCode, code -> {
+            ScrapingProperties.ShopSettings settings = scrapingProperties.forShop(code);
+            ShopLimits created = new ShopLimits(code, settings.getMaxInFlightPages(), settings.getRequestsPerSecond());
+            scraperMetrics.registerShopLimits(code, created::concurrencyLimit, created::requestsPerSecond);
+            return created;
+        });
+    }
+
+    static boolean isChallenge(String body, List<String> markers) {
+        if (body == null || markers == null) {
+            return false;
+        }
+        for (String marker : markers) {
+            if (body.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Learned limits of one shop. All transitions are synchronized; they are cheap and
+     * happen once per response.
+     */
+    private final class ShopLimits {
+
+        private final String shopCode;
+        private double concurrency;
+        private double rate;
+        private final LatencyAverage httpLatency = new LatencyAverage();
+        private final LatencyAverage browserLatency = new LatencyAverage();
+        private double errorRateEwma;
+        private int healthyStreak;
+        private long lastDecreaseNanos;
+
+        private ShopLimits(String shopCode, int concurrency, double rate) {
+            this.shopCode = shopCode;
+            this.concurrency = Math.max(1, concurrency);
+            this.rate = rate;
+        }
+
+        synchronized int concurrencyLimit() {
+            return (int) concurrency;
+        }
+
+        synchronized double requestsPerSecond() {
+            return rate;
+        }
+
+        synchronized void success(ScrapingProperties.ShopSettings settings, LatencyAverage latency,
+                                  long latencyNanos, Duration latencyTarget) {
+            latency.add(latencyNanos);
+            errorRateEwma -= EWMA_WEIGHT * errorRateEwma;
+
+            if (latency.ewmaNanos > latencyTarget.toNanos()) {
+                decrease(settings, DEGRADED_FACTOR, "latency");
+                return;
+            }
+            if (errorRateEwma > MAX_HEALTHY_ERROR_RATE) {
+                return;
+            }
+            // One step per window: the window grows with concurrency, so the rate of
+            // increase is roughly one step per round of in-flight pages
+            if (++healthyStreak < Math.max(MIN_WINDOW, (int) concurrency)) {
+                return;
+            }
+            healthyStreak = 0;
+            double nextConcurrency = Math.min(settings.getMaxConcurrentPages(), concurrency + 1);
+            double nextRate = Math.min(settings.getMaxRequestsPerSecond(), rate + settings.getRateStep());
+            if (nextConcurrency != concurrency || nextRate != rate) {
+                apply(nextConcurrency, nextRate, "up", "healthy");
+            }
+        }
+
+        synchronized void error(ScrapingProperties.ShopSettings settings) {
+            healthyStreak = 0;
+            errorRateEwma += EWMA_WEIGHT * (1 - errorRateEwma);
+            if (errorRateEwma > MAX_ERROR_RATE) {
+                decrease(settings, DEGRADED_FACTOR, "errors");
+            }
+        }
+
+        synchronized void overload(ScrapingProperties.ShopSettings settings, String reason) {
+            healthyStreak = 0;
+            errorRateEwma += EWMA_WEIGHT * (1 - errorRateEwma);
+            decrease(settings, OVERLOAD_FACTOR, reason);
+        }
+
+        private void decrease(ScrapingProperties.ShopSettings settings, double factor, String reason) {
+            healthyStreak = 0;
+            long now = System.nanoTime();
+            Duration cooldown = settings.getDecreaseCooldown();
+            if (lastDecreaseNanos != 0 && now - lastDecreaseNanos < cooldown.toNanos()) {
+                return;
+            }
+            lastDecreaseNanos = now;
+            // Latency is re-learned at the new limits
+            httpLatency.ewmaNanos = 0;
+            browserLatency.ewmaNanos = 0;
+            apply(Math.max(1, Math.floor(concurrency * factor)),
+                    Math.max(settings.getMinRequestsPerSecond(), rate * factor),
+                    "down", reason);
+        }
+
+        private void apply(double nextConcurrency, double nextRate, String direction, String reason) {
+            log.info("Adjusting {} limits {} ({}): in-flight {} -> {}, rate {} -> {} req/s",
+                    shopCode, direction, reason, (int) concurrency, (int) nextConcurrency,
+                    String.format("%.2f", rate), String.format("%.2f", nextRate));
+            concurrency = nextConcurrency;
+            rate = nextRate;
+            rateLimiter.updateRate(shopCode, rate);
+            scraperMetrics.recordLimitAdjustment(shopCode, direction, reason);
+        }
+    }
+
+    /**
+     * Exponentially weighted latency of one kind of request; guarded by its {@link ShopLimits}.
+     */
+    private static final class LatencyAverage {
+
+        private double ewmaNanos;
+
+        void add(long latencyNanos) {
+            ewmaNanos = ewmaNanos == 0 ? latencyNanos : ewmaNanos + EWMA_WEIGHT * (latencyNanos - ewmaNanos);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.samir.pricecomparator.service.scraper.fetch;
+
+import com.samir.pricecomparator.config.ScrapingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk archive of shop responses for offline, repeatable scrapes.
+ *
+ * With {@code scraping.archive.mode=record} every plain HTTP response and every browser
+ * page source a scraper sees is appended to {@code <directory>/<shop>.farc}. With
+ * {@code mode=replay} scrapers read those entries instead of touching the network or a
+ * browser, after an artificial {@code replay-latency}; a URL that was never recorded fails
+ * like a network error.
+ *
+ * Each entry is written as its own gzip member (a file is a valid concatenated gzip
+ * stream), so recording only ever appends. Entries are keyed by kind and URL; when a URL
+ * was recorded more than once, the last entry wins, except that a non-2xx HTTP response is
+ * never recorded over a 2xx one (a later error would otherwise break replay of a page
+ * that was once fetched fine). Delete the file to start over.
+ */
+@Slf4j
+@Component
+public class FetchArchive {
+
+    private static final int MAGIC = 0x46415243; // "FARC"
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".farc";
+    /** Headers scrapers read from responses; everything else is dropped */
+    private static final List<String> KEPT_HEADERS = List.of("Content-Type", "ETag", "Last-Modified");
+
+    public enum Kind {
+        /** Plain HTTP response */
+        HTTP,
+        /** Browser page source after readiness waits and scrolling */
+        BROWSER,
+        /** Small value a scraper derived live, e.g. a discovered endpoint */
+        VALUE
+    }
+
+    private final ScrapingProperties scrapingProperties;
+
+    /** Shop code → archive key → entry, loaded on first replay */
+    private final Map<String, Map<String, Entry>> loaded = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    /** Shop code → URLs with a recorded 2xx HTTP entry, seeded from the file on first record */
+    private final Map<String, Set<String>> successfulHttp = new ConcurrentHashMap<>();
+
+    public FetchArchive(ScrapingProperties scrapingProperties) {
+        this.scrapingProperties = scrapingProperties;
+    }
+
+    public boolean isRecording() {
+        return scrapingProperties.getArchive().getMode() == ScrapingProperties.ArchiveMode.RECORD;
+    }
+
+    public boolean isReplaying() {
+        return scrapingProperties.getArchive().getMode() == ScrapingProperties.ArchiveMode.REPLAY;
+    }
+
+    public void recordHttp(String shopCode, String url, HttpFetchClient.FetchResponse response) {
+        Set<String> successful = successfulHttpUrls(shopCode);
+        if (!response.isSuccessful() && successful.contains(url)) {
+            log.debug("Not recording HTTP {} over an archived 2xx response: {}", response.statusCode(), url);
+            return;
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : KEPT_HEADERS) {
+            response.headers().firstValue(name).ifPresent(value -> headers.put(name, value));
+        }
+        append(shopCode, Kind.HTTP, url, new Entry(response.statusCode(), response.uri().toString(), headers,
+                response.body()));
+        if (response.isSuccessful()) {
+            successful.add(url);
+        }
+    }
+
+    public void recordBrowserPage(String shopCode, String url, String pageSource) {
+        append(shopCode, Kind.BROWSER, url, new Entry(200, url, Map.of(), pageSource));
+    }
+
+    public void recordValue(String shopCode, String key, String value) {
+        append(shopCode, Kind.VALUE, key, new Entry(0, key, Map.of(), value));
+    }
+
+    /**
+     * Recorded HTTP response for the URL, served after the replay latency.
+     *
+     * @throws IOException if the URL is not in the archive
+     */
+    public HttpFetchClient.FetchResponse replayHttp(String shopCode, String url) throws IOException {
+        Entry entry = require(shopCode, Kind.HTTP, url);
+        awaitReplayLatency();
+        Map<String, List<String>> headers = entry.headers().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, header -> List.of(header.getValue())));
+        return new HttpFetchClient.FetchResponse(entry.statusCode(), URI.create(entry.uri()),
+                HttpHeaders.of(headers, (name, value) -> true), entry.body(),
+                entry.body().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * Recorded browser page source for the URL, served after the replay latency.
+     *
+     * @throws IOException if the URL is not in the archive
+     */
+    public String replayBrowserPage(String shopCode, String url) throws IOException {
+        Entry entry = require(shopCode, Kind.BROWSER, url);
+        awaitReplayLatency();
+        return entry.body();
+    }
+
+    public Optional<String> replayValue(String shopCode, String key) throws IOException {
+        return Optional.ofNullable(entries(shopCode).get(key(Kind.VALUE, key))).map(Entry::body);
+    }
+
+    public Path archiveFile(String shopCode) {
+        return Paths.get(scrapingProperties.getArchive().getDirectory())
+                .resolve(shopCode.toLowerCase(Locale.ROOT) + SUFFIX);
+    }
+
+    private Entry require(String shopCode, Kind kind, String url) throws IOException {
+        Entry entry = entries(shopCode).get(key(kind, url));
+        if (entry == null) {
+            throw new IOException("Not in fetch archive (" + kind + "): " + url);
+        }
+        return entry;
+    }
+
+    private Map<String, Entry> entries(String shopCode) throws IOException {
+        Map<String, Entry> entries = loaded.get(shopCode);
+        if (entries == null) {
+            synchronized (lockFor(shopCode)) {
+                entries = loaded.get(shopCode);
+                if (entries == null) {
+                    entries = load(archiveFile(shopCode));
+                    loaded.put(shopCode, entries);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private Set<String> successfulHttpUrls(String shopCode) {
+        Set<String> urls = successfulHttp.get(shopCode);
+        if (urls == null) {
+            synchronized (lockFor(shopCode)) {
+                urls = successfulHttp.get(shopCode);
+                if (urls == null) {
+                    urls = ConcurrentHashMap.newKeySet();
+                    Path file = archiveFile(shopCode);
+                    if (Files.exists(file)) {
+                        try {
+                            String prefix = key(Kind.HTTP, "");
+                            for (Map.Entry<String, Entry> entry : load(file).entrySet()) {
+                                int status = entry.getValue().statusCode();
+                                if (entry.getKey().startsWith(prefix) && status >= 200 && status < 300) {
+                                    urls.add(entry.getKey().substring(prefix.length()));
+                                }
+                            }
+                        } catch (IOException e) {
+                            log.warn("Failed to read existing fetch archive {}: {}", file, e.getMessage());
+                        }
+                    }
+                    successfulHttp.put(shopCode, urls);
+                }
+            }
+        }
+        return urls;
+    }
+
+    private void append(String shopCode, Kind kind, String key, Entry entry) {
+        Path file = archiveFile(shopCode);
+        synchronized (lockFor(shopCode)) {
+            try {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                try (OutputStream fileOut = Files.newOutputStream(file,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                     DataOutputStream out = new DataOutputStream(
+                             new BufferedOutputStream(new GZIPOutputStream(fileOut)))) {
+                    write(out, kind, key, entry);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to record {} {} to {}: {}", kind, key, file, e.getMessage());
+            }
+        }
+    }
+
+    private static void write(DataOutputStream out, Kind kind, String key, Entry entry) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(kind.ordinal());
+        out.writeUTF(key);
+        out.writeInt(entry.statusCode());
+        out.writeUTF(entry.uri());
+        out.writeShort(entry.headers().size());
+        for (Map.Entry<String, String> header : entry.headers().entrySet()) {
+            out.writeUTF(header.getKey());
+            out.writeUTF(header.getValue());
+        }
+        byte[] body = entry.body().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(body.length);
+        out.write(body);
+    }
+
+    private static Map<String, Entry> load(Path file) throws IOException {
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+        if (!Files.exists(file)) {
+            throw new IOException("No fetch archive at " + file.toAbsolutePath() + " (record one first)");
+        }
+        try (InputStream fileIn = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(fileIn)))) {
+            while (true) {
+                int magic;
+                try {
+                    magic = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (magic != MAGIC || in.readByte() != VERSION) {
+                    throw new IOException("Unsupported fetch archive format: " + file);
+                }
+                Kind kind = Kind.values()[in.readByte()];
+                String key = in.readUTF();
+                int statusCode = in.readInt();
+                String uri = in.readUTF();
+                int headerCount = in.readShort();
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (int i = 0; i < headerCount; i++) {
+                    headers.put(in.readUTF(), in.readUTF());
+                }
+                byte[] body = new byte[in.readInt()];
+                in.readFully(body);
+                entries.put(key(kind, key), new Entry(statusCode, uri, headers, new String(body, StandardCharsets.UTF_8)));
+            }
+        } catch (EOFException e) {
+            // A recording stopped mid-write: keep the complete entries
+            log.warn("Fetch archive {} ends with a truncated entry", file);
+        }
+        log.info("Loaded {} entries from fetch archive {}", entries.size(), file);
+        return entries;
+    }
+
+    private void awaitReplayLatency() throws IOException {
+        Duration latency = scrapingProperties.getArchive().getReplayLatency();
+        if (latency.isZero() || latency.isNegative()) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(latency.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during replay latency", e);
+        }
+    }
+
+    private Object lockFor(String shopCode) {
+        return locks.computeIfAbsent(shopCode, code -> new Object());
+    }
+
+    private static String key(Kind kind, String key) {
+        return kind.name() + ' ' + key;
+    }
+
+    /**
+     * @param uri final URI of an HTTP response; the URL or key otherwise
+     */
+    private record Entry(int statusCode, String uri, Map<String, String> headers, String body) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.samir.pricecomparator.service.scraper.fetch;
+
+import com.samir.pricecomparator.config.ScrapingProperties;
+import com.samir.pricecomparator.metrics.ScraperMetricsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-host token bucket that throttles outbound scraper requests.
+ *
+ * Only network calls take a permit, so local parsing runs at full speed and a shop's
+ * request budget is spent at a steady, configurable rate
+ * ({@code scraping.shop-defaults} / {@code scraping.shops.<code>}). The rate can be
+ * changed at runtime by {@link AdaptiveConcurrencyController}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HostRateLimiter {
+
+    private final ScrapingProperties scrapingProperties;
+    private final ScraperMetricsService scraperMetrics;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    /** Current rate per shop once it has been adjusted; new hosts of the shop start at this rate */
+    private final ConcurrentHashMap<String, Double> shopRates = new ConcurrentHashMap<>();
+
+    /**
+     * Block until the host of {@code url} may receive another request.
+     *
+     * @param shopCode shop whose settings define the rate for this host
+     * @param url      request URL; its host selects the bucket
+     */
+    public void acquire(String shopCode, String url) throws InterruptedException {
+        String host = hostOf(url);
+        TokenBucket bucket = buckets.computeIfAbsent(host, h -> newBucket(shopCode));
+
+        long waitNanos = bucket.reserve();
+        if (waitNanos > 0) {
+            log.trace("Throttling {} for {} ms", host, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        scraperMetrics.recordRateLimitWait(shopCode, waitNanos);
+    }
+
+    /**
+     * Change the rate of every host the shop talks to.
+     */
+    public void updateRate(String shopCode, double requestsPerSecond) {
+        shopRates.put(shopCode, requestsPerSecond);
+        buckets.values().stream()
+                .filter(bucket -> bucket.shopCode.equals(shopCode))
+                .forEach(bucket -> bucket.setRate(requestsPerSecond));
+    }
+
+    /**
+     * Hold back all requests to the host of {@code url} for {@code duration}, e.g. after a
+     * {@code Retry-After} header.
+     */
+    public void pause(String shopCode, String url, Duration duration) {
+        buckets.computeIfAbsent(hostOf(url), h -> newBucket(shopCode)).pause(duration.toNanos());
+    }
+
+    private TokenBucket newBucket(String shopCode) {
+        ScrapingProperties.ShopSettings settings = scrapingProperties.forShop(shopCode);
+        double rate = shopRates.getOrDefault(shopCode, settings.getRequestsPerSecond());
+        return new TokenBucket(shopCode, rate, settings.getBurst());
+    }
+
+    static String hostOf(String url) {
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+        if (host == null) {
+            return url;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        return host.startsWith("www.") ? host.substring(4) : host;
+    }
+
+    /**
+     * Reservation-style token bucket: a caller takes its token immediately (possibly
+     * going into debt) and sleeps outside the lock for as long as the debt takes to repay.
+     */
+    static final class TokenBucket {
+
+        private final String shopCode;
+        private final double capacity;
+        private double ratePerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(String shopCode, double requestsPerSecond, int burst) {
+            this.shopCode = shopCode;
+            this.ratePerNano = requestsPerSecond / 1_000_000_000d;
+            this.capacity = Math.max(1, burst);
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized long reserve() {
+            refill();
+            tokens -= 1;
+            if (tokens >= 0) {
+                return 0;
+            }
+            return (long) (-tokens / ratePerNano);
+        }
+
+        synchronized void setRate(double requestsPerSecond) {
+            refill();
+            ratePerNano = requestsPerSecond / 1_000_000_000d;
+        }
+
+        /**
+         * Go into enough debt that the next token is only available after {@code nanos}.
+         */
+        synchronized void pause(long nanos) {
+            refill();
+            tokens = Math.min(tokens, -nanos * ratePerNano);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.samir.pricecomparator.service.scraper.fetch;
+
+import com.samir.pricecomparator.config.ScrapingProperties;
+import com.samir.pricecomparator.metrics.ScraperMetricsService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.brotli.dec.BrotliInputStream;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Shared plain-HTTP client for scrapers.
+ *
+ * One {@link HttpClient} instance serves every shop, so TLS sessions and keep-alive
+ * connections (HTTP/2 streams where the server supports it) are reused across pages
+ * instead of being re-established per request. Responses are decoded from
+ * gzip / deflate / brotli and sent with the per-shop headers from
+ * {@code scraping.shop-defaults.headers} / {@code scraping.shops.<code>.headers}.
+ *
+ * Every response and timeout is reported to {@link AdaptiveConcurrencyController}, which
+ * tunes the shop's concurrency and request rate from them. Requests run under the shop's
+ * bulkhead and circuit breaker ({@link ShopResilience}); I/O errors, 5xx and 429 count as
+ * failures.
+ */
+@Slf4j
+@Component
+public class HttpFetchClient {
+
+    private static final String ACCEPT_ENCODING = "gzip, deflate, br";
+    /** A misbehaving Retry-After must not stall a scrape for hours */
+    private static final long MAX_RETRY_AFTER_SECONDS = 300;
+
+    private final ScrapingProperties scrapingProperties;
+    private final ScraperMetricsService scraperMetrics;
+    private final AdaptiveConcurrencyController concurrencyController;
+    private final ShopResilience shopResilience;
+    private final HttpClient client;
+
+    public HttpFetchClient(ScrapingProperties scrapingProperties,
+                           ScraperMetricsService scraperMetrics,
+                           AdaptiveConcurrencyController concurrencyController,
+                           ShopResilience shopResilience) {
+        this.scrapingProperties = scrapingProperties;
+        this.scraperMetrics = scraperMetrics;
+        this.concurrencyController = concurrencyController;
+        this.shopResilience = shopResilience;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(scrapingProperties.getHttp().getConnectTimeout())
+                .build();
+    }
+
+    public FetchResponse get(String shopCode, String url) throws IOException {
+        return get(shopCode, url, Map.of());
+    }
+
+    /**
+     * Perform a GET with the shop's headers plus {@code extraHeaders}.
+     * Non-2xx responses are returned, not thrown, so callers can act on 304/403 etc.
+     *
+     * @throws ShopUnavailableException if the shop's circuit breaker is open or its bulkhead is full
+     */
+    public FetchResponse get(String shopCode, String url, Map<String, String> extraHeaders) throws IOException {
+        return shopResilience.execute(shopCode, () -> send(shopCode, url, extraHeaders),
+                response -> response.statusCode() >= 500 || response.statusCode() == 429);
+    }
+
+    private FetchResponse send(String shopCode, String url, Map<String, String> extraHeaders) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(scrapingProperties.getHttp().getRequestTimeout())
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .GET();
+        scrapingProperties.forShop(shopCode).getHeaders().forEach(request::setHeader);
+        extraHeaders.forEach(request::setHeader);
+
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (HttpTimeoutException e) {
+            concurrencyController.onTimeout(shopCode);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + url, e);
+        }
+
+        byte[] raw;
+        try (InputStream in = response.body()) {
+            raw = in.readAllBytes();
+        }
+        String body;
+        try (InputStream in = decode(new ByteArrayInputStream(raw), response.headers())) {
+            body = new String(in.readAllBytes(), charsetOf(response.headers()));
+        }
+        long durationNanos = System.nanoTime() - start;
+        scraperMetrics.recordHttpFetch(shopCode, response.statusCode(), durationNanos);
+        concurrencyController.onResponse(shopCode, response.statusCode(), durationNanos, body);
+        retryAfter(response.headers()).ifPresent(delay -> concurrencyController.onRetryAfter(shopCode, url, delay));
+        log.debug("HTTP {} {} ({}, {} chars)", response.statusCode(), url, response.version(), body.length());
+
+        return new FetchResponse(response.statusCode(), response.uri(), response.headers(), body, raw.length);
+    }
+
+    /**
+     * {@code Retry-After} as delay-seconds; the HTTP-date form is rare on these shops and ignored.
+     */
+    private static Optional<Duration> retryAfter(HttpHeaders headers) {
+        return headers.firstValue("Retry-After").flatMap(value -> {
+            try {
+                long seconds = Long.parseLong(value.trim());
+                return seconds > 0 ? Optional.of(Duration.ofSeconds(Math.min(seconds, MAX_RETRY_AFTER_SECONDS)))
+                        : Optional.empty();
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    private static InputStream decode(InputStream body, HttpHeaders headers) throws IOException {
+        String encoding = headers.firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(body);
+            case "deflate" -> new InflaterInputStream(body);
+            case "br" -> new BrotliInputStream(body);
+            default -> body;
+        };
+    }
+
+    private static Charset charsetOf(HttpHeaders headers) {
+        String contentType = headers.firstValue("Content-Type").orElse("");
+        for (String part : contentType.split(";")) {
+            String param = part.trim();
+            if (param.regionMatches(true, 0, "charset=", 0, 8)) {
+                try {
+                    return Charset.forName(param.substring(8).replace("\"", "").trim());
+                } catch (IllegalArgumentException e) {
+                    log.debug("Unknown charset '{}', using UTF-8", param);
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    @PreDestroy
+    public void close() {
+        client.close();
+    }
+
+    /**
+     * Decoded HTTP response.
+     *
+     * @param uri              final URI after redirects (use as the document base URI)
+     * @param transferredBytes body size on the wire, before content decoding
+     */
+    public record FetchResponse(int statusCode, URI uri, HttpHeaders headers, String body, long transferredBytes) {
+
+        public boolean isSuccessful() {
+            return statusCode >= 200 && statusCode < 300;
+        }
+    }
+}
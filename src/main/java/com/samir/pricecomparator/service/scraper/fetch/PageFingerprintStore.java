@@ -0,0 +1,74 @@
+package com.samir.pricecomparator.service.scraper.fetch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samir.pricecomparator.config.ScrapingProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Redis-backed fingerprints of listing pages from the previous successful scrape.
+ *
+ * A fingerprint holds the HTTP validators (ETag / Last-Modified) used for conditional
+ * requests, a hash of the page's product block, and the offer URLs the page produced,
+ * so an unchanged page can be skipped and its offers only marked as seen.
+ * Entries expire after {@code scraping.fingerprint-ttl}, forcing a periodic full parse.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PageFingerprintStore {
+
+    private static final String PREFIX = "pagefp:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ScrapingProperties scrapingProperties;
+
+    public Optional<PageFingerprint> find(String shopCode, String url) {
+        try {
+            Object cached = redisTemplate.opsForValue().get(key(shopCode, url));
+            if (cached == null) {
+                return Optional.empty();
+            }
+            if (cached instanceof PageFingerprint fingerprint) {
+                return Optional.of(fingerprint);
+            }
+            return Optional.of(objectMapper.convertValue(cached, PageFingerprint.class));
+        } catch (Exception e) {
+            log.warn("Failed to read page fingerprint for {}: {}", url, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void save(String shopCode, String url, PageFingerprint fingerprint) {
+        try {
+            redisTemplate.opsForValue().set(key(shopCode, url), fingerprint, scrapingProperties.getFingerprintTtl());
+        } catch (Exception e) {
+            log.warn("Failed to store page fingerprint for {}: {}", url, e.getMessage());
+        }
+    }
+
+    public static String hash(String content) {
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String key(String shopCode, String url) {
+        return PREFIX + shopCode.toLowerCase() + ":" + hash(url);
+    }
+
+    /**
+     * @param etag         ETag response header, or null
+     * @param lastModified Last-Modified response header, or null
+     * @param contentHash  hash of the page's product block
+     * @param offerUrls    product URLs found on the page
+     */
+    public record PageFingerprint(String etag, String lastModified, String contentHash, List<String> offerUrls) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.samir.pricecomparator.service.scraper.fetch;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a conditional GET for a listing page is answered with 304 Not Modified.
+ * Not a failure: the page content is the same as on the previous run.
+ */
+public class PageNotModifiedException extends IOException {
+
+    public PageNotModifiedException(String url) {
+        super("Not modified: " + url);
+    }
+}
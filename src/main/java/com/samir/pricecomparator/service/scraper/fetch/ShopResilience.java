@@ -0,0 +1,166 @@
+package com.samir.pricecomparator.service.scraper.fetch;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Per-shop Resilience4j circuit breaker and bulkheads around everything that talks to a shop.
+ *
+ * <ul>
+ *   <li>{@code shop-<code>} circuit breaker: opens when too many fetches fail (I/O errors,
+ *       5xx, 429, browser errors) or are slow, then fails fast until the open period has
+ *       passed and a few half-open probe calls succeed.</li>
+ *   <li>{@code shop-<code>} bulkhead: caps concurrent HTTP fetches of one shop.</li>
+ *   <li>{@code shop-<code>-browser} bulkhead: caps the pooled browsers one shop may hold,
+ *       so a hanging shop cannot take the whole pool.</li>
+ * </ul>
+ *
+ * Instances use the {@code shop} / {@code shop-browser} configs under
+ * {@code resilience4j.circuitbreaker.configs} and {@code resilience4j.bulkhead.configs}
+ * (defaults if missing); an entry under {@code instances} overrides one shop. State and
+ * calls are exported by the Resilience4j Micrometer binding
+ * ({@code resilience4j_circuitbreaker_state{name="shop-kontakt"}} etc.).
+ */
+@Component
+public class ShopResilience {
+
+    private static final String FETCH_CONFIG = "shop";
+    private static final String BROWSER_CONFIG = "shop-browser";
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+
+    public ShopResilience(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+    }
+
+    /**
+     * Run a fetch under the shop's bulkhead and circuit breaker.
+     *
+     * @param failed classifies a returned result as a failure for the breaker (e.g. HTTP 503);
+     *               the result is still returned to the caller
+     * @throws ShopUnavailableException if the breaker is open or the bulkhead stays full
+     */
+    public <T> T execute(String shopCode, IOCall<T> call, Predicate<T> failed) throws IOException {
+        CircuitBreaker circuitBreaker = circuitBreaker(shopCode);
+        Bulkhead bulkhead = bulkhead(shopCode, "", FETCH_CONFIG);
+        acquire(bulkhead, circuitBreaker);
+
+        long start = circuitBreaker.getCurrentTimestamp();
+        try {
+            T result = call.call();
+            long duration = circuitBreaker.getCurrentTimestamp() - start;
+            if (failed.test(result)) {
+                circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+                        new IOException("Failure response from " + shopCode));
+            } else {
+                circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    /**
+     * Reserve a browser slot for the shop; the breaker outcome is recorded when the permit closes.
+     *
+     * @throws ShopUnavailableException if the breaker is open or the shop already holds its
+     *                                  maximum number of browsers for too long
+     */
+    public BrowserPermit acquireBrowser(String shopCode) throws ShopUnavailableException {
+        CircuitBreaker circuitBreaker = circuitBreaker(shopCode);
+        Bulkhead bulkhead = bulkhead(shopCode, "-browser", BROWSER_CONFIG);
+        acquire(bulkhead, circuitBreaker);
+        return new BrowserPermit(circuitBreaker, bulkhead);
+    }
+
+    public CircuitBreaker.State state(String shopCode) {
+        return circuitBreaker(shopCode).getState();
+    }
+
+    private static void acquire(Bulkhead bulkhead, CircuitBreaker circuitBreaker) throws ShopUnavailableException {
+        try {
+            circuitBreaker.acquirePermission();
+        } catch (CallNotPermittedException e) {
+            throw new ShopUnavailableException(circuitBreaker.getName() + " circuit breaker is "
+                    + circuitBreaker.getState(), e);
+        }
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            // The breaker permission was granted for a call that never happened
+            circuitBreaker.releasePermission();
+            throw new ShopUnavailableException(bulkhead.getName() + " bulkhead is full", e);
+        }
+    }
+
+    private CircuitBreaker circuitBreaker(String shopCode) {
+        String name = instanceName(shopCode, "");
+        return circuitBreakers.find(name).orElseGet(() -> circuitBreakers.circuitBreaker(name,
+                circuitBreakers.getConfiguration(FETCH_CONFIG).orElseGet(circuitBreakers::getDefaultConfig)));
+    }
+
+    private Bulkhead bulkhead(String shopCode, String suffix, String configName) {
+        String name = instanceName(shopCode, suffix);
+        return bulkheads.find(name).orElseGet(() -> bulkheads.bulkhead(name,
+                bulkheads.getConfiguration(configName).orElseGet(bulkheads::getDefaultConfig)));
+    }
+
+    private static String instanceName(String shopCode, String suffix) {
+        return "shop-" + shopCode.toLowerCase(Locale.ROOT).replace('_', '-') + suffix;
+    }
+
+    @FunctionalInterface
+    public interface IOCall<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * A browser slot held for the duration of one lease.
+     */
+    public static final class BrowserPermit {
+
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        private boolean released;
+
+        private BrowserPermit(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+        }
+
+        /**
+         * @param failed the browser ended in an error state (the lease was invalidated)
+         */
+        public void release(boolean failed) {
+            if (released) {
+                return;
+            }
+            released = true;
+            // A lease spans several navigations and scrolls, so its length is not a call
+            // latency; report it as zero to keep browser leases out of the slow-call rate
+            TimeUnit unit = circuitBreaker.getTimestampUnit();
+            if (failed) {
+                circuitBreaker.onError(0, unit, new IOException("Browser session failed"));
+            } else {
+                circuitBreaker.onSuccess(0, unit);
+            }
+            bulkhead.onComplete();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.samir.pricecomparator.service.scraper.fetch;
+
+import java.io.IOException;
+
+/**
+ * Thrown without contacting the shop when its circuit breaker is open or its bulkhead
+ * has no free slot. Retrying right away is pointless; the breaker probes the shop again
+ * once its open period has passed.
+ */
+public class ShopUnavailableException extends IOException {
+
+    public ShopUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,12 +1,14 @@
 package com.samir.pricecomparator.service.scraper.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.samir.pricecomparator.dto.ScrapedProductDto;
 import com.samir.pricecomparator.entity.Shop;
 import com.samir.pricecomparator.service.scraper.AbstractShopScraper;
-import java.util.concurrent.TimeUnit;
+import com.samir.pricecomparator.service.scraper.extract.StreamingJsonExtractor;
+import com.samir.pricecomparator.service.scraper.fetch.HttpFetchClient;
 import lombok.extern.slf4j.Slf4j;
+import org.jsoup.nodes.DataNode;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -15,17 +17,23 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 
 @Slf4j
 public class BakuElectronicsScraper extends AbstractShopScraper {
 
-    private static final String CATEGORY_URL =
-        "https://www.bakuelectronics.az/catalog/telefonlar-qadcetler/smartfonlar-mobil-telefonlar";
+    private static final String SITE_URL = "https://www.bakuelectronics.az";
+    private static final String CATEGORY_PATH = "/catalog/telefonlar-qadcetler/smartfonlar-mobil-telefonlar";
+    private static final String CATEGORY_URL = SITE_URL + CATEGORY_PATH;
     private static final int MAX_PAGES = 30;
     private static final String NEXT_DATA_SCRIPT_SELECTOR = "script#__NEXT_DATA__";
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String ITEMS_PATH = "props.pageProps.products.products.items";
+
+    // Next.js build id for /_next/data routes; null when the HTML page is fetched instead
+    private volatile String buildId;
 
     public BakuElectronicsScraper(Shop shop) {
         super(shop);
@@ -39,62 +47,115 @@ public class BakuElectronicsScraper extends AbstractShopScraper {
     @Override
     public List<ScrapedProductDto> scrape() {
         log.info("Starting scrape for shop: {}", shop.getCode());
-        List<ScrapedProductDto> products = new ArrayList<>();
 
-        if (webDriverManager == null) {
-            log.error("SeleniumWebDriverManager is required but not available");
-            return products;
+        try {
+            if (Boolean.TRUE.equals(shopSettings().getDirectEndpoints()) && httpClient != null) {
+                buildId = resolveBuildId();
+            }
+            return scrapePages(MAX_PAGES);
+        } catch (Exception e) {
+            log.error("Failed to scrape shop: {}", shop.getCode(), e);
+            return new ArrayList<>();
         }
+    }
 
-        try {
-            for (int page = 1; page <= MAX_PAGES; page++) {
-                try {
-                    String pageUrl = buildPageUrl(page);
-                    log.info("Fetching page {} from URL: {}", page, pageUrl);
+    @Override
+    protected boolean requiresBrowser() {
+        return false;
+    }
 
-                    Document doc = fetchDocumentWithSelenium(pageUrl);
+    @Override
+    protected boolean hasUsableMarkup(Document doc) {
+        return selectFirst(doc, NEXT_DATA_SCRIPT_SELECTOR) != null;
+    }
 
-                    List<ScrapedProductDto> pageProducts = extractProductsFromPage(doc);
+    @Override
+    protected Optional<ScrapedProductDto> scrapeProduct(String url) {
+        return Optional.empty();
+    }
 
-                    if (pageProducts.isEmpty()) {
-                        log.info("No products found on page {}. Stopping pagination.", page);
-                        break;
-                    }
+    @Override
+    protected Document fetchListingPage(String url) throws IOException {
+        String currentBuildId = buildId;
+        if (currentBuildId != null) {
+            try {
+                return fetchNextData(currentBuildId, url);
+            } catch (IOException e) {
+                // Usually a new deployment: the old build id's data routes return 404
+                log.warn("Next.js data route failed for {}, using HTML pages for the rest of the run: {}",
+                        url, e.getMessage());
+                buildId = null;
+            }
+        }
+        return fetchDocumentWithSelenium(url);
+    }
 
-                    log.info("Found {} products on page {}", pageProducts.size(), page);
-                    products.addAll(pageProducts);
+    /**
+     * Read the build id from the category page's __NEXT_DATA__ (plain HTTP, browser as fallback).
+     */
+    private String resolveBuildId() {
+        try {
+            Element script = fetchDocumentWithSelenium(CATEGORY_URL).selectFirst(NEXT_DATA_SCRIPT_SELECTOR);
+            String id = script == null ? null
+                    : StreamingJsonExtractor.read(script.html(), "buildId", String.class).orElse(null);
+            if (id != null && !id.isEmpty()) {
+                log.info("Using Next.js data routes for {} (build {})", shop.getCode(), id);
+                return id;
+            }
+            log.warn("No Next.js build id found for {}, fetching HTML pages", shop.getCode());
+        } catch (IOException e) {
+            log.warn("Failed to resolve Next.js build id for {}: {}", shop.getCode(), e.getMessage());
+        }
+        return null;
+    }
 
-                    for (ScrapedProductDto product : pageProducts) {
-                        TimeUnit.MILLISECONDS.sleep(100);
-                    }
+    /**
+     * Fetch the page props JSON that Next.js serves for client-side navigation and wrap it
+     * like an HTML page's __NEXT_DATA__ script, so parsing and fingerprinting stay the same.
+     * The listing page URL keeps identifying the page (fingerprints survive new builds).
+     */
+    private Document fetchNextData(String currentBuildId, String pageUrl) throws IOException {
+        String query = pageUrl.contains("?") ? pageUrl.substring(pageUrl.indexOf('?')) : "";
+        String dataUrl = SITE_URL + "/_next/data/" + currentBuildId + CATEGORY_PATH + ".json" + query;
+
+        awaitRequestPermit(dataUrl);
+        HttpFetchClient.FetchResponse response = httpGet(dataUrl,
+                Map.of("Accept", "application/json", "x-nextjs-data", "1"));
+        if (!response.isSuccessful()) {
+            throw new IOException("HTTP " + response.statusCode() + " for URL: " + dataUrl);
+        }
 
-                    if (page < MAX_PAGES) {
-                        TimeUnit.MILLISECONDS.sleep(POLITE_DELAY_MS);
-                    }
+        Document doc = Document.createShell(pageUrl);
+        doc.body().appendElement("script")
+                .attr("id", "__NEXT_DATA__")
+                .attr("type", "application/json")
+                .appendChild(new DataNode("{\"props\":" + response.body() + "}"));
+        return doc;
+    }
 
-                } catch (IOException e) {
-                    log.error("Failed to fetch page {}: {}", page, e.getMessage());
-                    break;
-                } catch (InterruptedException e) {
-                    log.error("Scraping interrupted: {}", e.getMessage());
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
+    @Override
+    protected String listingFingerprintContent(Document doc) {
+        Element scriptElement = selectFirst(doc, NEXT_DATA_SCRIPT_SELECTOR);
+        if (scriptElement == null) {
+            return null;
+        }
+        try {
+            // Hash only the product list so buildId and other page metadata do not defeat it
+            return StreamingJsonExtractor.readRaw(scriptElement.html(), ITEMS_PATH)
+                    .filter(items -> items.startsWith("[") && !items.equals("[]"))
+                    .orElse(null);
         } catch (Exception e) {
-            log.error("Failed to scrape shop: {}", shop.getCode(), e);
+            return null;
         }
-
-        log.info("Scraped {} products from {}", products.size(), shop.getCode());
-        return products;
     }
 
     @Override
-    protected Optional<ScrapedProductDto> scrapeProduct(String url) {
-        return Optional.empty();
+    protected List<ScrapedProductDto> parseListingPage(Document doc, int page) {
+        return extractProductsFromPage(doc);
     }
 
-    private String buildPageUrl(int page) {
+    @Override
+    protected String buildPageUrl(int page) {
         if (page == 1) {
             return CATEGORY_URL;
         }
@@ -104,7 +165,7 @@ public class BakuElectronicsScraper extends AbstractShopScraper {
     private List<ScrapedProductDto> extractProductsFromPage(Document doc) {
         List<ScrapedProductDto> products = new ArrayList<>();
 
-        Element scriptElement = doc.selectFirst(NEXT_DATA_SCRIPT_SELECTOR);
+        Element scriptElement = selectFirst(doc, NEXT_DATA_SCRIPT_SELECTOR);
 
         if (scriptElement != null) {
             String jsonContent = scriptElement.html();
@@ -131,26 +192,18 @@ public class BakuElectronicsScraper extends AbstractShopScraper {
         List<ScrapedProductDto> products = new ArrayList<>();
 
         try {
-            JsonNode root = objectMapper.readTree(jsonContent);
-
-            // Navigate: props → pageProps → products → products → items
-            JsonNode dataNode = root.path("props")
-                                    .path("pageProps")
-                                    .path("products")
-                                    .path("products")
-                                    .path("items");
-
-            if (dataNode.isArray()) {
-                for (JsonNode productNode : dataNode) {
-                    try {
-                        Optional<ScrapedProductDto> product = mapJsonToDto(productNode);
-                        product.ifPresent(products::add);
-                    } catch (Exception e) {
-                        log.error("Failed to map product JSON to DTO: {}", e.getMessage());
-                    }
+            List<NextDataProduct> items = StreamingJsonExtractor.readArray(jsonContent, ITEMS_PATH, NextDataProduct.class);
+            if (items.isEmpty()) {
+                log.warn("No product array at {}", ITEMS_PATH);
+            }
+
+            for (NextDataProduct item : items) {
+                try {
+                    Optional<ScrapedProductDto> product = mapJsonToDto(item);
+                    product.ifPresent(products::add);
+                } catch (Exception e) {
+                    log.error("Failed to map product JSON to DTO: {}", e.getMessage());
                 }
-            } else {
-                log.warn("Expected array at props.pageProps.products.products.items, got: {}", dataNode.getNodeType());
             }
 
         } catch (Exception e) {
@@ -160,15 +213,29 @@ public class BakuElectronicsScraper extends AbstractShopScraper {
 
         return products;
     }
-    private Optional<ScrapedProductDto> mapJsonToDto(JsonNode node) {
+
+    /**
+     * One element of props.pageProps.products.products.items, bound straight from the parser
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record NextDataProduct(String name,
+                                   String slug,
+                                   @JsonProperty("discounted_price") double discountedPrice,
+                                   double price,
+                                   String discount,
+                                   int quantity,
+                                   String image) {
+    }
+
+    private Optional<ScrapedProductDto> mapJsonToDto(NextDataProduct node) {
         try {
-            String name = node.path("name").asText();
-            String slug = node.path("slug").asText();
-            double discountedPrice = node.path("discounted_price").asDouble();
-            double originalPrice = node.path("price").asDouble();
-            String discount = node.path("discount").asText();
-            int quantity = node.path("quantity").asInt();
-            String image = node.path("image").asText();
+            String name = node.name();
+            String slug = Objects.toString(node.slug(), "");
+            double discountedPrice = node.discountedPrice();
+            double originalPrice = node.price();
+            String discount = Objects.toString(node.discount(), "");
+            int quantity = node.quantity();
+            String image = Objects.toString(node.image(), "");
 
             if (name == null || name.isEmpty()) {
                 log.warn("No title found in JSON product node");
@@ -221,7 +288,7 @@ public class BakuElectronicsScraper extends AbstractShopScraper {
     private List<ScrapedProductDto> extractProductsFromHtml(Document doc) {
         List<ScrapedProductDto> products = new ArrayList<>();
 
-        Elements productLinks = doc.select("a[href^=/mehsul/]");
+        Elements productLinks = select(doc, "a[href^=/mehsul/]");
 
         for (Element link : productLinks) {
             try {
@@ -241,7 +308,7 @@ public class BakuElectronicsScraper extends AbstractShopScraper {
             String url = normalizeUrl(href);
 
             String title = null;
-            Element titleElement = element.selectFirst("h4");
+            Element titleElement = selectFirst(element, "h4");
             if (titleElement != null) {
                 title = titleElement.text().trim();
             }
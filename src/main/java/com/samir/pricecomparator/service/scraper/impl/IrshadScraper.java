@@ -1,24 +1,36 @@
 package com.samir.pricecomparator.service.scraper.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.samir.pricecomparator.dto.ScrapedProductDto;
 import com.samir.pricecomparator.entity.Shop;
 import com.samir.pricecomparator.service.scraper.AbstractShopScraper;
-import java.util.concurrent.TimeUnit;
+import com.samir.pricecomparator.service.scraper.extract.StreamingHtmlExtractor;
+import com.samir.pricecomparator.service.scraper.fetch.HttpFetchClient;
+import com.samir.pricecomparator.service.scraper.fetch.ShopUnavailableException;
+import com.samir.pricecomparator.util.SeleniumWebDriverManager;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.JavascriptExecutor;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class IrshadScraper extends AbstractShopScraper {
@@ -29,6 +41,17 @@ public class IrshadScraper extends AbstractShopScraper {
     private static final String PRODUCT_ITEM_SELECTOR = ".product";
     private static final String LOAD_MORE_BUTTON_SELECTOR = "#loadMore";
 
+    /** Fetch archive keys of the discovered endpoint and of the page after all "Load More" clicks */
+    private static final String ENDPOINT_ARCHIVE_KEY = "irshad:load-more-endpoint";
+    private static final String FULLY_LOADED_KEY = CATEGORY_URL + "#all-loaded";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Direct endpoint mode state, set once per run by discoverLoadMoreEndpoint()
+    private LoadMoreEndpoint loadMoreEndpoint;
+    private String sessionCookie;
+    private volatile Document verifiedSecondPage;
+
     public IrshadScraper(Shop shop) {
         super(shop);
     }
@@ -41,19 +64,203 @@ public class IrshadScraper extends AbstractShopScraper {
     @Override
     public List<ScrapedProductDto> scrape() {
         log.info("Starting scrape for shop: {}", shop.getCode());
-        List<ScrapedProductDto> products = new ArrayList<>();
 
-        if (webDriverManager == null) {
+        if (webDriverManager == null && !isReplaying()) {
             log.error("SeleniumWebDriverManager is required but not available");
+            return new ArrayList<>();
+        }
+
+        if (Boolean.TRUE.equals(shopSettings().getDirectEndpoints())) {
+            Optional<LoadMoreEndpoint> endpoint = discoverLoadMoreEndpoint();
+            if (endpoint.isPresent()) {
+                loadMoreEndpoint = endpoint.get();
+                log.info("Fetching {} pages directly from {}", shop.getCode(), loadMoreEndpoint.url());
+                return scrapePages(MAX_LOAD_MORE_CLICKS + 1);
+            }
+            log.warn("Load More endpoint not found for {}, falling back to clicking in the browser", shop.getCode());
+        }
+        if (isRefreshRun()) {
+            // The browser fallback always loads the whole list; leave that to the full run
+            log.info("Skipping page refresh for {}: no direct endpoint", shop.getCode());
+            return new ArrayList<>();
+        }
+        return scrapeWithBrowser();
+    }
+
+    /**
+     * Click "Load More" in the browser and capture the XHRs it sends. The captured request
+     * becomes a page URL template, so every page can be fetched over plain HTTP in parallel
+     * and parsed as a small fragment. The endpoint is verified with one HTTP request for
+     * page 2, whose document is then reused by the scrape.
+     */
+    private Optional<LoadMoreEndpoint> discoverLoadMoreEndpoint() {
+        if (isReplaying()) {
+            try {
+                return fetchArchive.replayValue(shop.getCode(), ENDPOINT_ARCHIVE_KEY).flatMap(LoadMoreEndpoint::parse);
+            } catch (IOException e) {
+                log.warn("No recorded Load More endpoint for {}: {}", shop.getCode(), e.getMessage());
+                return Optional.empty();
+            }
+        }
+        try (SeleniumWebDriverManager.DriverLease lease = leaseBrowser()) {
+            WebDriver driver = lease.driver();
+            awaitRequestPermit(CATEGORY_URL);
+            driver.get(CATEGORY_URL);
+            int firstPageCount = awaitPageReady(lease, PRODUCT_ITEM_SELECTOR).productCount();
+            if (firstPageCount == 0) {
+                return Optional.empty();
+            }
+
+            lease.drainXhrRequests();
+            Optional<List<String>> secondPageRequests = clickLoadMore(lease);
+            if (secondPageRequests.isEmpty()) {
+                return Optional.empty();
+            }
+            // A second click, when there is a third page, tells the page parameter apart from
+            // other numeric parameters by the one value that changed between the two requests
+            List<String> thirdPageRequests = clickLoadMore(lease).orElse(List.of());
+
+            Optional<LoadMoreEndpoint> endpoint = LoadMoreEndpoint.from(secondPageRequests.get(), thirdPageRequests);
+            if (endpoint.isEmpty()) {
+                return Optional.empty();
+            }
+
+            // The endpoint may rely on the session cookies the page was given
+            sessionCookie = driver.manage().getCookies().stream()
+                    .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                    .collect(Collectors.joining("; "));
+
+            Document secondPage = fetchDocument(endpoint.get().pageUrl(2));
+            if (select(secondPage, PRODUCT_ITEM_SELECTOR).isEmpty()) {
+                log.warn("Load More endpoint returned no products over HTTP: {}", endpoint.get().url());
+                return Optional.empty();
+            }
+            verifiedSecondPage = secondPage;
+            if (isRecording()) {
+                fetchArchive.recordValue(shop.getCode(), ENDPOINT_ARCHIVE_KEY, endpoint.get().format());
+            }
+            return endpoint;
+        } catch (Exception e) {
+            log.warn("Failed to discover Load More endpoint for {}: {}", shop.getCode(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Click the visible "Load More" button once and wait for the appended products.
+     *
+     * @return URLs of the GET XHRs the click sent; empty if there was no button to click
+     */
+    private Optional<List<String>> clickLoadMore(SeleniumWebDriverManager.DriverLease lease)
+            throws IOException, InterruptedException {
+        WebDriver driver = lease.driver();
+        List<WebElement> loadMoreButtons = driver.findElements(By.cssSelector(LOAD_MORE_BUTTON_SELECTOR));
+        if (loadMoreButtons.isEmpty() || !loadMoreButtons.get(0).isDisplayed()) {
+            return Optional.empty();
+        }
+        awaitRequestPermit(CATEGORY_URL);
+        ((JavascriptExecutor) driver).executeScript("arguments[0].click();", loadMoreButtons.get(0));
+        awaitPageReady(lease, PRODUCT_ITEM_SELECTOR);
+        return Optional.of(lease.drainXhrRequests().stream()
+                .filter(request -> "GET".equals(request.method()))
+                .map(SeleniumWebDriverManager.CapturedRequest::url)
+                .toList());
+    }
+
+    @Override
+    protected String buildPageUrl(int page) {
+        return loadMoreEndpoint.pageUrl(page);
+    }
+
+    /**
+     * Page 2 was already fetched over HTTP to verify the endpoint; hand that document out once.
+     */
+    @Override
+    protected Document fetchListingPage(String url) throws IOException {
+        Document prefetched = verifiedSecondPage;
+        if (prefetched != null && url.equals(loadMoreEndpoint.pageUrl(2))) {
+            verifiedSecondPage = null;
+            return prefetched;
+        }
+        return super.fetchListingPage(url);
+    }
+
+    @Override
+    protected List<ScrapedProductDto> parseListingPage(Document doc, int page) {
+        List<ScrapedProductDto> products = new ArrayList<>();
+        for (Element item : select(doc, PRODUCT_ITEM_SELECTOR)) {
+            scrapeProductFromListingItem(item).ifPresent(products::add);
+        }
+        return products;
+    }
+
+    @Override
+    protected String listingFingerprintContent(Document doc) {
+        return select(doc, PRODUCT_ITEM_SELECTOR).outerHtml();
+    }
+
+    @Override
+    protected Map<String, String> requestHeaders(String url) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-Requested-With", "XMLHttpRequest");
+        headers.put("Referer", CATEGORY_URL);
+        headers.put("Accept", "text/html, application/json, */*;q=0.8");
+        if (sessionCookie != null && !sessionCookie.isEmpty()) {
+            headers.put("Cookie", sessionCookie);
+        }
+        return headers;
+    }
+
+    /**
+     * The endpoint answers either with an HTML fragment or with JSON wrapping one
+     * (e.g. {@code {"html": "..."}}); in the latter case all HTML strings are joined.
+     */
+    @Override
+    protected Document parseResponse(HttpFetchClient.FetchResponse response) throws IOException {
+        String body = response.body().trim();
+        String baseUri = response.uri().toString();
+        if (!body.startsWith("{") && !body.startsWith("[")) {
+            return Jsoup.parseBodyFragment(body, baseUri);
+        }
+
+        StringBuilder html = new StringBuilder();
+        collectHtml(objectMapper.readTree(body), html);
+        return Jsoup.parseBodyFragment(html.toString(), baseUri);
+    }
+
+    private static void collectHtml(JsonNode node, StringBuilder html) {
+        if (node.isTextual()) {
+            if (node.asText().contains("<")) {
+                html.append(node.asText());
+            }
+            return;
+        }
+        node.forEach(child -> collectHtml(child, html));
+    }
+
+    /**
+     * Legacy mode: click "Load More" until all products are appended, then parse the whole DOM.
+     */
+    private List<ScrapedProductDto> scrapeWithBrowser() {
+        List<ScrapedProductDto> products = new ArrayList<>();
+
+        if (isReplaying()) {
+            try {
+                String pageSource = fetchArchive.replayBrowserPage(shop.getCode(), FULLY_LOADED_KEY);
+                products.addAll(StreamingHtmlExtractor.extract(pageSource, CATEGORY_URL,
+                        PRODUCT_ITEM_SELECTOR, this::scrapeProductFromListingItem));
+            } catch (IOException e) {
+                log.error("Failed to replay shop: {}", shop.getCode(), e);
+            }
             return products;
         }
 
-        WebDriver driver = null;
-        try {
-            driver = webDriverManager.getDriver();
+        try (SeleniumWebDriverManager.DriverLease lease = leaseBrowser()) {
+            WebDriver driver = lease.driver();
+            awaitRequestPermit(CATEGORY_URL);
             driver.get(CATEGORY_URL);
 
-            TimeUnit.SECONDS.sleep(4);
+            int productCount = awaitPageReady(lease, PRODUCT_ITEM_SELECTOR).productCount();
 
             int clickCount = 0;
             while (clickCount < MAX_LOAD_MORE_CLICKS) {
@@ -69,13 +276,14 @@ public class IrshadScraper extends AbstractShopScraper {
 
                     WebElement loadMoreBtn = loadMoreButtons.get(0);
 
+                    // Instant scroll: the button is clickable right away, no animation to wait for
                     ((JavascriptExecutor) driver).executeScript(
-                        "arguments[0].scrollIntoView({behavior: 'smooth', block: 'center'});",
+                        "arguments[0].scrollIntoView({block: 'center'});",
                         loadMoreBtn
                     );
 
-                    TimeUnit.SECONDS.sleep(1);
-
+                    // Klik backend-ə sorğu göndərir - rate limit-ə tabe olsun
+                    awaitRequestPermit(CATEGORY_URL);
                     try {
                         loadMoreBtn.click();
                     } catch (Exception e) {
@@ -85,7 +293,13 @@ public class IrshadScraper extends AbstractShopScraper {
                     clickCount++;
                     log.info("Clicked 'Load More' button {} times", clickCount);
 
-                    TimeUnit.SECONDS.sleep(3);
+                    // Wait for the appended products to arrive and settle
+                    int loaded = awaitPageReady(lease, PRODUCT_ITEM_SELECTOR).productCount();
+                    if (loaded <= productCount) {
+                        log.info("'Load More' added no products ({} total). All products loaded.", loaded);
+                        break;
+                    }
+                    productCount = loaded;
 
                 } catch (Exception e) {
                     log.warn("Could not click 'Load More' button: {}", e.getMessage());
@@ -93,34 +307,143 @@ public class IrshadScraper extends AbstractShopScraper {
                 }
             }
 
+            // After all clicks the page is huge; keep only one product card at a time while parsing it
             String pageSource = driver.getPageSource();
-            Document doc = Jsoup.parse(pageSource, CATEGORY_URL);
+            recordBrowserPage(FULLY_LOADED_KEY, pageSource);
+            products.addAll(StreamingHtmlExtractor.extract(pageSource, CATEGORY_URL,
+                    PRODUCT_ITEM_SELECTOR, this::scrapeProductFromListingItem));
+            log.info("Found {} total products after loading", products.size());
 
-            Elements productItems = doc.select(PRODUCT_ITEM_SELECTOR);
-            log.info("Found {} total products after loading", productItems.size());
+        } catch (ShopUnavailableException e) {
+            log.warn("Skipping browser scrape of {}: {}", shop.getCode(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to scrape shop: {}", shop.getCode(), e);
+        }
 
-            for (Element item : productItems) {
-                try {
-                    Optional<ScrapedProductDto> product = scrapeProductFromListingItem(item);
-                    product.ifPresent(products::add);
+        log.info("Scraped {} products from {}", products.size(), shop.getCode());
+        return products;
+    }
 
-                    TimeUnit.MILLISECONDS.sleep(100);
-                } catch (Exception e) {
-                    log.error("Failed to scrape product item", e);
+    /**
+     * Paginated backend URL behind "Load More". The value of {@code param} for page N is
+     * {@code first + (N - 1) * step}: a page number (first 1, step 1) or an item offset
+     * (first 0, step = page size).
+     */
+    private record LoadMoreEndpoint(String url, String param, int first, int step) {
+
+        private static final Set<String> PAGE_PARAMS = Set.of("page", "p", "pg", "pagenumber", "page_number");
+        private static final Set<String> OFFSET_PARAMS = Set.of("offset", "start", "skip", "from");
+
+        /**
+         * @param secondPageUrls requests sent by the first "Load More" click
+         * @param thirdPageUrls  requests sent by the second click; empty if there was none
+         */
+        static Optional<LoadMoreEndpoint> from(List<String> secondPageUrls, List<String> thirdPageUrls) {
+            for (String url : secondPageUrls) {
+                Optional<LoadMoreEndpoint> endpoint = thirdPageUrls.stream()
+                        .map(next -> fromConsecutive(url, next))
+                        .flatMap(Optional::stream)
+                        .findFirst()
+                        .or(() -> fromKnownName(url));
+                if (endpoint.isPresent()) {
+                    return endpoint;
                 }
             }
+            return Optional.empty();
+        }
 
-        } catch (Exception e) {
-            log.error("Failed to scrape shop: {}", shop.getCode(), e);
+        /**
+         * Two requests for consecutive pages of the same endpoint differ in exactly one
+         * numeric parameter, and its difference is the step.
+         */
+        private static Optional<LoadMoreEndpoint> fromConsecutive(String url, String nextUrl) {
+            UriComponents current = UriComponentsBuilder.fromUriString(url).build();
+            UriComponents next = UriComponentsBuilder.fromUriString(nextUrl).build();
+            if (!Objects.equals(current.getHost(), next.getHost()) || !Objects.equals(current.getPath(), next.getPath())
+                    || !current.getQueryParams().keySet().equals(next.getQueryParams().keySet())) {
+                return Optional.empty();
+            }
+            String changed = null;
+            for (String param : current.getQueryParams().keySet()) {
+                if (!Objects.equals(current.getQueryParams().get(param), next.getQueryParams().get(param))) {
+                    if (changed != null) {
+                        return Optional.empty();
+                    }
+                    changed = param;
+                }
+            }
+            if (changed == null) {
+                return Optional.empty();
+            }
+            Integer value = intParam(current, changed);
+            Integer nextValue = intParam(next, changed);
+            if (value == null || nextValue == null || nextValue <= value || value - (nextValue - value) < 0) {
+                return Optional.empty();
+            }
+            int step = nextValue - value;
+            return Optional.of(new LoadMoreEndpoint(url, changed, value - step, step));
         }
 
-        log.info("Scraped {} products from {}", products.size(), shop.getCode());
-        return products;
+        /**
+         * Only one page was loaded: accept a commonly named page or offset parameter.
+         */
+        private static Optional<LoadMoreEndpoint> fromKnownName(String url) {
+            UriComponents components = UriComponentsBuilder.fromUriString(url).build();
+            for (String param : components.getQueryParams().keySet()) {
+                String name = param.toLowerCase(Locale.ROOT);
+                Integer value = intParam(components, param);
+                if (value == null) {
+                    continue;
+                }
+                if (PAGE_PARAMS.contains(name) && value == 2) {
+                    return Optional.of(new LoadMoreEndpoint(url, param, 1, 1));
+                }
+                if (OFFSET_PARAMS.contains(name) && value > 0) {
+                    return Optional.of(new LoadMoreEndpoint(url, param, 0, value));
+                }
+            }
+            return Optional.empty();
+        }
+
+        private static Integer intParam(UriComponents components, String param) {
+            String value = components.getQueryParams().getFirst(param);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Compact form for the fetch archive, read back by {@link #parse(String)}.
+         */
+        String format() {
+            return first + " " + step + " " + param + " " + url;
+        }
+
+        static Optional<LoadMoreEndpoint> parse(String value) {
+            String[] parts = value.split(" ", 4);
+            if (parts.length != 4) {
+                return Optional.empty();
+            }
+            return Optional.of(new LoadMoreEndpoint(parts[3], parts[2], Integer.parseInt(parts[0]),
+                    Integer.parseInt(parts[1])));
+        }
+
+        String pageUrl(int page) {
+            return UriComponentsBuilder.fromUriString(url)
+                    .replaceQueryParam(param, first + (page - 1) * step)
+                    .build(true)
+                    .toUriString();
+        }
     }
 
     private Optional<ScrapedProductDto> scrapeProductFromListingItem(Element item) {
         try {
-            Element linkElement = item.selectFirst("a[href*='/az/mehsullar/']");
+            Element linkElement = selectFirst(item, "a[href*='/az/mehsullar/']");
             if (linkElement == null) {
                 log.warn("No product link found in product container");
                 return Optional.empty();
@@ -131,7 +454,7 @@ public class IrshadScraper extends AbstractShopScraper {
 
             String title = linkElement.text().trim();
             if (title == null || title.isEmpty()) {
-                Element titleEl = item.selectFirst(".product__title, .product-title, h3, h4");
+                Element titleEl = selectFirst(item, ".product__title, .product-title, h3, h4");
                 if (titleEl != null) {
                     title = titleEl.text().trim();
                 }
@@ -140,7 +463,7 @@ public class IrshadScraper extends AbstractShopScraper {
             BigDecimal price = null;
             BigDecimal oldPrice = null;
 
-            Element priceContainer = item.selectFirst(".product__price__current");
+            Element priceContainer = selectFirst(item, ".product__price__current");
             if (priceContainer != null) {
                 String priceText = priceContainer.text();
 
@@ -155,7 +478,7 @@ public class IrshadScraper extends AbstractShopScraper {
             }
 
             if (price == null) {
-                Element priceEl = item.selectFirst(".price, [class*='price']");
+                Element priceEl = selectFirst(item, ".price, [class*='price']");
                 if (priceEl != null) {
                     price = parsePrice(priceEl.text());
                 }
@@ -197,6 +520,11 @@ public class IrshadScraper extends AbstractShopScraper {
         }
     }
 
+    @Override
+    protected boolean requiresBrowser() {
+        return true;
+    }
+
     @Override
     protected Optional<ScrapedProductDto> scrapeProduct(String url) {
         // NOT USED - we scrape from category page instead
@@ -1,11 +1,11 @@
 package com.samir.pricecomparator.service.scraper.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.samir.pricecomparator.dto.ScrapedProductDto;
 import com.samir.pricecomparator.entity.Shop;
 import com.samir.pricecomparator.service.scraper.AbstractShopScraper;
-import java.util.concurrent.TimeUnit;
+import com.samir.pricecomparator.service.scraper.extract.StreamingJsonExtractor;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -23,7 +23,7 @@ public class KontaktScraper extends AbstractShopScraper {
 
     private static final String CATEGORY_URL = "https://kontakt.az/telefoniya/smartfonlar";
     private static final int MAX_PAGES = 15;
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String PRODUCT_ITEM_SELECTOR = ".prodItem.product-item[data-gtm]";
 
     public KontaktScraper(Shop shop) {
         super(shop);
@@ -37,83 +37,77 @@ public class KontaktScraper extends AbstractShopScraper {
     @Override
     public List<ScrapedProductDto> scrape() {
         log.info("Starting scrape for shop: {}", shop.getCode());
-        List<ScrapedProductDto> products = new ArrayList<>();
 
         try {
-            for (int page = 1; page <= MAX_PAGES; page++) {
-                try {
-                    String pageUrl = buildPageUrl(page);
-
-                    if (webDriverManager != null) {
-                        webDriverManager.closeDriver();
-                        log.debug("Closed WebDriver before fetching page {}", page);
-                    }
-
-                    Document doc = fetchDocumentWithSeleniumWait(
-                        pageUrl,
-                        ".prodItem.product-item[data-gtm]",
-                        15
-                    );
-
-                    Elements productItems = doc.select(".prodItem.product-item[data-gtm]");
-
-                    if (productItems.isEmpty()) {
-                        log.warn("No products found on page {} at URL: {}", page, pageUrl);
-                        log.debug("Page HTML preview (first 1000 chars): {}",
-                            doc.html().substring(0, Math.min(1000, doc.html().length())));
-
-                        Elements paginationLinks = doc.select("a.next-page, a[href*='?p='], .pagination a, a[rel='next']");
-                        log.debug("Pagination links found: {}", paginationLinks.size());
-                        paginationLinks.forEach(link ->
-                            log.debug("Pagination link: text='{}' href='{}'", link.text(), link.attr("href"))
-                        );
-
-                        log.debug("Product containers (.contentos): {}", doc.select(".contentos").size());
-                        log.debug("Product items (.prodItem): {}", doc.select(".prodItem").size());
-                        log.debug("All product-item elements: {}", doc.select(".product-item").size());
-
-                        log.info("Stopping pagination - no products found");
-                        break;
-                    }
-
-                    log.info("Found {} products on page {} (URL: {})", productItems.size(), page, pageUrl);
+            return scrapePages(MAX_PAGES);
+        } catch (Exception e) {
+            log.error("Failed to scrape shop: {}", shop.getCode(), e);
+            return new ArrayList<>();
+        }
+    }
 
-                    if (page == 1) {
-                        Elements paginationLinks = doc.select("a.next-page, a[href*='?p='], .pagination a, a[rel='next']");
-                        log.debug("Page 1 pagination links found: {}", paginationLinks.size());
-                        paginationLinks.forEach(link ->
-                            log.debug("Page 1 pagination link: text='{}' href='{}'", link.text(), link.attr("href"))
-                        );
-                    }
+    @Override
+    protected Document fetchListingPage(String url) throws IOException {
+        return fetchDocumentWithSeleniumWait(url, PRODUCT_ITEM_SELECTOR);
+    }
 
-                    for (Element item : productItems) {
-                        try {
-                            Optional<ScrapedProductDto> product = scrapeProductFromListingItem(item);
-                            product.ifPresent(products::add);
+    @Override
+    protected String listingFingerprintContent(Document doc) {
+        Elements productItems = select(doc, PRODUCT_ITEM_SELECTOR);
+        return productItems.isEmpty() ? null : productItems.outerHtml();
+    }
 
-                            TimeUnit.MILLISECONDS.sleep(100);
-                        } catch (Exception e) {
-                            log.error("Failed to scrape product item", e);
-                        }
-                    }
+    @Override
+    protected List<ScrapedProductDto> parseListingPage(Document doc, int page) {
+        Elements productItems = select(doc, PRODUCT_ITEM_SELECTOR);
+
+        if (productItems.isEmpty()) {
+            log.warn("No products found on page {} at URL: {}", page, doc.location());
+            log.debug("Page HTML preview (first 1000 chars): {}",
+                doc.html().substring(0, Math.min(1000, doc.html().length())));
+
+            Elements paginationLinks = doc.select("a.next-page, a[href*='?p='], .pagination a, a[rel='next']");
+            log.debug("Pagination links found: {}", paginationLinks.size());
+            paginationLinks.forEach(link ->
+                log.debug("Pagination link: text='{}' href='{}'", link.text(), link.attr("href"))
+            );
+
+            log.debug("Product containers (.contentos): {}", doc.select(".contentos").size());
+            log.debug("Product items (.prodItem): {}", doc.select(".prodItem").size());
+            log.debug("All product-item elements: {}", doc.select(".product-item").size());
+            return List.of();
+        }
 
-                    int randomDelay = 1000 + new java.util.Random().nextInt(2000);
-                    TimeUnit.MILLISECONDS.sleep(randomDelay);
-                    log.debug("Waiting {} ms before next page", randomDelay);
+        if (page == 1) {
+            Elements paginationLinks = doc.select("a.next-page, a[href*='?p='], .pagination a, a[rel='next']");
+            log.debug("Page 1 pagination links found: {}", paginationLinks.size());
+            paginationLinks.forEach(link ->
+                log.debug("Page 1 pagination link: text='{}' href='{}'", link.text(), link.attr("href"))
+            );
+        }
 
-                } catch (IOException e) {
-                    log.error("Failed to fetch page {}: {}", page, e.getMessage());
-                    break;
-                }
+        List<ScrapedProductDto> products = new ArrayList<>();
+        for (Element item : productItems) {
+            try {
+                Optional<ScrapedProductDto> product = scrapeProductFromListingItem(item);
+                product.ifPresent(products::add);
+            } catch (Exception e) {
+                log.error("Failed to scrape product item", e);
             }
-        } catch (Exception e) {
-            log.error("Failed to scrape shop: {}", shop.getCode(), e);
         }
-
-        log.info("Scraped {} products from {}", products.size(), shop.getCode());
         return products;
     }
 
+    /**
+     * The product's Google Tag Manager payload ({@code data-gtm} attribute)
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record GtmItem(@JsonProperty("item_name") String itemName,
+                           double price,
+                           double discount,
+                           @JsonProperty("item_brand") String itemBrand) {
+    }
+
     private Optional<ScrapedProductDto> scrapeProductFromListingItem(Element item) {
         try {
             String title = null;
@@ -124,21 +118,22 @@ public class KontaktScraper extends AbstractShopScraper {
             String dataGtm = item.attr("data-gtm");
             if (dataGtm != null && !dataGtm.isEmpty()) {
                 try {
-                    JsonNode gtmData = objectMapper.readTree(dataGtm);
+                    GtmItem gtmData = StreamingJsonExtractor.read(dataGtm, "", GtmItem.class)
+                            .orElseThrow(() -> new IllegalArgumentException("data-gtm is null"));
 
-                    title = gtmData.path("item_name").asText();
+                    title = gtmData.itemName();
 
-                    double priceValue = gtmData.path("price").asDouble();
+                    double priceValue = gtmData.price();
                     if (priceValue > 0) {
                         price = BigDecimal.valueOf(priceValue);
                     }
 
-                    double discount = gtmData.path("discount").asDouble();
+                    double discount = gtmData.discount();
                     if (discount > 0) {
                         oldPrice = price.add(BigDecimal.valueOf(discount));
                     }
 
-                    brand = gtmData.path("item_brand").asText();
+                    brand = gtmData.itemBrand();
 
                     log.debug("Extracted from data-gtm: {}", title);
                 } catch (Exception e) {
@@ -188,7 +183,7 @@ public class KontaktScraper extends AbstractShopScraper {
             };
 
             for (String selector : urlSelectors) {
-                Element link = item.selectFirst(selector);
+                Element link = selectFirst(item, selector);
                 if (link != null) {
                     String href = link.attr("href");
                     log.debug("Trying selector '{}': found href='{}'", selector, href);
@@ -233,12 +228,18 @@ public class KontaktScraper extends AbstractShopScraper {
         }
     }
 
+    @Override
+    protected boolean requiresBrowser() {
+        return true;
+    }
+
     @Override
     protected Optional<ScrapedProductDto> scrapeProduct(String url) {
         return Optional.empty();
     }
 
-    private String buildPageUrl(int page) {
+    @Override
+    protected String buildPageUrl(int page) {
         if (page == 1) {
             return CATEGORY_URL;
         }
@@ -0,0 +1,37 @@
+package com.samir.pricecomparator.service.scraper.pipeline;
+
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Tracks the contiguous run of completed pages starting at the scraper's first page.
+ * Pages may finish out of order when a stage has several workers; the checkpoint only
+ * advances past a page once every page before it has completed too, so a failed batch
+ * holds it back for good and a resume run re-fetches from there.
+ */
+final class CheckpointTracker {
+
+    private final TreeSet<Integer> completed = new TreeSet<>();
+    private final IntConsumer onCheckpoint;
+    private int next;
+
+    /**
+     * @param firstPage    first page of this run (after the resume point, if any)
+     * @param onCheckpoint called with the new highest contiguous completed page
+     */
+    CheckpointTracker(int firstPage, IntConsumer onCheckpoint) {
+        this.next = firstPage;
+        this.onCheckpoint = onCheckpoint;
+    }
+
+    synchronized void completed(int page) {
+        completed.add(page);
+        int before = next;
+        while (completed.remove(next)) {
+            next++;
+        }
+        if (next != before) {
+            onCheckpoint.accept(next - 1);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.samir.pricecomparator.service.scraper.pipeline;
+
+import com.samir.pricecomparator.config.ScrapingProperties;
+import com.samir.pricecomparator.dto.NormalizedProduct;
+import com.samir.pricecomparator.dto.ScrapedProductDto;
+import com.samir.pricecomparator.entity.ProductOffer;
+import com.samir.pricecomparator.repository.ProductOfferRepository;
+import com.samir.pricecomparator.service.normalization.ProductNormalizationService;
+import com.samir.pricecomparator.service.persistence.OfferPersistenceService;
+import com.samir.pricecomparator.service.scraper.AbstractShopScraper;
+import com.samir.pricecomparator.service.scraper.ScrapeRunStats;
+import com.samir.pricecomparator.service.search.ElasticsearchIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Staged scrape pipeline for a single shop:
+ * fetch/parse (scraper) → normalize → persist → index.
+ *
+ * Stages are connected by bounded queues of page-sized batches. A full queue blocks the
+ * stage feeding it, so a slow database throttles page fetching instead of letting
+ * products pile up in memory. Each stage runs its own worker count
+ * ({@code scraping.pipeline.*}); products reach the database and search index while
+ * later pages are still downloading.
+ *
+ * Each stage adds its time to the scraper's {@link ScrapeRunStats} (normalize, match,
+ * persist, index), next to the fetch/browser/parse times the scraper records itself.
+ *
+ * Batches carry their listing page number. Once a page and every page before it have
+ * been persisted, the checkpoint callback receives that page so an interrupted run can
+ * resume after it.
+ *
+ * Index failures do not lose data (the offers are already persisted), so they are kept
+ * apart from {@link PipelineResult#getFailedBatches()}: the offers of a failed index batch
+ * are indexed again once the other stages have finished.
+ *
+ * A run can be cancelled from outside (e.g. when a distributed worker loses its lease on the
+ * shop): no further pages are accepted, queued batches are dropped instead of persisted and
+ * {@link #run(AbstractShopScraper, IntConsumer, BooleanSupplier)} throws
+ * {@link CancellationException}.
+ */
+@Slf4j
+@Component
+public class ScrapePipeline {
+
+    private final ProductNormalizationService normalizationService;
+    private final OfferPersistenceService persistenceService;
+    private final ProductOfferRepository productOfferRepository;
+    private final ScrapingProperties scrapingProperties;
+    private final ElasticsearchIndexService elasticsearchIndexService;
+
+    public ScrapePipeline(ProductNormalizationService normalizationService,
+                          OfferPersistenceService persistenceService,
+                          ProductOfferRepository productOfferRepository,
+                          ScrapingProperties scrapingProperties,
+                          @Autowired(required = false) ElasticsearchIndexService elasticsearchIndexService) {
+        this.normalizationService = normalizationService;
+        this.persistenceService = persistenceService;
+        this.productOfferRepository = productOfferRepository;
+        this.scrapingProperties = scrapingProperties;
+        this.elasticsearchIndexService = elasticsearchIndexService;
+    }
+
+    public PipelineResult run(AbstractShopScraper scraper) throws InterruptedException {
+        return run(scraper, page -> { });
+    }
+
+    public PipelineResult run(AbstractShopScraper scraper, IntConsumer onCheckpoint) throws InterruptedException {
+        return run(scraper, onCheckpoint, () -> false);
+    }
+
+    /**
+     * @param onCheckpoint called with the highest page whose products, and those of all
+     *                     earlier pages, are persisted; never called for non-paginated scrapers
+     * @param cancelled    checked before each page is accepted and each batch is persisted
+     * @throws CancellationException if the run was cancelled; some batches may be persisted
+     */
+    public PipelineResult run(AbstractShopScraper scraper, IntConsumer onCheckpoint, BooleanSupplier cancelled)
+            throws InterruptedException {
+        ScrapingProperties.Pipeline settings = scrapingProperties.getPipeline();
+        PipelineResult result = new PipelineResult();
+        CheckpointTracker checkpoints = new CheckpointTracker(scraper.getStartPage(), onCheckpoint);
+        ScrapeRunStats runStats = scraper.getRunStats();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Stage<List<Long>> index = elasticsearchIndexService == null ? null
+                    : new Stage<>("index", settings.getIndexWorkers(), settings.getQueueCapacity(),
+                            offerIds -> {
+                                try {
+                                    indexOffers(offerIds, result, runStats);
+                                } catch (Exception e) {
+                                    log.warn("Indexing {} offers of {} failed, will retry after the run: {}",
+                                            offerIds.size(), scraper.getShopCode(), e.getMessage());
+                                    result.unindexedOfferIds.addAll(offerIds);
+                                }
+                            }, null, result);
+
+            Stage<PageBatch<NormalizedProduct>> persist = new Stage<>("persist", settings.getPersistWorkers(),
+                    settings.getQueueCapacity(), batch -> {
+                        if (cancelled.getAsBoolean()) {
+                            log.debug("Dropping page {} of {}: run cancelled", batch.page(), scraper.getShopCode());
+                            return;
+                        }
+                        long start = System.nanoTime();
+                        var stats = persistenceService.persistOffers(batch.items());
+                        long persistNanos = System.nanoTime() - start;
+                        runStats.record(ScrapeRunStats.Stage.MATCH, stats.getMatchNanos());
+                        runStats.record(ScrapeRunStats.Stage.PERSIST, persistNanos - stats.getMatchNanos());
+                        result.created.addAndGet(stats.getCreated());
+                        result.updated.addAndGet(stats.getUpdated());
+                        result.failed.addAndGet(stats.getFailed());
+                        checkpoints.completed(batch.page());
+                        if (index != null && !stats.getOfferIds().isEmpty()) {
+                            index.put(stats.getOfferIds());
+                        }
+                    }, index, result);
+
+            Stage<PageBatch<ScrapedProductDto>> normalize = new Stage<>("normalize", settings.getNormalizeWorkers(),
+                    settings.getQueueCapacity(), batch -> {
+                        long start = System.nanoTime();
+                        List<NormalizedProduct> normalized = normalizationService.normalize(batch.items());
+                        runStats.record(ScrapeRunStats.Stage.NORMALIZE, System.nanoTime() - start);
+                        persist.put(new PageBatch<>(batch.page(), normalized));
+                    }, persist, result);
+
+            if (index != null) {
+                index.start(executor);
+            }
+            persist.start(executor);
+            normalize.start(executor);
+
+            try {
+                scraper.scrape((page, products) -> {
+                    if (cancelled.getAsBoolean()) {
+                        // Unchecked, so it leaves the scraper's pagination loop and stops further fetches
+                        throw new CancellationException("Scrape of " + scraper.getShopCode() + " cancelled");
+                    }
+                    if (products.isEmpty()) {
+                        // Unchanged page: nothing to persist, but it still advances the checkpoint
+                        checkpoints.completed(page);
+                        return;
+                    }
+                    result.productsFound.addAndGet(products.size());
+                    normalize.put(new PageBatch<>(page, products));
+                });
+            } finally {
+                normalize.finish();
+            }
+        }
+
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Scrape of " + scraper.getShopCode() + " cancelled");
+        }
+        reindexFailed(scraper.getShopCode(), result, runStats);
+
+        log.info("Pipeline finished for {}: {} found, {} created, {} updated, {} indexed, {} failed batches",
+                scraper.getShopCode(), result.getProductsFound(), result.getCreated(), result.getUpdated(),
+                result.getIndexed(), result.getFailedBatches());
+        return result;
+    }
+
+    private void indexOffers(List<Long> offerIds, PipelineResult result, ScrapeRunStats runStats) {
+        long start = System.nanoTime();
+        List<ProductOffer> offers = productOfferRepository.findAllWithProductAndShopByIdIn(offerIds);
+        var stats = elasticsearchIndexService.indexOffers(offers);
+        result.indexed.addAndGet(stats.getIndexed());
+        runStats.record(ScrapeRunStats.Stage.INDEX, System.nanoTime() - start);
+    }
+
+    /**
+     * One more attempt for the offers whose index batch failed during the run.
+     */
+    private void reindexFailed(String shopCode, PipelineResult result, ScrapeRunStats runStats) {
+        if (result.unindexedOfferIds.isEmpty()) {
+            return;
+        }
+        List<Long> offerIds = List.copyOf(result.unindexedOfferIds);
+        result.unindexedOfferIds.clear();
+        try {
+            indexOffers(offerIds, result, runStats);
+            log.info("Reindexed {} offers of {} after failed index batches", offerIds.size(), shopCode);
+        } catch (Exception e) {
+            log.error("Reindexing {} offers of {} failed; they stay stale until the next full reindex",
+                    offerIds.size(), shopCode, e);
+            result.unindexedOfferIds.addAll(offerIds);
+        }
+    }
+
+    private record PageBatch<T>(int page, List<T> items) {
+    }
+
+    @FunctionalInterface
+    private interface StageHandler<T> {
+        void handle(T batch) throws Exception;
+    }
+
+    /**
+     * One pipeline stage: a bounded input queue drained by a fixed number of workers.
+     * When all workers have seen the end marker, the downstream stage is finished in turn.
+     */
+    private static final class Stage<T> {
+
+        private static final Object END = new Object();
+
+        private final String name;
+        private final int workers;
+        private final BlockingQueue<Object> queue;
+        private final StageHandler<T> handler;
+        private final Stage<?> downstream;
+        private final PipelineResult result;
+        private final AtomicInteger running;
+
+        private Stage(String name, int workers, int capacity, StageHandler<T> handler,
+                      Stage<?> downstream, PipelineResult result) {
+            this.name = name;
+            this.workers = Math.max(1, workers);
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+            this.handler = handler;
+            this.downstream = downstream;
+            this.result = result;
+            this.running = new AtomicInteger(this.workers);
+        }
+
+        void start(ExecutorService executor) {
+            for (int i = 0; i < workers; i++) {
+                executor.submit(this::work);
+            }
+        }
+
+        void put(T batch) throws InterruptedException {
+            queue.put(batch);
+        }
+
+        void finish() throws InterruptedException {
+            for (int i = 0; i < workers; i++) {
+                queue.put(END);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void work() {
+            try {
+                Object item;
+                while ((item = queue.take()) != END) {
+                    try {
+                        handler.handle((T) item);
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        log.error("Pipeline stage '{}' failed for a batch", name, e);
+                        result.failedBatches.incrementAndGet();
+                    }
+                }
+                if (running.decrementAndGet() == 0 && downstream != null) {
+                    downstream.finish();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Pipeline stage '{}' interrupted", name);
+            }
+        }
+    }
+
+    public static class PipelineResult {
+        private final AtomicInteger productsFound = new AtomicInteger();
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger updated = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger indexed = new AtomicInteger();
+        private final AtomicInteger failedBatches = new AtomicInteger();
+        private final Queue<Long> unindexedOfferIds = new ConcurrentLinkedQueue<>();
+
+        public int getProductsFound() { return productsFound.get(); }
+        public int getCreated() { return created.get(); }
+        public int getUpdated() { return updated.get(); }
+        public int getFailed() { return failed.get(); }
+        public int getIndexed() { return indexed.get(); }
+        /** Normalize/persist batches lost to an exception (e.g. a rolled-back persist transaction) */
+        public int getFailedBatches() { return failedBatches.get(); }
+        /** Persisted offers still missing from the search index after the retry */
+        public int getUnindexedOffers() { return unindexedOfferIds.size(); }
+    }
+}
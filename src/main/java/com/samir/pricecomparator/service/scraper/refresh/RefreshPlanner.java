@@ -0,0 +1,105 @@
+package com.samir.pricecomparator.service.scraper.refresh;
+
+import com.samir.pricecomparator.config.ScrapingProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Picks the listing pages most worth re-fetching within a request budget.
+ *
+ * Each page's change rate is estimated from its history (decayed changes per observed
+ * hour, blended with {@code scraping.refresh.prior-changes-per-day} for pages with
+ * little history). The chance that the page changed since it was last fetched,
+ * {@code 1 - exp(-rate * age)}, is weighted by how popular its offers are in search:
+ *
+ * <pre>priority = P(changed) * (1 + popularity-weight * ln(1 + popularity))</pre>
+ *
+ * A volatile page of popular phones climbs within hours; a quiet long-tail page only
+ * ranks high once it has gone unchecked for a long time.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshPlanner {
+
+    /** Hours of prior observation the prior change rate is worth */
+    private static final double PRIOR_HOURS = 24;
+
+    private final ScrapingProperties scrapingProperties;
+    private final RefreshStatsStore statsStore;
+
+    /**
+     * Listing page fetches one refresh tick may spend.
+     */
+    public int tickBudget() {
+        ScrapingProperties.Refresh refresh = scrapingProperties.getRefresh();
+        double ticksPerDay = (double) Duration.ofDays(1).toMillis() / refresh.getInterval().toMillis();
+        return (int) Math.ceil(refresh.getDailyPageBudget() / ticksPerDay);
+    }
+
+    /**
+     * Highest-priority pages across shops, at most {@code budget} in total.
+     *
+     * @return pages to refresh per shop code, in page order
+     */
+    public Map<String, SortedSet<Integer>> plan(Collection<String> shopCodes, int budget, Instant now) {
+        if (budget <= 0) {
+            return Map.of();
+        }
+        // Min-heap of the best candidates seen so far
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble(Candidate::priority));
+        for (String shopCode : shopCodes) {
+            statsStore.pages(shopCode).forEach((page, stats) -> {
+                double priority = priority(shopCode, stats, now);
+                if (priority <= 0) {
+                    return;
+                }
+                if (best.size() < budget) {
+                    best.add(new Candidate(shopCode, page, priority));
+                } else if (priority > best.peek().priority()) {
+                    best.poll();
+                    best.add(new Candidate(shopCode, page, priority));
+                }
+            });
+        }
+
+        Map<String, SortedSet<Integer>> plan = new TreeMap<>();
+        for (Candidate candidate : new ArrayList<>(best)) {
+            plan.computeIfAbsent(candidate.shopCode(), code -> new TreeSet<>()).add(candidate.page());
+        }
+        return plan;
+    }
+
+    double priority(String shopCode, RefreshStatsStore.PageStats stats, Instant now) {
+        ScrapingProperties.Refresh refresh = scrapingProperties.getRefresh();
+        Duration age = Duration.between(Instant.ofEpochMilli(stats.lastFetchedAt()), now);
+        if (age.compareTo(refresh.getMinPageAge()) < 0) {
+            return 0;
+        }
+
+        double priorChanges = refresh.getPriorChangesPerDay() * PRIOR_HOURS / 24;
+        double changesPerHour = (stats.changes() + priorChanges) / (stats.observedHours() + PRIOR_HOURS);
+        double probabilityChanged = 1 - Math.exp(-changesPerHour * age.toMinutes() / 60d);
+
+        double weight = 1;
+        if (refresh.getPopularityWeight() > 0) {
+            double popularity = statsStore.popularity(shopCode, stats.offerUrls());
+            weight += refresh.getPopularityWeight() * Math.log1p(popularity);
+        }
+        return probabilityChanged * weight;
+    }
+
+    private record Candidate(String shopCode, int page, double priority) {
+    }
+}
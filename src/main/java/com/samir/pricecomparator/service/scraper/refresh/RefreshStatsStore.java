@@ -0,0 +1,245 @@
+package com.samir.pricecomparator.service.scraper.refresh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samir.pricecomparator.config.ScrapingProperties;
+import com.samir.pricecomparator.dto.OfferDto;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis-backed history used to prioritize listing page refreshes.
+ *
+ * Per shop, a hash maps each listing page number to {@link PageStats}: when the page was
+ * last fetched, a decayed count of observed content changes over a decayed observation
+ * time, and the offer URLs it held. A sorted set per shop counts how often each offer
+ * URL appeared among the top search results; scores are halved periodically.
+ *
+ * Impressions are counted in memory on the search path and written to Redis in one
+ * pipelined batch by {@link #flushImpressions()}, so searches never wait on Redis for them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshStatsStore {
+
+    private static final String PAGES_PREFIX = "refresh:pages:";
+    private static final String POPULARITY_PREFIX = "refresh:popularity:";
+    private static final String TICK_LOCK = "refresh:tick";
+    private static final String DECAY_LOCK = "refresh:popularity-decay";
+    /** Covers clock skew between instances firing the same decay cron */
+    private static final Duration DECAY_LOCK_TTL = Duration.ofMinutes(30);
+
+    /** Scale all scores and drop near-zero ones in one step, so concurrent ZINCRBYs are never overwritten */
+    private static final RedisScript<Long> DECAY = new DefaultRedisScript<>("""
+            redis.call('zunionstore', KEYS[1], 1, KEYS[1], 'WEIGHTS', ARGV[1])
+            return redis.call('zremrangebyscore', KEYS[1], '-inf', ARGV[2])
+            """, Long.class);
+
+    /** Weight kept by older observations each time a page is fetched again */
+    private static final double HISTORY_DECAY = 0.9;
+    /** Popularity below this after decay is dropped */
+    private static final double MIN_POPULARITY = 0.05;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ScrapingProperties scrapingProperties;
+
+    /** Impressions not yet written to Redis */
+    private final ConcurrentHashMap<Impression, Long> pendingImpressions = new ConcurrentHashMap<>();
+
+    /**
+     * Record a listing page fetch.
+     *
+     * @param changed   true if the product block differed from the previous fetch, false if
+     *                  it was identical, null if there was nothing to compare with
+     * @param offerUrls offer URLs on the page
+     */
+    public void recordFetch(String shopCode, int page, Boolean changed, List<String> offerUrls) {
+        try {
+            String key = pagesKey(shopCode);
+            String field = Integer.toString(page);
+            Instant now = Instant.now();
+
+            PageStats previous = parse(redisTemplate.<String, String>opsForHash().get(key, field));
+            double changes = previous != null ? previous.changes() : 0;
+            double observedHours = previous != null ? previous.observedHours() : 0;
+            if (previous != null && changed != null) {
+                double sinceLastFetch = Duration.between(Instant.ofEpochMilli(previous.lastFetchedAt()), now)
+                        .toMinutes() / 60d;
+                changes = changes * HISTORY_DECAY + (changed ? 1 : 0);
+                observedHours = observedHours * HISTORY_DECAY + sinceLastFetch;
+            }
+
+            PageStats stats = new PageStats(now.toEpochMilli(), changes, observedHours, offerUrls);
+            redisTemplate.opsForHash().put(key, field, objectMapper.writeValueAsString(stats));
+        } catch (Exception e) {
+            log.warn("Failed to record refresh stats for {} page {}: {}", shopCode, page, e.getMessage());
+        }
+    }
+
+    /**
+     * All known listing pages of a shop, by page number.
+     */
+    public Map<Integer, PageStats> pages(String shopCode) {
+        Map<Integer, PageStats> pages = new HashMap<>();
+        try {
+            redisTemplate.<String, String>opsForHash().entries(pagesKey(shopCode)).forEach((field, value) -> {
+                PageStats stats = parse(value);
+                if (stats != null) {
+                    pages.put(Integer.parseInt(field), stats);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to read refresh stats for {}: {}", shopCode, e.getMessage());
+        }
+        return pages;
+    }
+
+    /**
+     * Count one impression for each of the top search results. Only memory is touched;
+     * {@link #flushImpressions()} writes the counts.
+     */
+    public void recordImpressions(List<OfferDto> results) {
+        ScrapingProperties.Refresh refresh = scrapingProperties.getRefresh();
+        if (!refresh.isEnabled() || refresh.getPopularityWeight() <= 0 || results.isEmpty()) {
+            return;
+        }
+        List<OfferDto> top = results.subList(0, Math.min(results.size(), refresh.getPopularityTopResults()));
+        for (OfferDto offer : top) {
+            if (offer.shopCode() != null && offer.url() != null) {
+                pendingImpressions.merge(new Impression(offer.shopCode(), offer.url()), 1L, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Write the impressions counted since the last flush (one pipelined round trip).
+     * Counts taken here are removed atomically, so impressions recorded meanwhile wait for
+     * the next flush. If Redis fails the batch is dropped; popularity is a soft signal.
+     */
+    @Scheduled(initialDelayString = "#{@scrapingProperties.refresh.impressionFlushInterval.toMillis()}",
+               fixedDelayString = "#{@scrapingProperties.refresh.impressionFlushInterval.toMillis()}")
+    @PreDestroy
+    public void flushImpressions() {
+        if (pendingImpressions.isEmpty()) {
+            return;
+        }
+        Map<Impression, Long> batch = new HashMap<>();
+        for (Impression impression : pendingImpressions.keySet()) {
+            Long count = pendingImpressions.remove(impression);
+            if (count != null) {
+                batch.put(impression, count);
+            }
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                batch.forEach((impression, count) ->
+                        redis.zIncrBy(popularityKey(impression.shopCode()), count, impression.url()));
+                return null;
+            });
+        } catch (Exception e) {
+            log.debug("Failed to record {} search impressions: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Summed popularity of the given offers.
+     */
+    public double popularity(String shopCode, Collection<String> offerUrls) {
+        if (offerUrls == null || offerUrls.isEmpty()) {
+            return 0;
+        }
+        try {
+            List<Double> scores = redisTemplate.opsForZSet().score(popularityKey(shopCode), offerUrls.toArray());
+            return scores == null ? 0 : scores.stream().mapToDouble(score -> score != null ? score : 0).sum();
+        } catch (Exception e) {
+            log.debug("Failed to read popularity for {}: {}", shopCode, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Multiply every popularity score of the shop by {@code factor}, dropping near-zero entries.
+     */
+    public void decayPopularity(String shopCode, double factor) {
+        redisTemplate.execute(DECAY, List.of(popularityKey(shopCode)),
+                Double.toString(factor), Double.toString(MIN_POPULARITY));
+    }
+
+    /**
+     * Claim today's popularity decay, so it runs once however many instances fire the cron.
+     */
+    public boolean tryClaimDecay() {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(DECAY_LOCK, Instant.now().toString(), DECAY_LOCK_TTL));
+        } catch (Exception e) {
+            log.warn("Failed to claim popularity decay: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Claim the current refresh tick, so only one instance refreshes when several run.
+     */
+    public boolean tryClaimTick(Duration interval) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(TICK_LOCK, Instant.now().toString(), interval.multipliedBy(9).dividedBy(10)));
+        } catch (Exception e) {
+            log.warn("Failed to claim refresh tick: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private PageStats parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, PageStats.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Ignoring unreadable refresh stats: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String pagesKey(String shopCode) {
+        return PAGES_PREFIX + shopCode.toLowerCase(Locale.ROOT);
+    }
+
+    private static String popularityKey(String shopCode) {
+        return POPULARITY_PREFIX + shopCode.toLowerCase(Locale.ROOT);
+    }
+
+    private record Impression(String shopCode, String url) {
+    }
+
+    /**
+     * @param lastFetchedAt epoch millis of the last fetch
+     * @param changes       decayed count of fetches that found the page changed
+     * @param observedHours decayed time covered by those observations
+     * @param offerUrls     offer URLs on the page at the last fetch
+     */
+    public record PageStats(long lastFetchedAt, double changes, double observedHours, List<String> offerUrls) {
+    }
+}
@@ -85,6 +85,41 @@ public class ElasticsearchIndexService {
         }
     }
 
+    /**
+     * Incrementally index a batch of offers: in-stock offers are upserted, others removed.
+     * Offers must have product and shop initialized.
+     */
+    public IndexStats indexOffers(List<ProductOffer> offers) {
+        IndexStats stats = new IndexStats();
+        List<OfferDocument> batch = new ArrayList<>();
+        List<Long> outOfStock = new ArrayList<>();
+
+        for (ProductOffer offer : offers) {
+            if (!offer.isInStock()) {
+                outOfStock.add(offer.getId());
+                continue;
+            }
+            try {
+                batch.add(convertToDocument(offer));
+            } catch (Exception e) {
+                log.error("Failed to convert offer to document: {}", offer.getId(), e);
+                stats.incrementFailed();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            indexBatch(batch, stats);
+        }
+        if (!outOfStock.isEmpty()) {
+            try {
+                elasticsearchRepository.deleteAllById(outOfStock);
+            } catch (Exception e) {
+                log.error("Failed to remove {} out-of-stock offers from index", outOfStock.size(), e);
+            }
+        }
+        return stats;
+    }
+
     public void indexOffer(ProductOffer offer) {
         try {
             if (!offer.isInStock()) {
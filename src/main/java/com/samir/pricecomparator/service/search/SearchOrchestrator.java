@@ -4,6 +4,7 @@ import com.samir.pricecomparator.dto.OfferDto;
 import com.samir.pricecomparator.dto.OfferSearchResponse;
 import com.samir.pricecomparator.metrics.SearchMetricsService;
 import com.samir.pricecomparator.service.cache.CacheService;
+import com.samir.pricecomparator.service.scraper.refresh.RefreshStatsStore;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
@@ -21,15 +22,18 @@ public class SearchOrchestrator {
     private final JpaSearchService jpaSearchService;
     private final ElasticSearchService elasticSearchService;
     private final SearchMetricsService searchMetrics;
+    private final RefreshStatsStore refreshStats;
 
     public SearchOrchestrator(CacheService cacheService,
                              JpaSearchService jpaSearchService,
                              SearchMetricsService searchMetrics,
-                             @Autowired(required = false) ElasticSearchService elasticSearchService) {
+                             @Autowired(required = false) ElasticSearchService elasticSearchService,
+                             @Autowired(required = false) RefreshStatsStore refreshStats) {
         this.cacheService = cacheService;
         this.jpaSearchService = jpaSearchService;
         this.searchMetrics = searchMetrics;
         this.elasticSearchService = elasticSearchService;
+        this.refreshStats = refreshStats;
     }
 
     @CircuitBreaker(name = "elasticsearch", fallbackMethod = "searchFallback")
@@ -51,6 +55,7 @@ public class SearchOrchestrator {
             searchMetrics.recordCacheHit();
             searchMetrics.recordSearchRequest("cache", "hit");
             searchMetrics.recordSearchDuration(timer, "cache", "hit");
+            recordImpressions(cachedResult.get().offers());
             return cachedResult.get();
         }
         log.debug("Cache MISS for query='{}'", query);
@@ -77,6 +82,7 @@ public class SearchOrchestrator {
         searchMetrics.recordSearchRequest(source, "miss");
         searchMetrics.recordSearchResults(source, offers.size());
         searchMetrics.recordSearchDuration(timer, source, "miss");
+        recordImpressions(offers);
 
         OfferSearchResponse response = new OfferSearchResponse(
                 query,
@@ -121,6 +127,7 @@ public class SearchOrchestrator {
         searchMetrics.recordSearchRequest("jpa_fallback", "miss");
         searchMetrics.recordSearchResults("jpa_fallback", offers.size());
         searchMetrics.recordSearchDuration(timer, "jpa_fallback", "miss");
+        recordImpressions(offers);
 
         log.info("JPA fallback search SUCCESS for query='{}' - found {} results", query, offers.size());
 
@@ -130,4 +137,13 @@ public class SearchOrchestrator {
                 offers
         );
     }
+
+    /**
+     * Popular offers' listing pages are refreshed more often (incremental refresh)
+     */
+    private void recordImpressions(List<OfferDto> offers) {
+        if (refreshStats != null && offers != null) {
+            refreshStats.recordImpressions(offers);
+        }
+    }
 }
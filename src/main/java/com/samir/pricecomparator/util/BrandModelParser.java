@@ -4,134 +4,109 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.stereotype.Component;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-
+/**
+ * Extracts brand and model from a product title.
+ *
+ * Brands are data: each {@link BrandGrammar} has its keywords and its model grammar. One
+ * {@link KeywordMatcher} pass finds every brand keyword in the title, and only the grammars
+ * of brands actually mentioned are tried, anchored at their keywords. Adding a brand adds
+ * keywords to the automaton, not another regex scan per title.
+ *
+ * When a title mentions several brands, the first brand in {@link #BRANDS} whose grammar
+ * matches wins, and within a brand the leftmost match wins.
+ */
 @Component
 public class BrandModelParser {
 
-    private static final Pattern IPHONE_PATTERN = Pattern.compile(
-            "(iphone)\\s*(\\d+\\s*pro\\s*max|\\d+\\s*pro|\\d+\\s*plus|\\d+|se|air|mini)",
-            Pattern.CASE_INSENSITIVE
+    private static final List<BrandGrammar> BRANDS = List.of(
+            BrandGrammar.of("Apple", "iphone",
+                    "\\d+\\s*pro\\s*max|\\d+\\s*pro|\\d+\\s*plus|\\d+|se|air|mini"),
+            BrandGrammar.of("Samsung", "samsung|galaxy",
+                    "s\\d+\\s*ultra|s\\d+\\s*plus|s\\d+|a\\d+|z\\s*fold\\d*|z\\s*flip\\d*|note\\d+"),
+            BrandGrammar.namedByKeyword("xiaomi|redmi",
+                    "note\\s*\\d+|\\d+[a-z]*"),
+            BrandGrammar.of("Poco", "poco",
+                    "x\\d+[a-z]*|m\\d+[a-z]*|c\\d+[a-z]*|f\\d+[a-z]*"),
+            BrandGrammar.namedByKeyword("huawei|honor",
+                    "p\\d+[a-z]*|mate\\s*\\d+|nova\\s*\\d+|magic\\d*[a-z]*\\s*pro|magic\\d*[a-z]*|x\\d+[a-z]*|\\d+[a-z]*"),
+            BrandGrammar.of("Oppo", "oppo",
+                    "find\\s*[xn]\\d*|reno\\s*\\d+|a\\d+"),
+            BrandGrammar.of("Vivo", "vivo",
+                    "x\\d+|v\\d+|y\\d+"),
+            BrandGrammar.of("Realme", "realme",
+                    "gt\\s*\\d*|\\d+[a-z]*"),
+            BrandGrammar.of("Tecno", "tecno",
+                    "spark\\s*go\\s*\\d*[a-z]*|spark\\s*\\d+[a-z]*|camon\\s*\\d+[a-z]*|phantom\\s*[x\\d]*|pova\\s*\\d+[a-z]*"),
+            BrandGrammar.of("Infinix", "infinix",
+                    "note\\s*\\d+[a-z]*\\s*pro|note\\s*\\d+[a-z]*|smart\\s*\\d+[a-z]*|hot\\s*\\d+[a-z]*\\s*pro|hot\\s*\\d+[a-z]*"),
+            BrandGrammar.of("Motorola", "motorola",
+                    "moto\\s*[ge]\\d+[a-z]*\\s*power\\s*5g|moto\\s*[ge]\\d+[a-z]*\\s*power|moto\\s*[ge]\\d+[a-z]*\\s*5g|moto\\s*[ge]\\d+[a-z]*|edge\\s*\\d+[a-z]*\\s*fusion\\s*5g|edge\\s*\\d+[a-z]*|razr\\s*\\d+[a-z]*")
     );
 
-    private static final Pattern SAMSUNG_PATTERN = Pattern.compile(
-            "(samsung|galaxy)\\s*(s\\d+\\s*ultra|s\\d+\\s*plus|s\\d+|a\\d+|z\\s*fold\\d*|z\\s*flip\\d*|note\\d+)",
-            Pattern.CASE_INSENSITIVE
-    );
+    /** Brand keyword → index of its grammar in {@link #BRANDS} */
+    private static final KeywordMatcher<Integer> BRAND_KEYWORDS = buildKeywordMatcher();
 
-    private static final Pattern XIAOMI_PATTERN = Pattern.compile(
-            "(xiaomi|redmi)\\s*(note\\s*\\d+|\\d+[a-z]*)",
-            Pattern.CASE_INSENSITIVE
-    );
+    private static final long RULES_VERSION = BRANDS.stream()
+            .mapToLong(grammar -> Objects.hash(grammar.brand(), grammar.pattern().pattern()))
+            .reduce(17, (hash, grammar) -> 31 * hash + grammar);
 
-    private static final Pattern POCO_PATTERN = Pattern.compile(
-            "(poco)\\s*(x\\d+[a-z]*|m\\d+[a-z]*|c\\d+[a-z]*|f\\d+[a-z]*)",
-            Pattern.CASE_INSENSITIVE
-    );
+    /** Brand priority first, then position in the title */
+    private static final Comparator<KeywordMatcher.Match<Integer>> DISPATCH_ORDER =
+            Comparator.<KeywordMatcher.Match<Integer>>comparingInt(KeywordMatcher.Match::value)
+                    .thenComparingInt(KeywordMatcher.Match::start);
 
-    private static final Pattern HUAWEI_PATTERN = Pattern.compile(
-            "(huawei|honor)\\s*(p\\d+[a-z]*|mate\\s*\\d+|nova\\s*\\d+|magic\\d*[a-z]*\\s*pro|magic\\d*[a-z]*|x\\d+[a-z]*|\\d+[a-z]*)",
-            Pattern.CASE_INSENSITIVE
-    );
-
-    private static final Pattern OPPO_PATTERN = Pattern.compile(
-            "(oppo)\\s*(find\\s*[xn]\\d*|reno\\s*\\d+|a\\d+)",
-            Pattern.CASE_INSENSITIVE
-    );
-
-    private static final Pattern VIVO_PATTERN = Pattern.compile(
-            "(vivo)\\s*(x\\d+|v\\d+|y\\d+)",
-            Pattern.CASE_INSENSITIVE
-    );
+    public BrandModelResult parse(String title) {
+        if (title == null || title.isBlank()) {
+            return new BrandModelResult(null, null);
+        }
 
-    private static final Pattern REALME_PATTERN = Pattern.compile(
-            "(realme)\\s*(gt\\s*\\d*|\\d+[a-z]*)",
-            Pattern.CASE_INSENSITIVE
-    );
+        List<KeywordMatcher.Match<Integer>> keywords = BRAND_KEYWORDS.findAll(title);
+        if (keywords.size() > 1) {
+            keywords.sort(DISPATCH_ORDER);
+        }
 
-        private static final Pattern TECNO_PATTERN = Pattern.compile(
-                "(tecno)\\s*(spark\\s*go\\s*\\d*[a-z]*|spark\\s*\\d+[a-z]*|camon\\s*\\d+[a-z]*|phantom\\s*[x\\d]*|pova\\s*\\d+[a-z]*)",
-                Pattern.CASE_INSENSITIVE
-        );
-    
-        private static final Pattern INFINIX_PATTERN = Pattern.compile(
-                "(infinix)\\s*(note\\s*\\d+[a-z]*\\s*pro|note\\s*\\d+[a-z]*|smart\\s*\\d+[a-z]*|hot\\s*\\d+[a-z]*\\s*pro|hot\\s*\\d+[a-z]*)",
-                Pattern.CASE_INSENSITIVE
-        );
-
-    private static final Pattern MOTOROLA_PATTERN = Pattern.compile(
-            "(motorola)\\s*(moto\\s*[ge]\\d+[a-z]*\\s*power\\s*5g|moto\\s*[ge]\\d+[a-z]*\\s*power|moto\\s*[ge]\\d+[a-z]*\\s*5g|moto\\s*[ge]\\d+[a-z]*|edge\\s*\\d+[a-z]*\\s*fusion\\s*5g|edge\\s*\\d+[a-z]*|razr\\s*\\d+[a-z]*)",
-            Pattern.CASE_INSENSITIVE
-        );
-    
-    
-        public BrandModelResult parse(String title) {
-            if (title == null || title.isBlank()) {
-                return new BrandModelResult(null, null);
-            }
-    
-            Matcher iphoneMatcher = IPHONE_PATTERN.matcher(title);
-            if (iphoneMatcher.find()) {
-                return new BrandModelResult("Apple", normalizeModel(iphoneMatcher.group(0)));
-            }
-    
-            Matcher samsungMatcher = SAMSUNG_PATTERN.matcher(title);
-            if (samsungMatcher.find()) {
-                return new BrandModelResult("Samsung", normalizeModel(samsungMatcher.group(0)));
-            }
-    
-            Matcher xiaomiMatcher = XIAOMI_PATTERN.matcher(title);
-            if (xiaomiMatcher.find()) {
-                String brand = xiaomiMatcher.group(1);
-                String brandCapitalized = brand.substring(0, 1).toUpperCase() + brand.substring(1).toLowerCase();
-                return new BrandModelResult(brandCapitalized, normalizeModel(xiaomiMatcher.group(0)));
-            }
-    
-            Matcher pocoMatcher = POCO_PATTERN.matcher(title);
-            if (pocoMatcher.find()) {
-                return new BrandModelResult("Poco", normalizeModel(pocoMatcher.group(0)));
-            }
-    
-            Matcher huaweiMatcher = HUAWEI_PATTERN.matcher(title);
-            if (huaweiMatcher.find()) {
-                String brand = huaweiMatcher.group(1);
-                String brandCapitalized = brand.substring(0, 1).toUpperCase() + brand.substring(1).toLowerCase();
-                return new BrandModelResult(brandCapitalized, normalizeModel(huaweiMatcher.group(0)));
+        Matcher matcher = null;
+        int matcherBrand = -1;
+        for (KeywordMatcher.Match<Integer> keyword : keywords) {
+            BrandGrammar grammar = BRANDS.get(keyword.value());
+            if (keyword.value() != matcherBrand) {
+                matcher = grammar.pattern().matcher(title);
+                matcherBrand = keyword.value();
             }
-    
-            Matcher oppoMatcher = OPPO_PATTERN.matcher(title);
-            if (oppoMatcher.find()) {
-                return new BrandModelResult("Oppo", normalizeModel(oppoMatcher.group(0)));
-            }
-    
-            Matcher vivoMatcher = VIVO_PATTERN.matcher(title);
-            if (vivoMatcher.find()) {
-                return new BrandModelResult("Vivo", normalizeModel(vivoMatcher.group(0)));
-            }
-    
-            Matcher realmeMatcher = REALME_PATTERN.matcher(title);
-            if (realmeMatcher.find()) {
-                return new BrandModelResult("Realme", normalizeModel(realmeMatcher.group(0)));
-            }
-    
-            Matcher tecnoMatcher = TECNO_PATTERN.matcher(title);
-            if (tecnoMatcher.find()) {
-                return new BrandModelResult("Tecno", normalizeModel(tecnoMatcher.group(0)));
+            if (matcher.region(keyword.start(), title.length()).lookingAt()) {
+                String brand = grammar.brand() != null ? grammar.brand() : capitalize(matcher.group(1));
+                return new BrandModelResult(brand, normalizeModel(matcher.group(0)));
             }
+        }
 
-            Matcher infinixMatcher = INFINIX_PATTERN.matcher(title);
-            if (infinixMatcher.find()) {
-                return new BrandModelResult("Infinix", normalizeModel(infinixMatcher.group(0)));
-            }
+        return new BrandModelResult(null, null);
+    }
+
+    /**
+     * Changes whenever a brand grammar changes; cached parses from other rules are stale.
+     */
+    public long rulesVersion() {
+        return RULES_VERSION;
+    }
 
-            Matcher motorolaMatcher = MOTOROLA_PATTERN.matcher(title);
-            if (motorolaMatcher.find()) {
-                return new BrandModelResult("Motorola", normalizeModel(motorolaMatcher.group(0)));
+    private static KeywordMatcher<Integer> buildKeywordMatcher() {
+        KeywordMatcher.Builder<Integer> builder = KeywordMatcher.<Integer>builder().asciiCaseInsensitive();
+        for (int i = 0; i < BRANDS.size(); i++) {
+            for (String keyword : BRANDS.get(i).keywords()) {
+                builder.add(keyword, i);
             }
+        }
+        return builder.build();
+    }
 
-        return new BrandModelResult(null, null);
+    private static String capitalize(String brand) {
+        return brand.substring(0, 1).toUpperCase() + brand.substring(1).toLowerCase();
     }
 
     private String normalizeModel(String model) {
@@ -155,6 +130,24 @@ public class BrandModelParser {
         return result.toString().trim();
     }
 
+    /**
+     * One brand: its title keywords and the model grammar that must follow a keyword.
+     *
+     * @param brand   fixed brand name, or null to use the matched keyword (capitalized)
+     * @param pattern {@code (keywords)\s*(models)}; group 0 is the model, group 1 the keyword
+     */
+    private record BrandGrammar(String brand, List<String> keywords, Pattern pattern) {
+
+        static BrandGrammar of(String brand, String keywords, String models) {
+            return new BrandGrammar(brand, List.of(keywords.split("\\|")),
+                    Pattern.compile("(" + keywords + ")\\s*(" + models + ")", Pattern.CASE_INSENSITIVE));
+        }
+
+        static BrandGrammar namedByKeyword(String keywords, String models) {
+            return of(null, keywords, models);
+        }
+    }
+
     @Data
     @AllArgsConstructor
     public static class BrandModelResult {
@@ -0,0 +1,205 @@
+package com.samir.pricecomparator.util;
+
+import com.samir.pricecomparator.metrics.ScraperMetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DevTools (CDP) session for one pooled Chrome instance: request blocking and
+ * network activity tracking.
+ *
+ * URL patterns go to {@code Network.setBlockedURLs}, which Chrome enforces natively.
+ * Resource types (Image, Font, Media, Stylesheet, ...) are intercepted with
+ * {@code Fetch.enable} and failed before a byte is transferred. Commands are sent as
+ * raw CDP messages, so this works with whatever protocol version the browser speaks.
+ *
+ * The rules follow the shop holding the browser; counters are tagged with that shop.
+ *
+ * In-flight requests are tracked so page readiness can wait for the network to go
+ * quiet instead of sleeping a fixed time. XHR/fetch requests are also captured so a
+ * scraper can discover the backend endpoint behind a page's JavaScript.
+ */
+@Slf4j
+final class BrowserNetworkMonitor {
+
+    /** Long-polling and beacon requests may never finish; this many are tolerated as idle */
+    private static final int IDLE_MAX_IN_FLIGHT = 2;
+    private static final int MAX_CAPTURED_REQUESTS = 200;
+
+    private final DevTools devTools;
+    private final ScraperMetricsService scraperMetrics;
+    private volatile String shopCode;
+    private volatile List<String> resourceTypes;
+    private volatile List<String> urlPatterns;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile long lastActivityNanos = System.nanoTime();
+    private final AtomicLong transferredBytes = new AtomicLong();
+    private final Deque<SeleniumWebDriverManager.CapturedRequest> captured = new ConcurrentLinkedDeque<>();
+
+    private BrowserNetworkMonitor(DevTools devTools, ScraperMetricsService scraperMetrics) {
+        this.devTools = devTools;
+        this.scraperMetrics = scraperMetrics;
+    }
+
+    /**
+     * Open a DevTools session on the driver and start listening for network events.
+     *
+     * @return empty if the driver has no DevTools support or the session cannot be created
+     */
+    static Optional<BrowserNetworkMonitor> attach(WebDriver driver, ScraperMetricsService scraperMetrics) {
+        if (!(driver instanceof HasDevTools hasDevTools)) {
+            return Optional.empty();
+        }
+        try {
+            DevTools devTools = hasDevTools.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<>("Network.enable", Map.of()));
+
+            BrowserNetworkMonitor monitor = new BrowserNetworkMonitor(devTools, scraperMetrics);
+            devTools.addListener(event("Fetch.requestPaused"), monitor::onRequestPaused);
+            devTools.addListener(event("Network.requestWillBeSent"), monitor::onRequestWillBeSent);
+            devTools.addListener(event("Network.loadingFailed"), monitor::onLoadingFailed);
+            devTools.addListener(event("Network.loadingFinished"), monitor::onLoadingFinished);
+            return Optional.of(monitor);
+        } catch (Exception e) {
+            log.warn("DevTools session unavailable, request blocking and network idle detection disabled: {}",
+                    e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Switch the browser to a shop's block lists. No-op if they are already active.
+     */
+    void applyBlockLists(String shopCode, List<String> resourceTypes, List<String> urlPatterns) {
+        if (Objects.equals(this.resourceTypes, resourceTypes) && Objects.equals(this.urlPatterns, urlPatterns)) {
+            this.shopCode = shopCode;
+            return;
+        }
+
+        devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", urlPatterns)));
+        if (resourceTypes.isEmpty()) {
+            devTools.send(new Command<>("Fetch.disable", Map.of()));
+        } else {
+            List<Map<String, Object>> patterns = resourceTypes.stream()
+                    .map(type -> Map.<String, Object>of("resourceType", type, "requestStage", "Request"))
+                    .toList();
+            devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+        }
+
+        this.shopCode = shopCode;
+        this.resourceTypes = resourceTypes;
+        this.urlPatterns = urlPatterns;
+        log.debug("Applied request block list for {}: types={}, urls={}", shopCode, resourceTypes, urlPatterns);
+    }
+
+    /**
+     * Forget requests left over from the previous lease (e.g. a navigation that was abandoned).
+     */
+    void resetActivity() {
+        inFlight.clear();
+        captured.clear();
+        lastActivityNanos = System.nanoTime();
+    }
+
+    /**
+     * @return milliseconds since the network last became quiet, or 0 while requests are still loading
+     */
+    long millisSinceActivity() {
+        if (inFlight.size() > IDLE_MAX_IN_FLIGHT) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivityNanos);
+    }
+
+    /**
+     * @return bytes received by this browser since it was created
+     */
+    long transferredBytes() {
+        return transferredBytes.get();
+    }
+
+    /**
+     * @return XHR/fetch requests captured since the previous call, oldest first
+     */
+    List<SeleniumWebDriverManager.CapturedRequest> drainCapturedRequests() {
+        List<SeleniumWebDriverManager.CapturedRequest> drained = new ArrayList<>();
+        SeleniumWebDriverManager.CapturedRequest request;
+        while ((request = captured.pollFirst()) != null) {
+            drained.add(request);
+        }
+        return drained;
+    }
+
+    private void onRequestWillBeSent(Map<String, Object> event) {
+        inFlight.add(String.valueOf(event.get("requestId")));
+        lastActivityNanos = System.nanoTime();
+
+        Object type = event.get("type");
+        if (("XHR".equals(type) || "Fetch".equals(type)) && event.get("request") instanceof Map<?, ?> request) {
+            captured.addLast(new SeleniumWebDriverManager.CapturedRequest(
+                    String.valueOf(request.get("method")), String.valueOf(request.get("url"))));
+            while (captured.size() > MAX_CAPTURED_REQUESTS) {
+                captured.pollFirst();
+            }
+        }
+    }
+
+    private void finished(Map<String, Object> event) {
+        inFlight.remove(String.valueOf(event.get("requestId")));
+        lastActivityNanos = System.nanoTime();
+    }
+
+    private void onRequestPaused(Map<String, Object> event) {
+        // Only blocked resource types are paused (Fetch.enable patterns)
+        try {
+            devTools.send(new Command<>("Fetch.failRequest",
+                    Map.of("requestId", event.get("requestId"), "errorReason", "BlockedByClient")));
+            scraperMetrics.recordBrowserRequestBlocked(shopTag(), String.valueOf(event.get("resourceType")));
+        } catch (Exception e) {
+            log.debug("Failed to block paused request: {}", e.getMessage());
+        }
+    }
+
+    private void onLoadingFailed(Map<String, Object> event) {
+        finished(event);
+        // Requests stopped by Network.setBlockedURLs report blockedReason "inspector"
+        if ("inspector".equals(event.get("blockedReason"))) {
+            scraperMetrics.recordBrowserRequestBlocked(shopTag(), String.valueOf(event.get("type")));
+        }
+    }
+
+    private void onLoadingFinished(Map<String, Object> event) {
+        finished(event);
+        if (event.get("encodedDataLength") instanceof Number bytes) {
+            transferredBytes.addAndGet(bytes.longValue());
+            scraperMetrics.recordBrowserBytesTransferred(shopTag(), bytes.longValue());
+        }
+    }
+
+    private String shopTag() {
+        String shop = shopCode;
+        return shop != null ? shop : "none";
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+}
@@ -1,13 +1,21 @@
 package com.samir.pricecomparator.util;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import org.springframework.stereotype.Component;
 
+/**
+ * Detects a product's color from its title.
+ *
+ * All color terms are compiled into one {@link KeywordMatcher}, so a title is scanned
+ * once whatever the number of terms. Terms only count as whole words ("red" is not found
+ * in "Redmi"). When several terms occur, the longest wins ("rose gold" over "gold", "space
+ * gray" over "gray"), then the leftmost, so the result does not depend on map order.
+ */
 @Component
 public class ColorExtractor {
 
-  private static final Map<String, String> COLOR_MAP = new HashMap<>();
+  private static final Map<String, String> COLOR_MAP = new LinkedHashMap<>();
 
   static {
     COLOR_MAP.put("black", "Black");
@@ -62,27 +70,49 @@ public class ColorExtractor {
     COLOR_MAP.put("lavender", "Purple");
   }
 
+  private static final KeywordMatcher<String> COLOR_TERMS = buildColorTerms();
+  private static final long RULES_VERSION = COLOR_MAP.hashCode();
+
   public String extractColor(String title) {
+    ColorMatch match = findColor(title);
+    return match != null ? match.color() : null;
+  }
+
+  /**
+   * The winning color term in the title with its position, or null if there is none.
+   */
+  public ColorMatch findColor(String title) {
     if (title == null || title.isBlank()) {
       return null;
     }
 
-    String lowerTitle = title.toLowerCase();
-
-    // Check for each color in the map
-    for (Map.Entry<String, String> entry : COLOR_MAP.entrySet()) {
-      if (lowerTitle.contains(entry.getKey())) {
-        return entry.getValue();
+    ColorMatch[] best = new ColorMatch[1];
+    COLOR_TERMS.scan(title, (start, end, color) -> {
+      if (!isWholeWord(title, start, end)) {
+        return;
       }
-    }
+      ColorMatch current = best[0];
+      int length = end - start;
+      if (current == null
+          || length > current.length()
+          || (length == current.length() && start < current.start())) {
+        best[0] = new ColorMatch(color, start, end);
+      }
+    });
+    return best[0];
+  }
 
-    return null;
+  /**
+   * Changes whenever a color term changes; cached colors from other rules are stale.
+   */
+  public long rulesVersion() {
+    return RULES_VERSION;
   }
 
   public ColorResult extractColorWithConfidence(String title) {
-    String color = extractColor(title);
+    ColorMatch match = findColor(title);
 
-    if (color == null) {
+    if (match == null) {
       return new ColorResult(null, 0.0);
     }
 
@@ -94,11 +124,49 @@ public class ColorExtractor {
       confidence += 0.3;
     }
 
-    if (lowerTitle.matches(".*\\([^)]*" + color.toLowerCase() + "[^)]*\\).*")) {
+    if (isInsideParentheses(title, match.start(), match.end())) {
       confidence += 0.2;
     }
 
-    return new ColorResult(color, Math.min(confidence, 1.0));
+    return new ColorResult(match.color(), Math.min(confidence, 1.0));
+  }
+
+  private static KeywordMatcher<String> buildColorTerms() {
+    KeywordMatcher.Builder<String> builder = KeywordMatcher.<String>builder().caseInsensitive();
+    COLOR_MAP.forEach(builder::add);
+    return builder.build();
+  }
+
+  private static boolean isWholeWord(String title, int start, int end) {
+    return (start == 0 || !Character.isLetter(title.charAt(start - 1)))
+        && (end == title.length() || !Character.isLetter(title.charAt(end)));
+  }
+
+  /**
+   * The nearest parenthesis before the term opens, and one closes after it.
+   */
+  private static boolean isInsideParentheses(String title, int start, int end) {
+    for (int i = start - 1; i >= 0; i--) {
+      char c = title.charAt(i);
+      if (c == ')') {
+        return false;
+      }
+      if (c == '(') {
+        return title.indexOf(')', end) >= 0;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param start index of the color term's first char in the title
+   * @param end   index after its last char
+   */
+  public record ColorMatch(String color, int start, int end) {
+
+    public int length() {
+      return end - start;
+    }
   }
 
   public static class ColorResult {
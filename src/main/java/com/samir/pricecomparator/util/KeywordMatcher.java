@@ -0,0 +1,232 @@
+package com.samir.pricecomparator.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a fixed set of keywords.
+ *
+ * Finds every occurrence of every keyword in a single left-to-right pass over the text,
+ * so the cost per text does not grow with the number of keywords. Overlapping and nested
+ * occurrences are all reported ("rose gold" also reports "gold"). Immutable and safe to
+ * share between threads once built.
+ *
+ * @param <T> value attached to each keyword
+ */
+public final class KeywordMatcher<T> {
+
+    private static final int NONE = -1;
+
+    /** Per node: outgoing edge labels (sorted) and their target nodes */
+    private final char[][] edgeLabels;
+    private final int[][] edgeTargets;
+    /** Per node: longest proper suffix that is also a trie path */
+    private final int[] failure;
+    /** Per node: nearest node on the failure chain that ends a keyword */
+    private final int[] outputLink;
+    /** Per node: index of the keyword ending here, or NONE */
+    private final int[] keywordAt;
+    private final int[] keywordLengths;
+    private final List<T> values;
+    private final CaseFolding caseFolding;
+
+    private KeywordMatcher(Builder<T> builder) {
+        this.caseFolding = builder.caseFolding;
+        this.values = List.copyOf(builder.values);
+        this.keywordLengths = builder.keywords.stream().mapToInt(String::length).toArray();
+
+        // Trie
+        List<TreeMap<Character, Integer>> edges = new ArrayList<>();
+        List<Integer> keywordNodes = new ArrayList<>();
+        edges.add(new TreeMap<>());
+        keywordNodes.add(NONE);
+        for (int k = 0; k < builder.keywords.size(); k++) {
+            int node = 0;
+            for (char c : builder.keywords.get(k).toCharArray()) {
+                Integer next = edges.get(node).get(fold(c));
+                if (next == null) {
+                    next = edges.size();
+                    edges.add(new TreeMap<>());
+                    keywordNodes.add(NONE);
+                    edges.get(node).put(fold(c), next);
+                }
+                node = next;
+            }
+            if (keywordNodes.get(node) == NONE) {
+                keywordNodes.set(node, k);
+            }
+        }
+
+        int nodes = edges.size();
+        edgeLabels = new char[nodes][];
+        edgeTargets = new int[nodes][];
+        keywordAt = new int[nodes];
+        for (int node = 0; node < nodes; node++) {
+            TreeMap<Character, Integer> out = edges.get(node);
+            edgeLabels[node] = new char[out.size()];
+            edgeTargets[node] = new int[out.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : out.entrySet()) {
+                edgeLabels[node][i] = edge.getKey();
+                edgeTargets[node][i++] = edge.getValue();
+            }
+            keywordAt[node] = keywordNodes.get(node);
+        }
+
+        // Failure and output links, breadth first so shorter suffixes are done first
+        failure = new int[nodes];
+        outputLink = new int[nodes];
+        outputLink[0] = NONE;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            failure[child] = 0;
+            outputLink[child] = NONE;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < edgeLabels[node].length; i++) {
+                char c = edgeLabels[node][i];
+                int child = edgeTargets[node][i];
+                int fallback = failure[node];
+                while (fallback != 0 && child(fallback, c) == NONE) {
+                    fallback = failure[fallback];
+                }
+                int target = child(fallback, c);
+                failure[child] = target == NONE ? 0 : target;
+                outputLink[child] = keywordAt[failure[child]] != NONE ? failure[child] : outputLink[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Report every keyword occurrence, ordered by end position (longest keyword first
+     * among those ending at the same position).
+     */
+    public void scan(CharSequence text, MatchHandler<? super T> handler) {
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = fold(text.charAt(i));
+            int next = child(state, c);
+            while (next == NONE && state != 0) {
+                state = failure[state];
+                next = child(state, c);
+            }
+            state = next == NONE ? 0 : next;
+
+            // Longest keyword ending here first, shorter suffixes along the output links
+            for (int node = keywordAt[state] != NONE ? state : outputLink[state]; node != NONE; node = outputLink[node]) {
+                int keyword = keywordAt[node];
+                int end = i + 1;
+                handler.onMatch(end - keywordLengths[keyword], end, values.get(keyword));
+            }
+        }
+    }
+
+    /**
+     * All keyword occurrences, in {@link #scan} order.
+     */
+    public List<Match<T>> findAll(CharSequence text) {
+        List<Match<T>> matches = new ArrayList<>();
+        scan(text, (start, end, value) -> matches.add(new Match<>(start, end, value)));
+        return matches;
+    }
+
+    private int child(int node, char c) {
+        char[] labels = edgeLabels[node];
+        int low = 0;
+        int high = labels.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (labels[mid] < c) {
+                low = mid + 1;
+            } else if (labels[mid] > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[node][mid];
+            }
+        }
+        return NONE;
+    }
+
+    private char fold(char c) {
+        return switch (caseFolding) {
+            case NONE -> c;
+            case ASCII -> c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            case FULL -> Character.toLowerCase(c);
+        };
+    }
+
+    private enum CaseFolding {
+        NONE, ASCII, FULL
+    }
+
+    @FunctionalInterface
+    public interface MatchHandler<T> {
+        /**
+         * @param start index of the keyword's first char
+         * @param end   index after its last char
+         */
+        void onMatch(int start, int end, T value);
+    }
+
+    public record Match<T>(int start, int end, T value) {
+
+        public int length() {
+            return end - start;
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final List<String> keywords = new ArrayList<>();
+        private final List<T> values = new ArrayList<>();
+        private CaseFolding caseFolding = CaseFolding.NONE;
+
+        private Builder() {
+        }
+
+        /**
+         * Add a keyword. If the same keyword is added twice, the first value wins.
+         */
+        public Builder<T> add(String keyword, T value) {
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be empty");
+            }
+            keywords.add(keyword);
+            values.add(value);
+            return this;
+        }
+
+        /**
+         * Match A-Z and a-z as the same letter (like {@code Pattern.CASE_INSENSITIVE});
+         * other characters are compared exactly.
+         */
+        public Builder<T> asciiCaseInsensitive() {
+            this.caseFolding = CaseFolding.ASCII;
+            return this;
+        }
+
+        /**
+         * Compare chars by {@link Character#toLowerCase(char)}. Folding is char by char, so
+         * match positions are positions in the original text.
+         */
+        public Builder<T> caseInsensitive() {
+            this.caseFolding = CaseFolding.FULL;
+            return this;
+        }
+
+        public KeywordMatcher<T> build() {
+            return new KeywordMatcher<>(this);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.samir.pricecomparator.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits until a browser page is actually ready instead of sleeping a fixed time.
+ *
+ * A page is ready when all signals have been quiet for the quiet period:
+ * <ul>
+ *   <li>{@code document.readyState} is {@code complete}</li>
+ *   <li>the product selector matches at least one element and the count stopped changing</li>
+ *   <li>a MutationObserver on the document saw no DOM changes</li>
+ *   <li>the DevTools network monitor saw no request activity</li>
+ * </ul>
+ * The quiet period is measured from the start of each wait, so a wait right after a
+ * click or scroll always gives the page the chance to react.
+ */
+@Slf4j
+public final class PageReadiness {
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    // Installs the observer once per document and reports [readyState, productCount, msSinceMutation]
+    private static final String PROBE_SCRIPT = """
+            if (!window.__pcMutationObserver) {
+              window.__pcLastMutation = Date.now();
+              window.__pcMutationObserver = new MutationObserver(() => { window.__pcLastMutation = Date.now(); });
+              window.__pcMutationObserver.observe(document.documentElement, {childList: true, subtree: true});
+            }
+            const selector = arguments[0];
+            return [document.readyState,
+                    selector ? document.querySelectorAll(selector).length : -1,
+                    Date.now() - window.__pcLastMutation];
+            """;
+
+    private PageReadiness() {
+    }
+
+    /**
+     * @param productSelector CSS selector of product items, or null if the page has no product list
+     * @return the outcome; a timed-out wait is not an error, the page is used as it is
+     */
+    public static Outcome await(SeleniumWebDriverManager.DriverLease lease, String productSelector,
+                                Duration quietPeriod, Duration timeout) throws InterruptedException {
+        JavascriptExecutor js = (JavascriptExecutor) lease.driver();
+        long quietMs = quietPeriod.toMillis();
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+
+        long lastCount = Long.MIN_VALUE;
+        long countStableSince = start;
+        while (true) {
+            List<?> probe = (List<?>) js.executeScript(PROBE_SCRIPT, productSelector);
+            long now = System.nanoTime();
+            String readyState = String.valueOf(probe.get(0));
+            long count = ((Number) probe.get(1)).longValue();
+            long sinceMutationMs = ((Number) probe.get(2)).longValue();
+
+            if (count != lastCount) {
+                lastCount = count;
+                countStableSince = now;
+            }
+
+            boolean ready = "complete".equals(readyState)
+                    && (productSelector == null || count > 0)
+                    && TimeUnit.NANOSECONDS.toMillis(now - countStableSince) >= quietMs
+                    && sinceMutationMs >= quietMs
+                    && lease.millisSinceNetworkActivity() >= quietMs;
+            if (ready || now >= deadline) {
+                Outcome outcome = new Outcome(ready, (int) Math.max(count, 0), now - start);
+                log.debug("Page {} after {}ms ({} products)", ready ? "ready" : "not ready (timeout)",
+                        TimeUnit.NANOSECONDS.toMillis(outcome.waitedNanos()), outcome.productCount());
+                return outcome;
+            }
+            TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MS);
+        }
+    }
+
+    /**
+     * @param ready        false if the timeout elapsed first
+     * @param productCount matches of the product selector at the end of the wait (0 without selector)
+     * @param waitedNanos  time spent waiting
+     */
+    public record Outcome(boolean ready, int productCount, long waitedNanos) {
+    }
+}
@@ -1,5 +1,9 @@
 package com.samir.pricecomparator.util;
 
+import com.samir.pricecomparator.config.ScrapingProperties;
+import com.samir.pricecomparator.metrics.ScraperMetricsService;
+import com.samir.pricecomparator.service.scraper.fetch.ShopResilience;
+import com.samir.pricecomparator.service.scraper.fetch.ShopUnavailableException;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
@@ -9,8 +13,32 @@ import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PreDestroy;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+/**
+ * Bounded pool of warm headless Chrome instances.
+ *
+ * Callers lease a browser with {@link #acquire(String)} and give it back by closing the lease.
+ * At most {@code scraping.selenium.pool.max-size} browsers exist at once; extra callers
+ * wait up to {@code acquire-timeout}. Idle browsers are health-checked before reuse and
+ * recycled after {@code max-pages-per-driver} leases so Chrome memory growth stays bounded.
+ *
+ * Each browser gets a DevTools session that blocks the leasing shop's
+ * {@code blocked-resource-types} and {@code blocked-url-patterns}, so images, fonts
+ * and trackers are never downloaded.
+ *
+ * A lease also holds a slot of the shop's browser bulkhead and counts towards its circuit
+ * breaker ({@link ShopResilience}), so one hanging shop cannot occupy every browser.
+ */
 @Slf4j
 @Component
 public class SeleniumWebDriverManager {
@@ -18,15 +46,135 @@ public class SeleniumWebDriverManager {
     private static final int PAGE_LOAD_TIMEOUT_SECONDS = 30;
     private static final int IMPLICIT_WAIT_SECONDS = 10;
 
-    private final ConcurrentHashMap<Long, WebDriver> drivers = new ConcurrentHashMap<>();
+    private final ScrapingProperties scrapingProperties;
+    private final ScrapingProperties.Pool poolConfig;
+    private final ScraperMetricsService scraperMetrics;
+    private final ShopResilience shopResilience;
 
-    public WebDriver getDriver() {
-        long threadId = Thread.currentThread().threadId();
-        return drivers.computeIfAbsent(threadId, id -> createDriver());
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledDriver> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledDriver> allDrivers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger leased = new AtomicInteger(0);
+    private volatile boolean shutdown;
+
+    public SeleniumWebDriverManager(ScrapingProperties scrapingProperties,
+                                    ScraperMetricsService scraperMetrics,
+                                    ShopResilience shopResilience) {
+        this.scrapingProperties = scrapingProperties;
+        this.poolConfig = scrapingProperties.getSelenium().getPool();
+        this.scraperMetrics = scraperMetrics;
+        this.shopResilience = shopResilience;
+        this.permits = new Semaphore(Math.max(1, poolConfig.getMaxSize()), true);
+        scraperMetrics.registerWebDriverPool(leased::get, idle::size);
+    }
+
+    /**
+     * Lease a browser from the pool, waiting if all browsers are busy.
+     *
+     * @param shopCode shop the browser is used for; selects its request block lists
+     * @throws ShopUnavailableException if the shop's circuit breaker is open or its browser
+     *                                  bulkhead is full; passed through so callers fail fast
+     * @throws IllegalStateException    if no browser becomes free within the acquire timeout
+     */
+    public DriverLease acquire(String shopCode) throws ShopUnavailableException {
+        if (shutdown) {
+            throw new IllegalStateException("WebDriver pool is shut down");
+        }
+
+        // Shop slot first: a shop waiting on its own cap must not hold a pool permit
+        ShopResilience.BrowserPermit shopPermit = shopResilience.acquireBrowser(shopCode);
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(poolConfig.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                scraperMetrics.recordWebDriverPoolEvent("acquire_timeout");
+                shopPermit.release(false);
+                throw new IllegalStateException("Timed out waiting for a free WebDriver after "
+                        + poolConfig.getAcquireTimeout().toSeconds() + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shopPermit.release(false);
+            throw new IllegalStateException("Interrupted while waiting for a WebDriver", e);
+        }
+        scraperMetrics.recordWebDriverWait(System.nanoTime() - waitStart);
+
+        try {
+            PooledDriver pooled = takeHealthyIdleDriver();
+            if (pooled == null) {
+                WebDriver driver = createDriver();
+                pooled = new PooledDriver(driver, BrowserNetworkMonitor.attach(driver, scraperMetrics));
+                allDrivers.add(pooled);
+                scraperMetrics.recordWebDriverPoolEvent("created");
+            }
+            applyBlockLists(pooled, shopCode);
+            leased.incrementAndGet();
+            return new DriverLease(pooled, shopCode, shopPermit);
+        } catch (RuntimeException e) {
+            permits.release();
+            // Chrome failed to start - not the shop's fault
+            shopPermit.release(false);
+            throw e;
+        }
+    }
+
+    private void applyBlockLists(PooledDriver pooled, String shopCode) {
+        pooled.network.ifPresent(network -> {
+            ScrapingProperties.ShopSettings settings = scrapingProperties.forShop(shopCode);
+            network.resetActivity();
+            try {
+                network.applyBlockLists(shopCode, settings.getBlockedResourceTypes(), settings.getBlockedUrlPatterns());
+            } catch (Exception e) {
+                // Blocking is an optimization; the page still loads without it
+                log.warn("Failed to apply request block list for {}: {}", shopCode, e.getMessage());
+            }
+        });
+    }
+
+    private PooledDriver takeHealthyIdleDriver() {
+        PooledDriver pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isHealthy(pooled)) {
+                return pooled;
+            }
+            log.warn("Discarding unhealthy WebDriver from pool");
+            scraperMetrics.recordWebDriverPoolEvent("unhealthy");
+            quitQuietly(pooled);
+        }
+        return null;
+    }
+
+    private boolean isHealthy(PooledDriver pooled) {
+        try {
+            // Cheap round-trip to chromedriver; fails if the browser or session died
+            return !pooled.driver.getWindowHandles().isEmpty();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void release(PooledDriver pooled, boolean invalid) {
+        leased.decrementAndGet();
+        try {
+            pooled.pagesServed++;
+            if (shutdown || invalid) {
+                quitQuietly(pooled);
+            } else if (pooled.pagesServed >= poolConfig.getMaxPagesPerDriver()) {
+                log.debug("Recycling WebDriver after {} pages", pooled.pagesServed);
+                scraperMetrics.recordWebDriverPoolEvent("recycled");
+                quitQuietly(pooled);
+            } else {
+                // LIFO: the most recently used browser has the warmest caches
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
     }
 
     private WebDriver createDriver() {
-        log.info("Creating new Chrome WebDriver instance for thread {}", Thread.currentThread().threadId());
+        log.info("Creating new Chrome WebDriver instance ({} alive, pool max {})",
+                allDrivers.size(), poolConfig.getMaxSize());
 
       ChromeOptions options = getChromeOptions();
 
@@ -88,43 +236,157 @@ public class SeleniumWebDriverManager {
     return options;
   }
 
-  /**
-     * Close the WebDriver for the current thread
-     */
-    public void closeDriver() {
-        long threadId = Thread.currentThread().threadId();
-        WebDriver driver = drivers.remove(threadId);
-        if (driver != null) {
-            try {
-                driver.quit();
-                log.info("Closed WebDriver instance for thread {}", threadId);
-            } catch (Exception e) {
-                log.warn("Error closing WebDriver: {}", e.getMessage());
-            }
-        }
-    }
-
     /**
      * Close all WebDriver instances (called on application shutdown)
      */
     @PreDestroy
     public void closeAllDrivers() {
         log.info("Shutting down all WebDriver instances");
-        drivers.forEach((threadId, driver) -> {
-            try {
-                driver.quit();
-                log.info("Closed WebDriver for thread {}", threadId);
-            } catch (Exception e) {
-                log.warn("Error closing WebDriver for thread {}: {}", threadId, e.getMessage());
-            }
-        });
-        drivers.clear();
+        shutdown = true;
+        idle.clear();
+        allDrivers.forEach(this::quitQuietly);
+        allDrivers.clear();
     }
 
     /**
-     * Get the number of active WebDriver instances
+     * Get the number of Chrome instances currently alive (leased + idle)
      */
     public int getActiveDriverCount() {
-        return drivers.size();
+        return allDrivers.size();
+    }
+
+    public int getLeasedDriverCount() {
+        return leased.get();
+    }
+
+    public int getIdleDriverCount() {
+        return idle.size();
+    }
+
+    private void quitQuietly(PooledDriver pooled) {
+        allDrivers.remove(pooled);
+        try {
+            pooled.driver.quit();
+            log.info("Closed WebDriver instance after {} pages", pooled.pagesServed);
+        } catch (Exception e) {
+            log.warn("Error closing WebDriver: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledDriver {
+        private final WebDriver driver;
+        private final Optional<BrowserNetworkMonitor> network;
+        private int pagesServed;
+
+        private PooledDriver(WebDriver driver, Optional<BrowserNetworkMonitor> network) {
+            this.driver = driver;
+            this.network = network;
+        }
+    }
+
+    /**
+     * An XHR/fetch request observed in the browser
+     */
+    public record CapturedRequest(String method, String url) {
+    }
+
+    /**
+     * A browser borrowed from the pool. Must be closed (try-with-resources) so the
+     * browser goes back to the pool; call {@link #invalidate()} first if the browser
+     * is in a bad state and should be discarded instead of reused.
+     */
+    public final class DriverLease implements AutoCloseable {
+
+        private final PooledDriver pooled;
+        private final String shopCode;
+        private final ShopResilience.BrowserPermit shopPermit;
+        private final long leasedAtNanos = System.nanoTime();
+        private final long bytesAtLease;
+        private final List<Consumer<DriverLease>> closeListeners = new ArrayList<>();
+        private boolean invalid;
+        private boolean closed;
+
+        private DriverLease(PooledDriver pooled, String shopCode, ShopResilience.BrowserPermit shopPermit) {
+            this.pooled = pooled;
+            this.shopCode = shopCode;
+            this.shopPermit = shopPermit;
+            this.bytesAtLease = pooled.network.map(BrowserNetworkMonitor::transferredBytes).orElse(0L);
+        }
+
+        public WebDriver driver() {
+            return pooled.driver;
+        }
+
+        /**
+         * Milliseconds the browser's network has been quiet; 0 while requests are loading.
+         * Without a DevTools session the network is always reported as quiet.
+         */
+        public long millisSinceNetworkActivity() {
+            return pooled.network.map(BrowserNetworkMonitor::millisSinceActivity).orElse(Long.MAX_VALUE);
+        }
+
+        /**
+         * Wait until the current page is ready, bounded by the shop's {@code page-ready-timeout}.
+         *
+         * @param productSelector CSS selector of product items, or null
+         * @see PageReadiness
+         */
+        public PageReadiness.Outcome awaitReady(String productSelector) throws InterruptedException {
+            ScrapingProperties.ShopSettings settings = scrapingProperties.forShop(shopCode);
+            PageReadiness.Outcome outcome = PageReadiness.await(this, productSelector,
+                    settings.getPageQuietPeriod(), settings.getPageReadyTimeout());
+            scraperMetrics.recordPageReadyWait(shopCode, outcome.ready(), outcome.waitedNanos());
+            return outcome;
+        }
+
+        /**
+         * XHR/fetch requests the page sent since the previous call (or since the lease began).
+         * Empty without a DevTools session.
+         */
+        public List<CapturedRequest> drainXhrRequests() {
+            return pooled.network.map(BrowserNetworkMonitor::drainCapturedRequests).orElse(List.of());
+        }
+
+        public void invalidate() {
+            invalid = true;
+        }
+
+        /**
+         * Nanoseconds since the browser was leased.
+         */
+        public long heldNanos() {
+            return System.nanoTime() - leasedAtNanos;
+        }
+
+        /**
+         * Network bytes the browser received during this lease; 0 without a DevTools session.
+         */
+        public long transferredBytes() {
+            return pooled.network.map(BrowserNetworkMonitor::transferredBytes).orElse(bytesAtLease) - bytesAtLease;
+        }
+
+        /**
+         * Run {@code listener} when the lease is closed, before the browser goes back to the pool.
+         */
+        public void onClose(Consumer<DriverLease> listener) {
+            closeListeners.add(listener);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Consumer<DriverLease> listener : closeListeners) {
+                try {
+                    listener.accept(this);
+                } catch (RuntimeException e) {
+                    log.debug("Lease close listener failed: {}", e.getMessage());
+                }
+            }
+            release(pooled, invalid);
+            shopPermit.release(invalid);
+        }
     }
 }
@@ -1,35 +1,310 @@
 package com.samir.pricecomparator.util;
 
 import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * Text normalization for product names: lowercase ASCII letters and digits separated by
+ * spaces, diacritics folded ("Göy" → "goy").
+ *
+ * Each call is one pass over the text through a per-char fold table computed at class
+ * load, writing into a single buffer. {@link #normalize(String)} gives exactly the output of
+ * the original regex pipeline (NFD, strip marks, lowercase, collapse {@code \s+}, then
+ * every other non-alphanumeric char becomes one space), so stored normalized names still
+ * compare equal. {@link #normalizeTransliterated(String)} additionally spells ə, ı and
+ * Cyrillic letters in Latin where the original pipeline drops them as separators.
+ */
 public class TextNormalizationUtil {
 
+    /** Fold table codes; anything else is the output char itself */
+    private static final char REMOVED = '\u0000';
+    private static final char WHITESPACE = '\u0001';
+    private static final char EXPANSION = '\u0002';
+    private static final char SEPARATOR = ' ';
+
+    /** Latin spelling of letters the original pipeline turns into separators */
+    private static final Map<Character, String> TRANSLITERATIONS = Map.ofEntries(
+            // Azerbaijani Latin
+            Map.entry('ə', "e"), Map.entry('ı', "i"),
+            // Russian
+            Map.entry('а', "a"), Map.entry('б', "b"), Map.entry('в', "v"), Map.entry('г', "g"),
+            Map.entry('д', "d"), Map.entry('е', "e"), Map.entry('ё', "e"), Map.entry('ж', "zh"),
+            Map.entry('з', "z"), Map.entry('и', "i"), Map.entry('й', "y"), Map.entry('к', "k"),
+            Map.entry('л', "l"), Map.entry('м', "m"), Map.entry('н', "n"), Map.entry('о', "o"),
+            Map.entry('п', "p"), Map.entry('р', "r"), Map.entry('с', "s"), Map.entry('т', "t"),
+            Map.entry('у', "u"), Map.entry('ф', "f"), Map.entry('х', "kh"), Map.entry('ц', "ts"),
+            Map.entry('ч', "ch"), Map.entry('ш', "sh"), Map.entry('щ', "shch"), Map.entry('ъ', ""),
+            Map.entry('ы', "y"), Map.entry('ь', ""), Map.entry('э', "e"), Map.entry('ю', "yu"),
+            Map.entry('я', "ya"),
+            // Azerbaijani Cyrillic
+            Map.entry('ә', "e"), Map.entry('ғ', "g"), Map.entry('ҝ', "g"), Map.entry('ҹ', "c"),
+            Map.entry('һ', "h"), Map.entry('ј', "y"), Map.entry('ө', "o"), Map.entry('ү', "u"),
+            // Ukrainian
+            Map.entry('і', "i"), Map.entry('ї', "yi"), Map.entry('є', "ye"), Map.entry('ґ', "g")
+    );
+
+    private static final FoldTable LEGACY = FoldTable.build(false);
+    /** Derived from the table itself, so a JDK with newer Unicode data also changes it */
+    private static final long RULES_VERSION = LEGACY.hash();
+
     private TextNormalizationUtil() {
     }
 
     public static String normalize(String text) {
+        return fold(text, LEGACY);
+    }
+
+    /**
+     * Changes whenever {@link #normalize(String)} output can change; cached results from
+     * other rules are stale.
+     */
+    public static long rulesVersion() {
+        return RULES_VERSION;
+    }
+
+    /**
+     * Like {@link #normalize(String)}, but with ə, ı and Cyrillic letters transliterated
+     * ("Qırmızı" → "qirmizi", "Смартфон" → "smartfon"). Not interchangeable with
+     * normalize: do not compare its output with stored normalized names.
+     */
+    public static String normalizeTransliterated(String text) {
+        return fold(text, Transliterated.TABLE);
+    }
+
+    /**
+     * Append the {@link #normalize(String)} form of the text to a caller-owned buffer, so
+     * a loop can reuse one buffer (and compare with {@link String#contentEquals(CharSequence)})
+     * instead of allocating a String per call.
+     */
+    public static void normalize(CharSequence text, StringBuilder out) {
+        fold(text, out, LEGACY);
+    }
+
+    public static void normalizeTransliterated(CharSequence text, StringBuilder out) {
+        fold(text, out, Transliterated.TABLE);
+    }
+
+    public static String extractCleanName(String title) {
+        String normalized = normalize(title);
+
+        normalized = normalized.replaceAll("\\b(new|used|original|authentic|official)\\b", "");
+
+        return normalized.trim();
+    }
+
+    private static String fold(String text, FoldTable table) {
         if (text == null || text.isBlank()) {
             return "";
         }
+        StringBuilder out = new StringBuilder(text.length());
+        fold(text, out, table);
+        return out.toString();
+    }
+
+    /**
+     * Whitespace runs count as one separator, every other non-alphanumeric char as one
+     * separator each; separators are written only between alphanumerics (no trim pass).
+     */
+    private static void fold(CharSequence text, StringBuilder out, FoldTable table) {
+        if (text == null) {
+            return;
+        }
+        boolean written = false;
+        boolean inWhitespace = false;
+        int separators = 0;
 
-        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
-        normalized = normalized.replaceAll("\\p{M}", "");
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            char code;
+            String expansion = null;
+            if (Character.isSurrogate(c)) {
+                int codePoint = Character.codePointAt(text, i);
+                i += Character.charCount(codePoint) - 1;
+                expansion = FoldTable.foldCodePoint(codePoint);
+                code = expansion.isEmpty() ? REMOVED : EXPANSION;
+            } else {
+                code = table.codes[c];
+                if (code == EXPANSION) {
+                    expansion = table.expansion(c);
+                }
+            }
 
-        normalized = normalized.toLowerCase().trim();
+            int parts = code == EXPANSION ? expansion.length() : 1;
+            for (int k = 0; k < parts; k++) {
+                char part = code == EXPANSION ? expansion.charAt(k) : code;
+                if (part == REMOVED) {
+                    continue;
+                }
+                if (part == WHITESPACE) {
+                    if (!inWhitespace) {
+                        separators++;
+                        inWhitespace = true;
+                    }
+                    continue;
+                }
+                if (part == SEPARATOR) {
+                    separators++;
+                } else {
+                    if (written) {
+                        for (int s = 0; s < separators; s++) {
+                            out.append(SEPARATOR);
+                        }
+                    }
+                    out.append(part);
+                    written = true;
+                    separators = 0;
+                }
+                inWhitespace = false;
+            }
+        }
+    }
 
-        normalized = normalized.replaceAll("\\s+", " ");
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+    }
 
-        normalized = normalized.replaceAll("[^a-z0-9\\s]", " ");
+    /** The {@code \s} class: ASCII whitespace only */
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
 
-        return normalized.trim();
+    /** Built on first use; most callers only need the legacy table */
+    private static final class Transliterated {
+        static final FoldTable TABLE = FoldTable.build(true);
     }
 
+    /**
+     * Per-char fold codes for the BMP, plus the multi-char folds (Hangul syllables,
+     * transliterations) in a sorted side table.
+     */
+    private static final class FoldTable {
 
-    public static String extractCleanName(String title) {
-        String normalized = normalize(title);
+        private final char[] codes;
+        private final char[] expansionKeys;
+        private final String[] expansionValues;
 
-        normalized = normalized.replaceAll("\\b(new|used|original|authentic|official)\\b", "");
+        private FoldTable(char[] codes, char[] expansionKeys, String[] expansionValues) {
+            this.codes = codes;
+            this.expansionKeys = expansionKeys;
+            this.expansionValues = expansionValues;
+        }
 
-        return normalized.trim();
+        static FoldTable build(boolean transliterate) {
+            char[] codes = new char[Character.MAX_VALUE + 1];
+            TreeMap<Character, String> expansions = new TreeMap<>();
+            for (int c = 0; c <= Character.MAX_VALUE; c++) {
+                char ch = (char) c;
+                if (Character.isSurrogate(ch)) {
+                    continue;
+                }
+                if (isUncasedWithoutDecomposition(ch)) {
+                    codes[c] = SEPARATOR;
+                    continue;
+                }
+                String folded = transliterate ? transliterate(ch) : foldCodePoint(ch);
+                if (folded.isEmpty()) {
+                    codes[c] = REMOVED;
+                } else if (folded.length() > 1) {
+                    codes[c] = EXPANSION;
+                    expansions.put(ch, folded);
+                } else if (folded.charAt(0) == WHITESPACE) {
+                    codes[c] = WHITESPACE;
+                } else {
+                    codes[c] = folded.charAt(0);
+                }
+            }
+
+            char[] keys = new char[expansions.size()];
+            String[] values = new String[expansions.size()];
+            int i = 0;
+            for (Map.Entry<Character, String> expansion : expansions.entrySet()) {
+                keys[i] = expansion.getKey();
+                values[i++] = expansion.getValue();
+            }
+            return new FoldTable(codes, keys, values);
+        }
+
+        /**
+         * CJK ideographs: no decomposition and no case, so always one separator. Skipping
+         * the {@link Normalizer} call for these ~21k chars halves the table build.
+         */
+        private static boolean isUncasedWithoutDecomposition(char c) {
+            return c >= '\u4E00' && c <= '\u9FFF';
+        }
+
+        long hash() {
+            return 31L * Arrays.hashCode(codes) + Arrays.hashCode(expansionValues);
+        }
+
+        String expansion(char c) {
+            return expansionValues[Arrays.binarySearch(expansionKeys, c)];
+        }
+
+        private static String transliterate(char c) {
+            String latin = TRANSLITERATIONS.get(Character.toLowerCase(c));
+            if (latin != null) {
+                return latin;
+            }
+            String base = baseLowercase(c);
+            StringBuilder result = new StringBuilder(base.length());
+            for (int i = 0; i < base.length(); i++) {
+                String part = TRANSLITERATIONS.get(base.charAt(i));
+                result.append(part != null ? part : classify(base.codePointAt(i)));
+                i += Character.charCount(base.codePointAt(i)) - 1;
+            }
+            return result.toString();
+        }
+
+        /**
+         * What the original pipeline makes of one code point on its own. The pipeline never
+         * looks across code points once marks are gone, so folding char by char gives the
+         * same result as folding the whole text.
+         */
+        static String foldCodePoint(int codePoint) {
+            String base = baseLowercase(codePoint);
+            StringBuilder result = new StringBuilder(base.length());
+            for (int i = 0; i < base.length(); i += Character.charCount(base.codePointAt(i))) {
+                result.append(classify(base.codePointAt(i)));
+            }
+            return result.toString();
+        }
+
+        /**
+         * NFD, marks removed, lowercased (default locale, as before).
+         */
+        private static String baseLowercase(int codePoint) {
+            String decomposed = Normalizer.normalize(Character.toString(codePoint), Normalizer.Form.NFD);
+            StringBuilder base = new StringBuilder(decomposed.length());
+            for (int i = 0; i < decomposed.length(); i += Character.charCount(decomposed.codePointAt(i))) {
+                int cp = decomposed.codePointAt(i);
+                if (!isMark(cp)) {
+                    base.appendCodePoint(cp);
+                }
+            }
+            return base.toString().toLowerCase();
+        }
+
+        /**
+         * Kept if a-z/0-9, {@link #WHITESPACE} if {@code \s}, otherwise a separator.
+         */
+        private static char classify(int codePoint) {
+            if (codePoint > Character.MAX_VALUE) {
+                return SEPARATOR;
+            }
+            char c = (char) codePoint;
+            if (isAlphanumeric(c)) {
+                return c;
+            }
+            return isRegexWhitespace(c) ? WHITESPACE : SEPARATOR;
+        }
+
+        private static boolean isMark(int codePoint) {
+            int type = Character.getType(codePoint);
+            return type == Character.NON_SPACING_MARK
+                    || type == Character.ENCLOSING_MARK
+                    || type == Character.COMBINING_SPACING_MARK;
+        }
     }
 }
@@ -0,0 +1,131 @@
+package com.samir.pricecomparator.benchmark;
+
+import com.samir.pricecomparator.util.BrandModelParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential regex cascade ({@link LegacyBrandModelParser}) versus keyword dispatch
+ * ({@link BrandModelParser}) over a corpus of listing titles as the shops publish them:
+ * phones from every supported brand, late-cascade brands, and accessories and other
+ * categories that mention no brand or only a brand without a model.
+ *
+ * Setup fails if the two parsers disagree on any title. Run with {@code -prof gc} to
+ * compare allocation per operation (see README, Running Benchmarks).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BrandModelParserBenchmark {
+
+    public static final List<String> TITLES = List.of(
+            "Apple iPhone 15 Pro Max 256GB Natural Titanium",
+            "Smartfon Apple iPhone 13 128GB Midnight",
+            "iPhone 16 Plus 128 GB Ultramarine",
+            "Apple iPhone SE 2022 64GB (PRODUCT)RED",
+            "Apple iPhone 14 Pro 1TB Deep Purple",
+            "Samsung Galaxy S24 Ultra 12/256GB Titanium Black",
+            "Smartfon Samsung Galaxy A55 5G 8/256GB Awesome Navy",
+            "Samsung Galaxy Z Fold6 12/512GB Silver Shadow",
+            "Samsung Galaxy Z Flip5 8/256 GB Mint",
+            "Samsung Galaxy S23 Plus 8/512GB Cream",
+            "Galaxy A15 4/128GB Blue Black",
+            "Xiaomi Redmi Note 13 Pro 8/256GB Midnight Black",
+            "Xiaomi 14T Pro 12/512GB Titan Gray",
+            "Redmi 13C 4/128GB Navy Blue",
+            "Smartfon Xiaomi Redmi A3 3/64GB Midnight Black",
+            "POCO X6 Pro 5G 12/512GB Yellow",
+            "Xiaomi Poco F6 8/256GB Titanium",
+            "Poco M6 Pro 8/256GB Purple",
+            "Huawei P60 Pro 8/256GB Rococo Pearl",
+            "HUAWEI Mate 50 Pro 8/512GB Silver Black",
+            "Huawei nova 12i 8/128GB Green",
+            "Honor Magic6 Pro 12/512GB Black",
+            "Honor X9b 12/256GB Sunrise Orange",
+            "Honor 90 Lite 8/256GB Cyan Lake",
+            "OPPO Reno 11 F 5G 8/256GB Palm Green",
+            "Oppo A78 8/256GB Glowing Black",
+            "Oppo Find X5 Pro 12/256GB Ceramic White",
+            "Vivo Y36 8/256GB Meteor Black",
+            "vivo V30 Lite 8/256GB Crystal Black",
+            "Realme C67 8/256GB Sunny Oasis",
+            "Realme GT 6 12/256GB Fluid Silver",
+            "realme 12 Pro+ 5G 12/512GB Navigator Beige",
+            "Tecno Spark Go 2024 4/128GB Gravity Black",
+            "TECNO Camon 30 Pro 5G 12/512GB Basaltic Dark",
+            "Tecno Pova 6 Pro 5G 12/256GB Comet Green",
+            "Tecno Phantom X2 Pro 12/256GB Mars Orange",
+            "Infinix Hot 40 Pro 8/256GB Palm Blue",
+            "Infinix Note 40 Pro 8/256GB Titan Gold",
+            "Infinix Smart 8 4/128GB Galaxy White",
+            "Motorola Moto G84 5G 12/256GB Marshmallow Blue",
+            "Motorola Edge 50 Fusion 5G 12/512GB Forest Blue",
+            "Motorola Moto E13 2/64GB Cosmic Black",
+            "Motorola Razr 40 Ultra 8/256GB Infinite Black",
+            "Mobil telefon Nokia 105 (2023) Charcoal",
+            "Google Pixel 8 Pro 12/128GB Obsidian",
+            "Qoruyucu şüşə iPhone 15 üçün 9H",
+            "Samsung Galaxy Watch6 44mm Graphite",
+            "Xiaomi Redmi Buds 5 Pro Midnight Black",
+            "Silikon örtük Samsung Galaxy A35 üçün qara",
+            "Apple AirPods Pro (2nd generation) USB-C",
+            "Simsiz qulaqlıq JBL Tune 520BT Black",
+            "Planşet Samsung Galaxy Tab S9 FE 6/128GB Gray",
+            "Noutbuk Lenovo IdeaPad Slim 3 15IRU8 i5/16/512",
+            "Televizor Samsung UE55CU7100UXRU 55\" 4K",
+            "Şarj cihazı Xiaomi 67W Turbo Charger",
+            "Huawei Watch GT 4 46mm Brown Leather",
+            "Kabel Baseus USB-C to Lightning 1m",
+            "Tozsoran Dyson V15 Detect Absolute",
+            "Honor Pad 9 8/256GB Space Gray",
+            "Смартфон Xiaomi Redmi Note 12 8/256GB Ice Blue"
+    );
+
+    private LegacyBrandModelParser legacy;
+    private BrandModelParser dispatch;
+
+    @Setup
+    public void setUp() {
+        legacy = new LegacyBrandModelParser();
+        dispatch = new BrandModelParser();
+        for (String title : TITLES) {
+            LegacyBrandModelParser.BrandModelResult expected = legacy.parse(title);
+            BrandModelParser.BrandModelResult actual = dispatch.parse(title);
+            if (!Objects.equals(expected.getBrand(), actual.getBrand())
+                    || !Objects.equals(expected.getModel(), actual.getModel())) {
+                throw new IllegalStateException("Parsers disagree on \"" + title + "\": "
+                        + expected + " vs " + actual);
+            }
+        }
+    }
+
+    @Benchmark
+    public void regexCascade(Blackhole blackhole) {
+        for (String title : TITLES) {
+            blackhole.consume(legacy.parse(title));
+        }
+    }
+
+    @Benchmark
+    public void keywordDispatch(Blackhole blackhole) {
+        for (String title : TITLES) {
+            blackhole.consume(dispatch.parse(title));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.samir.pricecomparator.benchmark;
+
+import com.samir.pricecomparator.service.scraper.extract.StreamingHtmlExtractor;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full {@code Jsoup.parse} + {@code select} versus {@link StreamingHtmlExtractor} on a page
+ * shaped like Irshad after ten "Load More" clicks: 240 product cards inside a large
+ * layout (mega menu, inline scripts, footer).
+ *
+ * Run with {@code -prof gc} to compare allocation per operation (see README, Running Benchmarks).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlExtractionBenchmark {
+
+    private static final String PRODUCT_SELECTOR = ".product";
+
+    private String pageSource;
+
+    @Setup
+    public void setUp() {
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><title>Mobil telefonlar</title>");
+        for (int i = 0; i < 20; i++) {
+            html.append("<script>window.__config").append(i).append(" = {\"data\":\"")
+                    .append("x".repeat(5000)).append("\"};</script>");
+        }
+        html.append("</head><body><header><nav class=\"mega-menu\"><ul>");
+        for (int i = 0; i < 500; i++) {
+            html.append("<li><a href=\"/az/kateqoriya/").append(i).append("\">Kateqoriya ").append(i)
+                    .append("</a><ul><li><a href=\"/az/alt/").append(i).append("\">Alt ").append(i)
+                    .append("</a></li></ul></li>");
+        }
+        html.append("</ul></nav></header><main><div class=\"products-grid\">");
+        for (int i = 0; i < 240; i++) {
+            html.append("<div class=\"product\"><a href=\"/az/mehsullar/apple-iphone-15-").append(i)
+                    .append("\">Apple iPhone 15 128GB Black ").append(i).append("</a>")
+                    .append("<img data-src=\"https://storage.irshad.az/products/").append(i).append(".webp\">")
+                    .append("<div class=\"product__price__current\">1 999 AZN 1 799 AZN</div>")
+                    .append("<button class=\"add-to-cart\">Səbətə at</button></div>");
+        }
+        html.append("</div><button id=\"loadMore\">Daha çox</button></main><footer>");
+        html.append("<p>").append("Footer mətni ".repeat(2000)).append("</p></footer></body></html>");
+        pageSource = html.toString();
+
+        List<String> expected = fullDocument();
+        List<String> actual = streaming();
+        if (expected.size() != 240 || !expected.equals(actual)) {
+            throw new IllegalStateException("Streaming extraction differs from the full document: "
+                    + actual.size() + " of " + expected.size() + " titles");
+        }
+    }
+
+    @Benchmark
+    public List<String> fullDocument() {
+        List<String> titles = new ArrayList<>();
+        for (Element item : Jsoup.parse(pageSource, "https://irshad.az/").select(PRODUCT_SELECTOR)) {
+            mapItem(item).ifPresent(titles::add);
+        }
+        return titles;
+    }
+
+    @Benchmark
+    public List<String> streaming() {
+        return StreamingHtmlExtractor.extract(pageSource, "https://irshad.az/", PRODUCT_SELECTOR,
+                HtmlExtractionBenchmark::mapItem);
+    }
+
+    private static Optional<String> mapItem(Element item) {
+        Element link = item.selectFirst("a[href*='/az/mehsullar/']");
+        return link == null ? Optional.empty() : Optional.of(link.text());
+    }
+}
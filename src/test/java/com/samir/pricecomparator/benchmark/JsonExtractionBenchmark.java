@@ -0,0 +1,122 @@
+package com.samir.pricecomparator.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samir.pricecomparator.service.scraper.extract.StreamingJsonExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tree walk ({@code readTree} + {@code path}) versus {@link StreamingJsonExtractor} on a
+ * Next.js {@code __NEXT_DATA__} payload shaped like Baku Electronics' (a small product
+ * list buried in translations, menus and SEO data) and on a Kontakt {@code data-gtm} attribute.
+ *
+ * Run with {@code -prof gc} to compare allocation per operation (see README, Running Benchmarks).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonExtractionBenchmark {
+
+    private static final String ITEMS_PATH = "props.pageProps.products.products.items";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private String nextData;
+    private String dataGtm;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("{\"props\":{\"pageProps\":{");
+        json.append("\"translations\":{");
+        for (int i = 0; i < 4000; i++) {
+            json.append(i == 0 ? "" : ",").append("\"key.").append(i).append("\":\"Tərcümə mətni nümunəsi ")
+                    .append(i).append('"');
+        }
+        json.append("},\"menu\":[");
+        for (int i = 0; i < 300; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i)
+                    .append(",\"title\":\"Kateqoriya ").append(i).append("\",\"children\":[{\"id\":").append(i * 10)
+                    .append(",\"slug\":\"alt-kateqoriya-").append(i).append("\"}]}");
+        }
+        json.append("],\"products\":{\"products\":{\"items\":[");
+        for (int i = 0; i < 24; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i)
+                    .append(",\"name\":\"Apple iPhone 15 Pro Max 256GB Natural Titanium ").append(i)
+                    .append("\",\"slug\":\"apple-iphone-15-pro-max-").append(i)
+                    .append("\",\"discounted_price\":").append(2499 + i)
+                    .append(",\"price\":").append(2799 + i)
+                    .append(",\"discount\":\"300\",\"quantity\":").append(i % 3)
+                    .append(",\"image\":\"/images/products/").append(i).append(".webp\"")
+                    .append(",\"attributes\":[{\"name\":\"Yaddaş\",\"value\":\"256GB\"}]}");
+        }
+        json.append("]}},\"seo\":{\"title\":\"Smartfonlar\",\"description\":\"").append("x".repeat(2000))
+                .append("\"}},\"__N_SSP\":true},\"page\":\"/catalog/[...slug]\",\"buildId\":\"abc123\"}");
+        nextData = json.toString();
+
+        dataGtm = "{\"item_id\":\"123456\",\"item_name\":\"Samsung Galaxy S24 Ultra 12/256GB Titanium Black\","
+                + "\"item_brand\":\"Samsung\",\"item_category\":\"Smartfonlar\",\"item_list_name\":\"Category\","
+                + "\"price\":2199.99,\"discount\":200,\"currency\":\"AZN\",\"index\":7,\"quantity\":1}";
+    }
+
+    @Benchmark
+    public void nextDataTreeWalk(Blackhole bh) throws Exception {
+        JsonNode items = MAPPER.readTree(nextData)
+                .path("props").path("pageProps").path("products").path("products").path("items");
+        for (JsonNode item : items) {
+            bh.consume(new Product(item.path("name").asText(), item.path("slug").asText(),
+                    item.path("discounted_price").asDouble(), item.path("price").asDouble(),
+                    item.path("discount").asText(), item.path("quantity").asInt(), item.path("image").asText()));
+        }
+    }
+
+    @Benchmark
+    public List<Product> nextDataStreaming() throws Exception {
+        return StreamingJsonExtractor.readArray(nextData, ITEMS_PATH, Product.class);
+    }
+
+    @Benchmark
+    public void dataGtmTreeWalk(Blackhole bh) throws Exception {
+        JsonNode gtm = MAPPER.readTree(dataGtm);
+        bh.consume(new GtmItem(gtm.path("item_name").asText(), gtm.path("price").asDouble(),
+                gtm.path("discount").asDouble(), gtm.path("item_brand").asText()));
+    }
+
+    @Benchmark
+    public GtmItem dataGtmStreaming() throws Exception {
+        return StreamingJsonExtractor.read(dataGtm, "", GtmItem.class).orElseThrow();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Product(String name,
+                          String slug,
+                          @JsonProperty("discounted_price") double discountedPrice,
+                          double price,
+                          String discount,
+                          int quantity,
+                          String image) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record GtmItem(@JsonProperty("item_name") String itemName,
+                          double price,
+                          double discount,
+                          @JsonProperty("item_brand") String itemBrand) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.samir.pricecomparator.benchmark;
+
+import com.samir.pricecomparator.util.TextNormalizationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The original NFD + regex pipeline versus the fold-table {@link TextNormalizationUtil},
+ * allocating a String per title and appending into one reused buffer, over the
+ * {@link BrandModelParserBenchmark} titles plus Azerbaijani and Russian ones.
+ *
+ * Setup fails if the two disagree on any title. Run with {@code -prof gc} to compare
+ * allocation per operation (see README, Running Benchmarks).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextNormalizationBenchmark {
+
+    public static final List<String> LOCAL_TITLES = List.of(
+            "Smartfon Samsung Galaxy A35 5G 8/256GB Qırmızı",
+            "Smartfon Apple iPhone 15 128GB Çəhrayı",
+            "Smartfon Xiaomi Redmi 13C 8/256GB Bənövşəyi",
+            "Smartfon Honor X8b 8/256GB Gümüşü — rəsmi zəmanət",
+            "Qoruyucu şüşə iPhone 15 Pro üçün (9H, tam örtük)",
+            "Mobil telefon Nokia 110 4G Göy",
+            "Смартфон Samsung Galaxy S24 8/256GB Чёрный",
+            "Смартфон Xiaomi Redmi Note 13 Pro+ 12/512 ГБ Фиолетовый",
+            "Наушники Apple AirPods Pro 2 (USB‑C), белые",
+            "  Apple  iPhone 14\t128GB  Starlight  "
+    );
+
+    private List<String> titles;
+    private StringBuilder buffer;
+
+    @Setup
+    public void setUp() {
+        titles = new ArrayList<>(BrandModelParserBenchmark.TITLES);
+        titles.addAll(LOCAL_TITLES);
+        buffer = new StringBuilder(256);
+        for (String title : titles) {
+            String expected = regexNormalize(title);
+            String actual = TextNormalizationUtil.normalize(title);
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException("Normalizers disagree on \"" + title + "\": \""
+                        + expected + "\" vs \"" + actual + "\"");
+            }
+        }
+    }
+
+    @Benchmark
+    public void regexPipeline(Blackhole blackhole) {
+        for (String title : titles) {
+            blackhole.consume(regexNormalize(title));
+        }
+    }
+
+    @Benchmark
+    public void foldTable(Blackhole blackhole) {
+        for (String title : titles) {
+            blackhole.consume(TextNormalizationUtil.normalize(title));
+        }
+    }
+
+    @Benchmark
+    public void foldTableReusedBuffer(Blackhole blackhole) {
+        for (String title : titles) {
+            buffer.setLength(0);
+            TextNormalizationUtil.normalize(title, buffer);
+            blackhole.consume(buffer.length());
+        }
+    }
+
+    /**
+     * {@code TextNormalizationUtil.normalize} before the fold table, verbatim; also the
+     * reference in TextNormalizationUtilTest.
+     */
+    public static String regexNormalize(String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        normalized = normalized.replaceAll("\\p{M}", "");
+
+        normalized = normalized.toLowerCase().trim();
+
+        normalized = normalized.replaceAll("\\s+", " ");
+
+        normalized = normalized.replaceAll("[^a-z0-9\\s]", " ");
+
+        return normalized.trim();
+    }
+}
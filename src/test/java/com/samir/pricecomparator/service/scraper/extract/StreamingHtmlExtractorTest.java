@@ -0,0 +1,79 @@
+package com.samir.pricecomparator.service.scraper.extract;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingHtmlExtractorTest {
+
+  private static final String PAGE = """
+      <html><head><script>var menu = {};</script></head><body>
+      <nav><a href="/az/kateqoriya/1">Telefonlar</a></nav>
+      <div class="products">
+        <div class="product">
+          <a href="/az/mehsullar/iphone-15"><span>Apple iPhone 15</span> 128GB</a>
+          <div class="product__price__current">1 799 AZN</div>
+        </div>
+        <div class="product">
+          <a href="/az/mehsullar/galaxy-s24">Samsung Galaxy S24</a>
+          <div class="product__price__current">1 599 AZN</div>
+        </div>
+      </div>
+      <footer><a href="/az/elaqe">Əlaqə</a></footer>
+      </body></html>
+      """;
+
+  @Test
+  void extractKeepsContainerContent() {
+    List<String> products = StreamingHtmlExtractor.extract(PAGE, "https://irshad.az/", ".product",
+        item -> {
+          Element link = item.selectFirst("a[href]");
+          Element price = item.selectFirst(".product__price__current");
+          return link == null || price == null
+              ? Optional.empty()
+              : Optional.of(link.attr("abs:href") + " | " + link.text() + " | " + price.text());
+        });
+
+    assertThat(products).containsExactly(
+        "https://irshad.az/az/mehsullar/iphone-15 | Apple iPhone 15 128GB | 1 799 AZN",
+        "https://irshad.az/az/mehsullar/galaxy-s24 | Samsung Galaxy S24 | 1 599 AZN");
+  }
+
+  @Test
+  void extractDocumentKeepsOnlyContainers() {
+    String page = """
+        <div class="list">
+          <div class="prodItem product-item" data-gtm="{}">
+            <a class="prodItem__img" href="/telefon/iphone-15"><img src="/img/1.jpg"></a>
+            <div class="prodItem__title">Apple iPhone 15</div>
+          </div>
+        </div>
+        <footer><a href="/haqqimizda">Haqqımızda</a></footer>
+        """;
+
+    Document compact = StreamingHtmlExtractor.extractDocument(page, "https://kontakt.az/",
+        ".prodItem.product-item[data-gtm]");
+
+    assertThat(compact.body().children()).hasSize(1);
+    assertThat(compact.select("a[href]")).hasSize(1);
+    assertThat(compact.selectFirst("a[href]").attr("abs:href")).isEqualTo("https://kontakt.az/telefon/iphone-15");
+    assertThat(compact.selectFirst(".prodItem__title").text()).isEqualTo("Apple iPhone 15");
+  }
+
+  @Test
+  void nestedMatchesLeaveOuterContainerWhole() {
+    String page = "<div class=\"card\"><div class=\"card\"><a href=\"/inner\">Inner</a></div>"
+        + "<a href=\"/outer\">Outer</a></div>";
+
+    List<Element> cards = StreamingHtmlExtractor.extract(page, "https://example.az/", ".card", Optional::of);
+
+    assertThat(cards).hasSize(2);
+    assertThat(cards.get(0).text()).isEqualTo("Inner");
+    assertThat(cards.get(1).text()).isEqualTo("Inner Outer");
+  }
+}
@@ -0,0 +1,182 @@
+package com.samir.pricecomparator.service.scraper.fetch;
+
+import com.samir.pricecomparator.config.ScrapingProperties;
+import com.samir.pricecomparator.metrics.ScraperMetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyControllerTest {
+
+  private static final String SHOP = "KONTAKT";
+  private static final long FAST = Duration.ofMillis(100).toNanos();
+
+  private ScrapingProperties properties;
+  private RecordingRateLimiter rateLimiter;
+  private AdaptiveConcurrencyController controller;
+
+  @BeforeEach
+  void setUp() {
+    properties = new ScrapingProperties();
+    ScrapingProperties.ShopSettings settings = properties.getShopDefaults();
+    settings.setMaxInFlightPages(2);
+    settings.setRequestsPerSecond(2.0);
+    settings.setMaxConcurrentPages(8);
+    settings.setRateStep(0.5);
+    settings.setLatencyTarget(Duration.ofMillis(1500));
+    settings.setBrowserLatencyTarget(Duration.ofSeconds(6));
+    settings.setDecreaseCooldown(Duration.ZERO);
+
+    rateLimiter = new RecordingRateLimiter(properties);
+    controller = new AdaptiveConcurrencyController(properties, rateLimiter,
+        new ScraperMetricsService(new SimpleMeterRegistry()));
+  }
+
+  @Test
+  void increasesOncePerWindowOfHealthyResponses() {
+    healthyResponses(4);
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(2);
+    assertThat(rateLimiter.rates).isEmpty();
+
+    healthyResponses(1);
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(3);
+    assertThat(rateLimiter.rates).containsExactly(2.5);
+
+    healthyResponses(5);
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(4);
+    assertThat(rateLimiter.rates).containsExactly(2.5, 3.0);
+  }
+
+  @Test
+  void windowGrowsWithConcurrency() {
+    properties.getShopDefaults().setMaxInFlightPages(6);
+
+    healthyResponses(5);
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(6);
+
+    healthyResponses(1);
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(7);
+  }
+
+  @Test
+  void stopsAtConfiguredMaximum() {
+    properties.getShopDefaults().setMaxConcurrentPages(3);
+    properties.getShopDefaults().setMaxRequestsPerSecond(2.5);
+
+    healthyResponses(20);
+
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(3);
+    assertThat(rateLimiter.rates).containsExactly(2.5);
+  }
+
+  @Test
+  void overloadHalvesLimits() {
+    properties.getShopDefaults().setMaxInFlightPages(6);
+    properties.getShopDefaults().setRequestsPerSecond(4.0);
+
+    controller.onResponse(SHOP, 429, FAST, null);
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(3);
+    assertThat(rateLimiter.rates).containsExactly(2.0);
+
+    controller.onTimeout(SHOP);
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(1);
+    assertThat(rateLimiter.rates).containsExactly(2.0, 1.0);
+
+    // Never below one page in flight or the minimum rate
+    properties.getShopDefaults().setMinRequestsPerSecond(0.75);
+    controller.onResponse(SHOP, 503, FAST, null);
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(1);
+    assertThat(rateLimiter.rates).containsExactly(2.0, 1.0, 0.75);
+  }
+
+  @Test
+  void challengePageCountsAsOverload() {
+    properties.getShopDefaults().setMaxInFlightPages(4);
+
+    controller.onResponse(SHOP, 200, FAST, "<html><title>Just a moment...</title></html>");
+
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(2);
+  }
+
+  @Test
+  void cooldownSuppressesRepeatedDecreases() {
+    properties.getShopDefaults().setMaxInFlightPages(8);
+    properties.getShopDefaults().setDecreaseCooldown(Duration.ofHours(1));
+
+    controller.onResponse(SHOP, 429, FAST, null);
+    controller.onResponse(SHOP, 503, FAST, null);
+    controller.onTimeout(SHOP);
+
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(4);
+    assertThat(rateLimiter.rates).containsExactly(1.0);
+  }
+
+  @Test
+  void slowHttpResponsesDecreaseLimits() {
+    properties.getShopDefaults().setMaxInFlightPages(5);
+
+    controller.onResponse(SHOP, 200, Duration.ofSeconds(3).toNanos(), null);
+
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(4);
+    assertThat(rateLimiter.rates).containsExactly(1.6);
+  }
+
+  @Test
+  void browserNavigationsUseTheirOwnLatencyTarget() {
+    long slowForHttp = Duration.ofSeconds(4).toNanos();
+
+    // Over the HTTP target but under the browser target: healthy
+    for (int i = 0; i < 5; i++) {
+      controller.onBrowserNavigation(SHOP, slowForHttp, "<html></html>");
+    }
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(3);
+
+    // Fast HTTP responses are not dragged down by the slow browser average
+    healthyResponses(5);
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(4);
+
+    // The average (4 s + 0.2 × 16 s) now exceeds the browser target
+    controller.onBrowserNavigation(SHOP, Duration.ofSeconds(20).toNanos(), "<html></html>");
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(3);
+  }
+
+  @Test
+  void fixedLimitsWhenAdaptiveThrottlingDisabled() {
+    properties.getShopDefaults().setAdaptiveThrottling(false);
+    properties.getShopDefaults().setMaxInFlightPages(3);
+
+    healthyResponses(10);
+    controller.onResponse(SHOP, 429, FAST, null);
+    controller.onTimeout(SHOP);
+
+    assertThat(controller.concurrencyLimit(SHOP)).isEqualTo(3);
+    assertThat(rateLimiter.rates).isEmpty();
+  }
+
+  private void healthyResponses(int count) {
+    for (int i = 0; i < count; i++) {
+      controller.onResponse(SHOP, 200, FAST, "<html></html>");
+    }
+  }
+
+  /** Records rate changes instead of throttling anything */
+  private static final class RecordingRateLimiter extends HostRateLimiter {
+
+    private final List<Double> rates = new ArrayList<>();
+
+    RecordingRateLimiter(ScrapingProperties properties) {
+      super(properties, null);
+    }
+
+    @Override
+    public void updateRate(String shopCode, double requestsPerSecond) {
+      rates.add(requestsPerSecond);
+    }
+  }
+}
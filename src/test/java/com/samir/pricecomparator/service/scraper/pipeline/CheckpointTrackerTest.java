@@ -0,0 +1,97 @@
+package com.samir.pricecomparator.service.scraper.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckpointTrackerTest {
+
+  private final List<Integer> checkpoints = new ArrayList<>();
+
+  @Test
+  void advancesInOrder() {
+    CheckpointTracker tracker = new CheckpointTracker(1, checkpoints::add);
+
+    tracker.completed(1);
+    tracker.completed(2);
+    tracker.completed(3);
+
+    assertThat(checkpoints).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  void waitsForEarlierPagesWhenCompletedOutOfOrder() {
+    CheckpointTracker tracker = new CheckpointTracker(1, checkpoints::add);
+
+    tracker.completed(3);
+    tracker.completed(2);
+    assertThat(checkpoints).isEmpty();
+
+    tracker.completed(1);
+    assertThat(checkpoints).containsExactly(3);
+
+    tracker.completed(5);
+    tracker.completed(4);
+    assertThat(checkpoints).containsExactly(3, 5);
+  }
+
+  @Test
+  void unchangedPagesAdvanceTheCheckpointLikePersistedOnes() {
+    CheckpointTracker tracker = new CheckpointTracker(1, checkpoints::add);
+
+    // Pages 2 and 3 were unchanged and completed straight from the sink while page 1 was still persisting
+    tracker.completed(2);
+    tracker.completed(3);
+    assertThat(checkpoints).isEmpty();
+
+    tracker.completed(1);
+    tracker.completed(4);
+    assertThat(checkpoints).containsExactly(3, 4);
+  }
+
+  @Test
+  void failedMiddleBatchHoldsTheCheckpoint() {
+    CheckpointTracker tracker = new CheckpointTracker(1, checkpoints::add);
+
+    tracker.completed(1);
+    tracker.completed(2);
+    // Page 3 failed to persist and never completes
+    tracker.completed(4);
+    tracker.completed(5);
+
+    assertThat(checkpoints).containsExactly(1, 2);
+  }
+
+  @Test
+  void resumedRunStartsAfterThePreviousCheckpoint() {
+    CheckpointTracker tracker = new CheckpointTracker(7, checkpoints::add);
+
+    tracker.completed(8);
+    assertThat(checkpoints).isEmpty();
+
+    tracker.completed(7);
+    assertThat(checkpoints).containsExactly(8);
+  }
+
+  @Test
+  void pagesBeforeTheStartPageAreIgnored() {
+    CheckpointTracker tracker = new CheckpointTracker(7, checkpoints::add);
+
+    tracker.completed(3);
+    tracker.completed(7);
+
+    assertThat(checkpoints).containsExactly(7);
+  }
+
+  @Test
+  void nonPaginatedPageZeroNeverCheckpoints() {
+    CheckpointTracker tracker = new CheckpointTracker(1, checkpoints::add);
+
+    tracker.completed(0);
+
+    assertThat(checkpoints).isEmpty();
+  }
+}
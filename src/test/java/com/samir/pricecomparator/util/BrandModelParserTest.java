@@ -0,0 +1,80 @@
+package com.samir.pricecomparator.util;
+
+import com.samir.pricecomparator.benchmark.BrandModelParserBenchmark;
+import com.samir.pricecomparator.benchmark.LegacyBrandModelParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BrandModelParserTest {
+
+  private final BrandModelParser parser = new BrandModelParser();
+
+  @Test
+  void parsesBrandAndModel() {
+    assertResult("Smartfon Apple iPhone 15 Pro Max 256GB", "Apple", "Iphone 15 Pro Max");
+    assertResult("Samsung Galaxy S24 Ultra 12/256GB", "Samsung", "Galaxy S24 Ultra");
+    assertResult("Xiaomi Redmi Note 13 8/256GB", "Redmi", "Redmi Note 13");
+    assertResult("Honor Magic6 Pro 12/512GB", "Honor", "Honor Magic6 Pro");
+  }
+
+  @Test
+  void foldsCaseOfKeywordsAndModels() {
+    assertResult("APPLE IPHONE 15 PRO", "Apple", "Iphone 15 Pro");
+    assertResult("smartfon samsung galaxy a35", "Samsung", "Galaxy A35");
+  }
+
+  @Test
+  void earlierBrandInPriorityOrderWins() {
+    // Samsung is mentioned first, but Apple comes first in the brand list
+    assertResult("Samsung Galaxy Buds / adapter for iPhone 15", "Apple", "Iphone 15");
+    assertResult("Redmi Note 13 vs Galaxy A55", "Samsung", "Galaxy A55");
+  }
+
+  @Test
+  void keywordWithoutModelFallsThroughToNextBrand() {
+    assertResult("Qoruyucu şüşə iPhone üçün, Xiaomi 14", "Xiaomi", "Xiaomi 14");
+  }
+
+  @Test
+  void leftmostMatchWithinBrandWins() {
+    // "samsung" has no model after it; "galaxy" does
+    assertResult("Samsung Galaxy S24 / Galaxy A15", "Samsung", "Galaxy S24");
+  }
+
+  @Test
+  void noBrandOrBlankTitle() {
+    assertResult("Tozsoran Dyson V15 Detect Absolute", null, null);
+    assertResult("   ", null, null);
+    assertResult(null, null, null);
+  }
+
+  @Test
+  void matchesLegacyRegexCascadeOnTitleCorpus() {
+    LegacyBrandModelParser legacy = new LegacyBrandModelParser();
+    List<String> titles = new ArrayList<>(BrandModelParserBenchmark.TITLES);
+    titles.addAll(List.of(
+        "Samsung Galaxy Buds / adapter for iPhone 15",
+        "Redmi Note 13 vs Galaxy A55",
+        "Qoruyucu şüşə iPhone üçün, Xiaomi 14",
+        "Samsung Galaxy S24 / Galaxy A15",
+        "POCO X6 Pro 5G 12/512GB",
+        "Motorola Moto G84 Power 5G"));
+
+    for (String title : titles) {
+      LegacyBrandModelParser.BrandModelResult expected = legacy.parse(title);
+      BrandModelParser.BrandModelResult actual = parser.parse(title);
+      assertThat(actual.getBrand()).as(title).isEqualTo(expected.getBrand());
+      assertThat(actual.getModel()).as(title).isEqualTo(expected.getModel());
+    }
+  }
+
+  private void assertResult(String title, String brand, String model) {
+    BrandModelParser.BrandModelResult result = parser.parse(title);
+    assertThat(result.getBrand()).as(title).isEqualTo(brand);
+    assertThat(result.getModel()).as(title).isEqualTo(model);
+  }
+}
@@ -0,0 +1,81 @@
+package com.samir.pricecomparator.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ColorExtractorTest {
+
+  private final ColorExtractor extractor = new ColorExtractor();
+
+  @Test
+  void longestTermWins() {
+    assertThat(extractor.extractColor("Apple iPhone 7 32GB Rose Gold")).isEqualTo("Gold");
+    assertThat(extractor.findColor("Apple iPhone 7 32GB Rose Gold"))
+        .isEqualTo(new ColorExtractor.ColorMatch("Gold", 20, 29));
+    assertThat(extractor.findColor("Honor Pad 9 8/256GB Space Gray"))
+        .isEqualTo(new ColorExtractor.ColorMatch("Gray", 20, 30));
+  }
+
+  @Test
+  void leftmostWinsAmongEqualLengths() {
+    assertThat(extractor.extractColor("Samsung Galaxy A15 Blue / Pink")).isEqualTo("Blue");
+  }
+
+  @Test
+  void termsOnlyMatchWholeWords() {
+    assertThat(extractor.extractColor("Xiaomi Redmi Note 13 8/256GB")).isNull();
+    assertThat(extractor.extractColor("Xiaomi Redmi Note 13 8/256GB Red")).isEqualTo("Red");
+    assertThat(extractor.extractColor("Goldfinch bluetooth speaker")).isNull();
+  }
+
+  @Test
+  void azerbaijaniAndRussianTerms() {
+    assertThat(extractor.extractColor("Smartfon Samsung Galaxy A35 8/256GB Qırmızı")).isEqualTo("Red");
+    assertThat(extractor.extractColor("Smartfon Apple iPhone 15 128GB Çəhrayı")).isEqualTo("Pink");
+    assertThat(extractor.extractColor("Nokia 105 ağ")).isEqualTo("White");
+    assertThat(extractor.extractColor("Смартфон Samsung Galaxy S24 Черный")).isEqualTo("Black");
+  }
+
+  @Test
+  void shortAzerbaijaniTermNotMatchedInsideWords() {
+    assertThat(extractor.extractColor("Ağıllı saat Huawei Watch Fit 3")).isNull();
+    assertThat(extractor.extractColor("Qulaqlıq bağ ilə")).isNull();
+  }
+
+  @Test
+  void noColor() {
+    assertThat(extractor.extractColor("Apple iPhone 15 128GB")).isNull();
+    assertThat(extractor.extractColor(" ")).isNull();
+    assertThat(extractor.extractColor(null)).isNull();
+    assertThat(extractor.extractColorWithConfidence("Apple iPhone 15").getConfidence()).isZero();
+  }
+
+  @Test
+  void parenthesesAddConfidence() {
+    ColorExtractor.ColorResult plain = extractor.extractColorWithConfidence("Apple iPhone 15 128GB Black");
+    ColorExtractor.ColorResult bracketed = extractor.extractColorWithConfidence("Apple iPhone 15 128GB (Black)");
+
+    assertThat(plain.getConfidence()).isCloseTo(0.5, within(1e-9));
+    assertThat(bracketed.getColor()).isEqualTo("Black");
+    assertThat(bracketed.getConfidence()).isCloseTo(0.7, within(1e-9));
+  }
+
+  @Test
+  void parenthesesBonusOnlyForTheMatchedTerm() {
+    // The parentheses close before the color term
+    ColorExtractor.ColorResult result = extractor.extractColorWithConfidence("Apple iPhone 15 (128GB) Black");
+
+    assertThat(result.getConfidence()).isCloseTo(0.5, within(1e-9));
+  }
+
+  @Test
+  void colorLabelAndParenthesesAreConfident() {
+    ColorExtractor.ColorResult result = extractor.extractColorWithConfidence("Xiaomi 14 (rəng: Qara)");
+
+    assertThat(result.getColor()).isEqualTo("Black");
+    assertThat(result.getConfidence()).isCloseTo(1.0, within(1e-9));
+    assertThat(result.isConfident()).isTrue();
+  }
+}
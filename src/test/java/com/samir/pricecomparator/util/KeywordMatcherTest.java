@@ -0,0 +1,116 @@
+package com.samir.pricecomparator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeywordMatcherTest {
+
+  @Test
+  void reportsOverlappingKeywordsByEndThenLongestFirst() {
+    KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+        .add("he", "he")
+        .add("she", "she")
+        .add("his", "his")
+        .add("hers", "hers")
+        .build();
+
+    assertThat(matcher.findAll("ushers")).containsExactly(
+        new KeywordMatcher.Match<>(1, 4, "she"),
+        new KeywordMatcher.Match<>(2, 4, "he"),
+        new KeywordMatcher.Match<>(2, 6, "hers"));
+  }
+
+  @Test
+  void reportsNestedKeywords() {
+    KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+        .add("gold", "gold")
+        .add("rose gold", "rose gold")
+        .asciiCaseInsensitive()
+        .build();
+
+    assertThat(matcher.findAll("iPhone Rose Gold case")).containsExactly(
+        new KeywordMatcher.Match<>(7, 16, "rose gold"),
+        new KeywordMatcher.Match<>(12, 16, "gold"));
+  }
+
+  @Test
+  void followsFailureLinksAcrossPartialMatches() {
+    KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+        .add("abcd", "abcd")
+        .add("bce", "bce")
+        .build();
+
+    assertThat(matcher.findAll("abce")).containsExactly(new KeywordMatcher.Match<>(1, 4, "bce"));
+    assertThat(matcher.findAll("aaabcd abc")).containsExactly(new KeywordMatcher.Match<>(2, 6, "abcd"));
+  }
+
+  @Test
+  void exactByDefault() {
+    KeywordMatcher<String> matcher = KeywordMatcher.<String>builder().add("gold", "gold").build();
+
+    assertThat(matcher.findAll("GOLD Gold")).isEmpty();
+    assertThat(matcher.findAll("gold")).hasSize(1);
+  }
+
+  @Test
+  void asciiCaseInsensitiveFoldsOnlyAsciiLetters() {
+    KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+        .add("göy", "blue")
+        .add("iphone", "iphone")
+        .asciiCaseInsensitive()
+        .build();
+
+    assertThat(matcher.findAll("IPHONE göy")).extracting(KeywordMatcher.Match::value)
+        .containsExactly("iphone", "blue");
+    assertThat(matcher.findAll("GÖY")).isEmpty();
+  }
+
+  @Test
+  void fullCaseInsensitiveKeepsOriginalPositions() {
+    KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+        .add("göy", "blue")
+        .add("чёрный", "black")
+        .caseInsensitive()
+        .build();
+
+    assertThat(matcher.findAll("Nokia 110 GÖY / ЧЁРНЫЙ")).containsExactly(
+        new KeywordMatcher.Match<>(10, 13, "blue"),
+        new KeywordMatcher.Match<>(16, 22, "black"));
+  }
+
+  @Test
+  void firstValueWinsForDuplicateKeyword() {
+    KeywordMatcher<Integer> matcher = KeywordMatcher.<Integer>builder()
+        .add("galaxy", 1)
+        .add("galaxy", 2)
+        .build();
+
+    assertThat(matcher.findAll("galaxy")).extracting(KeywordMatcher.Match::value).containsExactly(1);
+  }
+
+  @Test
+  void rejectsEmptyKeyword() {
+    assertThatThrownBy(() -> KeywordMatcher.<String>builder().add("", "empty"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void scanReportsSameMatchesAsFindAll() {
+    KeywordMatcher<String> matcher = KeywordMatcher.<String>builder()
+        .add("space gray", "space gray")
+        .add("gray", "gray")
+        .asciiCaseInsensitive()
+        .build();
+    String text = "Honor Pad 9 8/256GB Space Gray";
+
+    List<KeywordMatcher.Match<String>> scanned = new ArrayList<>();
+    matcher.scan(text, (start, end, value) -> scanned.add(new KeywordMatcher.Match<>(start, end, value)));
+
+    assertThat(scanned).isEqualTo(matcher.findAll(text)).hasSize(2);
+  }
+}
@@ -0,0 +1,69 @@
+package com.samir.pricecomparator.util;
+
+import com.samir.pricecomparator.benchmark.BrandModelParserBenchmark;
+import com.samir.pricecomparator.benchmark.TextNormalizationBenchmark;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.samir.pricecomparator.benchmark.TextNormalizationBenchmark.regexNormalize;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextNormalizationUtilTest {
+
+  @Test
+  void matchesRegexPipelineForEveryBmpChar() {
+    List<String> mismatches = new ArrayList<>();
+    StringBuilder buffer = new StringBuilder();
+    for (int c = 0; c <= Character.MAX_VALUE; c++) {
+      if (Character.isSurrogate((char) c)) {
+        continue;
+      }
+      // Alone, and between letters so separators and removed chars show up
+      for (String text : List.of(String.valueOf((char) c), "a" + (char) c + "b")) {
+        String expected = regexNormalize(text);
+        buffer.setLength(0);
+        TextNormalizationUtil.normalize(text, buffer);
+        if (!expected.equals(TextNormalizationUtil.normalize(text)) || !expected.contentEquals(buffer)) {
+          mismatches.add(String.format("U+%04X in \"%s\"", c, text));
+        }
+      }
+    }
+    assertThat(mismatches).isEmpty();
+  }
+
+  @Test
+  void matchesRegexPipelineForSupplementaryChars() {
+    for (String text : List.of("a📱b", "iPhone 𝐀 15", "🍎 Apple")) {
+      assertThat(TextNormalizationUtil.normalize(text)).isEqualTo(regexNormalize(text));
+    }
+  }
+
+  @Test
+  void matchesRegexPipelineForTitleCorpus() {
+    List<String> titles = new ArrayList<>(BrandModelParserBenchmark.TITLES);
+    titles.addAll(TextNormalizationBenchmark.LOCAL_TITLES);
+    titles.addAll(List.of("", "   ", "a - b", "Galaxy S24", "  tab\t\tand\nnewline  "));
+
+    StringBuilder buffer = new StringBuilder();
+    for (String title : titles) {
+      String expected = regexNormalize(title);
+      assertThat(TextNormalizationUtil.normalize(title)).as(title).isEqualTo(expected);
+
+      buffer.setLength(0);
+      TextNormalizationUtil.normalize(title, buffer);
+      assertThat(buffer.toString()).as(title).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void nullAndBlankNormalizeToEmpty() {
+    assertThat(TextNormalizationUtil.normalize((String) null)).isEmpty();
+    assertThat(TextNormalizationUtil.normalize(" \t ")).isEmpty();
+
+    StringBuilder buffer = new StringBuilder("kept");
+    TextNormalizationUtil.normalize(null, buffer);
+    assertThat(buffer.toString()).isEqualTo("kept");
+  }
+}